@@ -213,6 +213,13 @@ public abstract class YogaNode {
 
   public abstract void print();
 
+  /**
+   * Applies a batch of style inputs encoded as described by {@link YogaStyleInputs} in a single
+   * native call: each input is its opcode followed by its arguments (edge first for edge based
+   * inputs, enums as their int value, booleans as 0 or 1).
+   */
+  public abstract void setStyleInputs(float[] styleInputs, int size);
+
   public abstract YogaNode cloneWithoutChildren();
 
   public abstract YogaNode cloneWithChildren();
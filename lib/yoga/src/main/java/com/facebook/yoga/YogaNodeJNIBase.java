@@ -539,6 +539,10 @@ public abstract class YogaNodeJNIBase extends YogaNode implements Cloneable {
     YogaNative.jni_YGNodePrintJNI(mNativePointer);
   }
 
+  public void setStyleInputs(float[] styleInputsArray, int size) {
+    YogaNative.jni_YGNodeSetStyleInputsJNI(mNativePointer, styleInputsArray, size);
+  }
+
   /**
    * This method replaces the child at childIndex position with the newNode received by parameter.
    * This is different than calling removeChildAt and addChildAt because this method ONLY replaces
@@ -735,6 +735,230 @@ static jlong jni_YGNodeCloneJNI(JNIEnv* env, jobject obj, jlong nativePointer) {
 // Yoga specific properties, not compatible with flexbox specification
 YG_NODE_JNI_STYLE_PROP(jfloat, float, AspectRatio);
 
+// Keep in sync with com.facebook.yoga.YogaStyleInputs
+enum YGStyleInput {
+  LayoutDirection,
+  FlexDirection,
+  Flex,
+  FlexGrow,
+  FlexShrink,
+  FlexBasis,
+  FlexBasisPercent,
+  FlexBasisAuto,
+  FlexWrap,
+  Width,
+  WidthPercent,
+  WidthAuto,
+  MinWidth,
+  MinWidthPercent,
+  MaxWidth,
+  MaxWidthPercent,
+  Height,
+  HeightPercent,
+  HeightAuto,
+  MinHeight,
+  MinHeightPercent,
+  MaxHeight,
+  MaxHeightPercent,
+  JustifyContent,
+  AlignItems,
+  AlignSelf,
+  AlignContent,
+  PositionType,
+  AspectRatio,
+  Overflow,
+  Display,
+  Margin,
+  MarginPercent,
+  MarginAuto,
+  Padding,
+  PaddingPercent,
+  Border,
+  Position,
+  PositionPercent,
+  IsReferenceBaseline,
+};
+
+static void YGNodeSetStyleInputs(
+    const YGNodeRef node,
+    float* styleInputs,
+    int size) {
+  const auto end = styleInputs + size;
+  auto edgesSet = YGNodeEdges{node};
+  while (styleInputs < end) {
+    auto styleInputKey = static_cast<YGStyleInput>((int) *styleInputs++);
+    switch (styleInputKey) {
+      case LayoutDirection:
+        YGNodeStyleSetDirection(node, static_cast<YGDirection>(*styleInputs++));
+        break;
+      case FlexDirection:
+        YGNodeStyleSetFlexDirection(
+            node, static_cast<YGFlexDirection>(*styleInputs++));
+        break;
+      case Flex:
+        YGNodeStyleSetFlex(node, *styleInputs++);
+        break;
+      case FlexGrow:
+        YGNodeStyleSetFlexGrow(node, *styleInputs++);
+        break;
+      case FlexShrink:
+        YGNodeStyleSetFlexShrink(node, *styleInputs++);
+        break;
+      case FlexBasis:
+        YGNodeStyleSetFlexBasis(node, *styleInputs++);
+        break;
+      case FlexBasisPercent:
+        YGNodeStyleSetFlexBasisPercent(node, *styleInputs++);
+        break;
+      case FlexBasisAuto:
+        YGNodeStyleSetFlexBasisAuto(node);
+        break;
+      case FlexWrap:
+        YGNodeStyleSetFlexWrap(node, static_cast<YGWrap>(*styleInputs++));
+        break;
+      case Width:
+        YGNodeStyleSetWidth(node, *styleInputs++);
+        break;
+      case WidthPercent:
+        YGNodeStyleSetWidthPercent(node, *styleInputs++);
+        break;
+      case WidthAuto:
+        YGNodeStyleSetWidthAuto(node);
+        break;
+      case MinWidth:
+        YGNodeStyleSetMinWidth(node, *styleInputs++);
+        break;
+      case MinWidthPercent:
+        YGNodeStyleSetMinWidthPercent(node, *styleInputs++);
+        break;
+      case MaxWidth:
+        YGNodeStyleSetMaxWidth(node, *styleInputs++);
+        break;
+      case MaxWidthPercent:
+        YGNodeStyleSetMaxWidthPercent(node, *styleInputs++);
+        break;
+      case Height:
+        YGNodeStyleSetHeight(node, *styleInputs++);
+        break;
+      case HeightPercent:
+        YGNodeStyleSetHeightPercent(node, *styleInputs++);
+        break;
+      case HeightAuto:
+        YGNodeStyleSetHeightAuto(node);
+        break;
+      case MinHeight:
+        YGNodeStyleSetMinHeight(node, *styleInputs++);
+        break;
+      case MinHeightPercent:
+        YGNodeStyleSetMinHeightPercent(node, *styleInputs++);
+        break;
+      case MaxHeight:
+        YGNodeStyleSetMaxHeight(node, *styleInputs++);
+        break;
+      case MaxHeightPercent:
+        YGNodeStyleSetMaxHeightPercent(node, *styleInputs++);
+        break;
+      case JustifyContent:
+        YGNodeStyleSetJustifyContent(
+            node, static_cast<YGJustify>(*styleInputs++));
+        break;
+      case AlignItems:
+        YGNodeStyleSetAlignItems(node, static_cast<YGAlign>(*styleInputs++));
+        break;
+      case AlignSelf:
+        YGNodeStyleSetAlignSelf(node, static_cast<YGAlign>(*styleInputs++));
+        break;
+      case AlignContent:
+        YGNodeStyleSetAlignContent(node, static_cast<YGAlign>(*styleInputs++));
+        break;
+      case PositionType:
+        YGNodeStyleSetPositionType(
+            node, static_cast<YGPositionType>(*styleInputs++));
+        break;
+      case AspectRatio:
+        YGNodeStyleSetAspectRatio(node, *styleInputs++);
+        break;
+      case Overflow:
+        YGNodeStyleSetOverflow(node, static_cast<YGOverflow>(*styleInputs++));
+        break;
+      case Display:
+        YGNodeStyleSetDisplay(node, static_cast<YGDisplay>(*styleInputs++));
+        break;
+      case Margin: {
+        auto edge = static_cast<YGEdge>(*styleInputs++);
+        float marginValue = *styleInputs++;
+        edgesSet.add(YGNodeEdges::MARGIN);
+        YGNodeStyleSetMargin(node, edge, marginValue);
+        break;
+      }
+      case MarginPercent: {
+        auto edge = static_cast<YGEdge>(*styleInputs++);
+        float marginPercent = *styleInputs++;
+        edgesSet.add(YGNodeEdges::MARGIN);
+        YGNodeStyleSetMarginPercent(node, edge, marginPercent);
+        break;
+      }
+      case MarginAuto: {
+        edgesSet.add(YGNodeEdges::MARGIN);
+        YGNodeStyleSetMarginAuto(node, static_cast<YGEdge>(*styleInputs++));
+        break;
+      }
+      case Padding: {
+        auto edge = static_cast<YGEdge>(*styleInputs++);
+        float paddingValue = *styleInputs++;
+        edgesSet.add(YGNodeEdges::PADDING);
+        YGNodeStyleSetPadding(node, edge, paddingValue);
+        break;
+      }
+      case PaddingPercent: {
+        auto edge = static_cast<YGEdge>(*styleInputs++);
+        float paddingPercent = *styleInputs++;
+        edgesSet.add(YGNodeEdges::PADDING);
+        YGNodeStyleSetPaddingPercent(node, edge, paddingPercent);
+        break;
+      }
+      case Border: {
+        auto edge = static_cast<YGEdge>(*styleInputs++);
+        float borderValue = *styleInputs++;
+        edgesSet.add(YGNodeEdges::BORDER);
+        YGNodeStyleSetBorder(node, edge, borderValue);
+        break;
+      }
+      case Position: {
+        auto edge = static_cast<YGEdge>(*styleInputs++);
+        float positionValue = *styleInputs++;
+        YGNodeStyleSetPosition(node, edge, positionValue);
+        break;
+      }
+      case PositionPercent: {
+        auto edge = static_cast<YGEdge>(*styleInputs++);
+        float positionPercent = *styleInputs++;
+        YGNodeStyleSetPositionPercent(node, edge, positionPercent);
+        break;
+      }
+      case IsReferenceBaseline: {
+        YGNodeSetIsReferenceBaseline(node, *styleInputs++ == 1 ? true : false);
+        break;
+      }
+      default:
+        break;
+    }
+  }
+  edgesSet.setOn(node);
+}
+
+static void jni_YGNodeSetStyleInputsJNI(
+    JNIEnv* env,
+    jobject obj,
+    jlong nativePointer,
+    jfloatArray styleInputs,
+    jint size) {
+  auto result = std::unique_ptr<float[]>(new float[size]);
+  env->GetFloatArrayRegion(styleInputs, 0, size, result.get());
+
+  YGNodeSetStyleInputs(_jlong2YGNodeRef(nativePointer), result.get(), size);
+}
+
 static JNINativeMethod methods[] = {
     {"jni_YGConfigNewJNI", "()J", (void*) jni_YGConfigNewJNI},
     {"jni_YGConfigFreeJNI", "(J)V", (void*) jni_YGConfigFreeJNI},
@@ -973,6 +1197,9 @@ static JNINativeMethod methods[] = {
      "(JZ)V",
      (void*) jni_YGNodeSetHasBaselineFuncJNI},
     {"jni_YGNodePrintJNI", "(J)V", (void*) jni_YGNodePrintJNI},
+    {"jni_YGNodeSetStyleInputsJNI",
+     "(J[FI)V",
+     (void*) jni_YGNodeSetStyleInputsJNI},
     {"jni_YGNodeCloneJNI", "(J)J", (void*) jni_YGNodeCloneJNI},
 };
 
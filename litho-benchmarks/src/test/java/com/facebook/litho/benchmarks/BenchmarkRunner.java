@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.benchmarks;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Runs benchmarks on the JVM and reports their results, one JSON object per line, to {@code
+ * benchmark-results.jsonl} in the directory set by the {@code litho.benchmark.outputDir} system
+ * property, as well as to the standard output.
+ *
+ * <p>Benchmarks are skipped unless {@code litho.benchmark.enabled} is true. The sizes of the
+ * synthetic inputs and the number of iterations can be changed with {@code litho.benchmark.sizes}
+ * (comma separated), {@code litho.benchmark.warmupIterations} and {@code
+ * litho.benchmark.iterations}.
+ */
+public final class BenchmarkRunner {
+
+  /** The code to measure, along with any setup which should not be measured. */
+  public interface Benchmark {
+
+    /** Called before every iteration, outside of the measured time. */
+    void setUp();
+
+    /** Called once per iteration, this is the measured code. */
+    void run();
+  }
+
+  private static final String PROPERTY_PREFIX = "litho.benchmark.";
+  private static final String RESULTS_FILE_NAME = "benchmark-results.jsonl";
+
+  private BenchmarkRunner() {}
+
+  public static boolean isEnabled() {
+    return Boolean.parseBoolean(System.getProperty(PROPERTY_PREFIX + "enabled"));
+  }
+
+  /** @return the sizes of the synthetic inputs each benchmark should be run with. */
+  public static int[] getSizes() {
+    final String[] sizes = System.getProperty(PROPERTY_PREFIX + "sizes", "10,100,500").split(",");
+    final int[] result = new int[sizes.length];
+    for (int i = 0; i < sizes.length; i++) {
+      result[i] = Integer.parseInt(sizes[i].trim());
+    }
+    return result;
+  }
+
+  public static BenchmarkResult run(String name, int size, Benchmark benchmark) {
+    final int warmupIterations = getIntProperty("warmupIterations", 5);
+    final int iterations = getIntProperty("iterations", 20);
+
+    for (int i = 0; i < warmupIterations; i++) {
+      benchmark.setUp();
+      benchmark.run();
+    }
+
+    final long[] timesNanos = new long[iterations];
+    for (int i = 0; i < iterations; i++) {
+      benchmark.setUp();
+      final long startNanos = System.nanoTime();
+      benchmark.run();
+      timesNanos[i] = System.nanoTime() - startNanos;
+    }
+
+    final BenchmarkResult result = new BenchmarkResult(name, size, warmupIterations, timesNanos);
+    report(result);
+    return result;
+  }
+
+  private static void report(BenchmarkResult result) {
+    final String json = result.toJson();
+    System.out.println(json);
+
+    final String outputDir = System.getProperty(PROPERTY_PREFIX + "outputDir");
+    if (outputDir == null) {
+      return;
+    }
+
+    final File directory = new File(outputDir);
+    if (!directory.exists() && !directory.mkdirs()) {
+      throw new IllegalStateException("Cannot create benchmark output directory " + outputDir);
+    }
+
+    try (Writer writer = new FileWriter(new File(directory, RESULTS_FILE_NAME), true)) {
+      writer.write(json);
+      writer.write('\n');
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot write benchmark results to " + outputDir, e);
+    }
+  }
+
+  private static int getIntProperty(String name, int defaultValue) {
+    final String value = System.getProperty(PROPERTY_PREFIX + name);
+    return value == null ? defaultValue : Integer.parseInt(value.trim());
+  }
+
+  /** The timings of a benchmark run, in nanoseconds. */
+  public static final class BenchmarkResult {
+
+    public final String name;
+    public final int size;
+    public final int warmupIterations;
+    public final int iterations;
+    public final long minNanos;
+    public final long maxNanos;
+    public final long meanNanos;
+    public final long medianNanos;
+    public final long p90Nanos;
+
+    BenchmarkResult(String name, int size, int warmupIterations, long[] timesNanos) {
+      this.name = name;
+      this.size = size;
+      this.warmupIterations = warmupIterations;
+      this.iterations = timesNanos.length;
+
+      final long[] sorted = Arrays.copyOf(timesNanos, timesNanos.length);
+      Arrays.sort(sorted);
+
+      long sum = 0;
+      for (long time : sorted) {
+        sum += time;
+      }
+
+      minNanos = sorted.length == 0 ? 0 : sorted[0];
+      maxNanos = sorted.length == 0 ? 0 : sorted[sorted.length - 1];
+      meanNanos = sorted.length == 0 ? 0 : sum / sorted.length;
+      medianNanos = percentile(sorted, 50);
+      p90Nanos = percentile(sorted, 90);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+      if (sorted.length == 0) {
+        return 0;
+      }
+      final int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+      return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    String toJson() {
+      return String.format(
+          Locale.US,
+          "{\"name\":\"%s\",\"size\":%d,\"warmupIterations\":%d,\"iterations\":%d,"
+              + "\"minNanos\":%d,\"maxNanos\":%d,\"meanNanos\":%d,\"medianNanos\":%d,"
+              + "\"p90Nanos\":%d}",
+          name,
+          size,
+          warmupIterations,
+          iterations,
+          minNanos,
+          maxNanos,
+          meanNanos,
+          medianNanos,
+          p90Nanos);
+    }
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.benchmarks;
+
+import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+import static org.junit.Assume.assumeTrue;
+
+import com.facebook.litho.BenchmarkTestHelper;
+import com.facebook.litho.Component;
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.SizeSpec;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Measures the time to resolve and lay out synthetic trees of increasing size. */
+@RunWith(LithoTestRunner.class)
+public class LayoutBenchmarkTest {
+
+  private static final int WIDTH_SPEC = SizeSpec.makeSizeSpec(1080, SizeSpec.EXACTLY);
+  private static final int HEIGHT_SPEC = SizeSpec.makeSizeSpec(0, SizeSpec.UNSPECIFIED);
+
+  private ComponentContext mContext;
+  private boolean mDefaultUseBatchedYogaStyleInputs;
+
+  @Before
+  public void setup() {
+    assumeTrue(BenchmarkRunner.isEnabled());
+    mContext = new ComponentContext(getApplicationContext());
+    mDefaultUseBatchedYogaStyleInputs = ComponentsConfiguration.useBatchedYogaStyleInputs;
+  }
+
+  @After
+  public void restore() {
+    ComponentsConfiguration.useBatchedYogaStyleInputs = mDefaultUseBatchedYogaStyleInputs;
+  }
+
+  @Test
+  public void benchmarkLayout() {
+    for (int size : BenchmarkRunner.getSizes()) {
+      BenchmarkRunner.run("layout", size, new LayoutBenchmark(size));
+    }
+  }
+
+  @Test
+  public void benchmarkYogaStyleInputs() {
+    for (int size : BenchmarkRunner.getSizes()) {
+      ComponentsConfiguration.useBatchedYogaStyleInputs = false;
+      BenchmarkRunner.run("layout.directStyleInputs", size, new LayoutBenchmark(size));
+
+      ComponentsConfiguration.useBatchedYogaStyleInputs = true;
+      BenchmarkRunner.run("layout.batchedStyleInputs", size, new LayoutBenchmark(size));
+    }
+  }
+
+  private class LayoutBenchmark implements BenchmarkRunner.Benchmark {
+
+    private final int mSize;
+    private Component mComponent;
+
+    LayoutBenchmark(int size) {
+      mSize = size;
+    }
+
+    @Override
+    public void setUp() {
+      mComponent = SyntheticTrees.create(mContext, mSize);
+    }
+
+    @Override
+    public void run() {
+      BenchmarkTestHelper.createAndMeasureLithoView(mContext, mComponent, WIDTH_SPEC, HEIGHT_SPEC);
+    }
+  }
+}
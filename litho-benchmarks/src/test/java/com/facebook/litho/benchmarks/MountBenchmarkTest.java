@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.benchmarks;
+
+import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+import static org.junit.Assume.assumeTrue;
+
+import android.graphics.Rect;
+import com.facebook.litho.BenchmarkTestHelper;
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.LithoView;
+import com.facebook.litho.SizeSpec;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Measures the time to mount synthetic trees, fully and incrementally while scrolling. */
+@RunWith(LithoTestRunner.class)
+public class MountBenchmarkTest {
+
+  private static final int WIDTH = 1080;
+  private static final int VIEWPORT_HEIGHT = 400;
+  private static final int SCROLL_STEP = 50;
+  private static final int WIDTH_SPEC = SizeSpec.makeSizeSpec(WIDTH, SizeSpec.EXACTLY);
+  private static final int HEIGHT_SPEC = SizeSpec.makeSizeSpec(0, SizeSpec.UNSPECIFIED);
+
+  private ComponentContext mContext;
+
+  @Before
+  public void setup() {
+    assumeTrue(BenchmarkRunner.isEnabled());
+    mContext = new ComponentContext(getApplicationContext());
+  }
+
+  @Test
+  public void benchmarkMount() {
+    for (int size : BenchmarkRunner.getSizes()) {
+      final LithoView lithoView = createLithoView(size);
+      BenchmarkRunner.run(
+          "mount",
+          size,
+          new BenchmarkRunner.Benchmark() {
+            @Override
+            public void setUp() {
+              BenchmarkTestHelper.unmountLithoView(lithoView);
+              BenchmarkTestHelper.setMountStateDirty(lithoView);
+            }
+
+            @Override
+            public void run() {
+              BenchmarkTestHelper.mountLithoView(lithoView);
+            }
+          });
+    }
+  }
+
+  @Test
+  public void benchmarkIncrementalMount() {
+    for (int size : BenchmarkRunner.getSizes()) {
+      final LithoView lithoView = createLithoView(size);
+      final int contentHeight = lithoView.getMeasuredHeight();
+      final Rect visibleRect = new Rect();
+      BenchmarkRunner.run(
+          "mount.incremental",
+          size,
+          new BenchmarkRunner.Benchmark() {
+            @Override
+            public void setUp() {
+              visibleRect.set(0, 0, WIDTH, VIEWPORT_HEIGHT);
+              lithoView.notifyVisibleBoundsChanged(visibleRect, false);
+            }
+
+            @Override
+            public void run() {
+              // Scroll the viewport from the top to the bottom of the content.
+              for (int top = SCROLL_STEP;
+                  top + VIEWPORT_HEIGHT <= contentHeight;
+                  top += SCROLL_STEP) {
+                visibleRect.set(0, top, WIDTH, top + VIEWPORT_HEIGHT);
+                lithoView.notifyVisibleBoundsChanged(visibleRect, false);
+              }
+            }
+          });
+    }
+  }
+
+  private LithoView createLithoView(int size) {
+    return BenchmarkTestHelper.createAndMeasureLithoView(
+        mContext, SyntheticTrees.create(mContext, size), WIDTH_SPEC, HEIGHT_SPEC);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.benchmarks;
+
+import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+import static org.junit.Assume.assumeTrue;
+
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.ComponentTree;
+import com.facebook.litho.SizeSpec;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the time to recompute the layout of synthetic trees after a state update on one of their
+ * leaves, with and without reconciliation.
+ */
+@RunWith(LithoTestRunner.class)
+public class ReconciliationBenchmarkTest {
+
+  private static final int WIDTH_SPEC = SizeSpec.makeSizeSpec(1080, SizeSpec.EXACTLY);
+  private static final int HEIGHT_SPEC = SizeSpec.makeSizeSpec(0, SizeSpec.UNSPECIFIED);
+
+  private ComponentContext mContext;
+
+  @Before
+  public void setup() {
+    assumeTrue(BenchmarkRunner.isEnabled());
+    mContext = new ComponentContext(getApplicationContext());
+  }
+
+  @Test
+  public void benchmarkStateUpdate() {
+    for (int size : BenchmarkRunner.getSizes()) {
+      BenchmarkRunner.run("reconciliation.enabled", size, new StateUpdateBenchmark(size, true));
+      BenchmarkRunner.run("reconciliation.disabled", size, new StateUpdateBenchmark(size, false));
+    }
+  }
+
+  private class StateUpdateBenchmark implements BenchmarkRunner.Benchmark {
+
+    private final AtomicReference<ComponentContext> mLeafContext = new AtomicReference<>();
+
+    StateUpdateBenchmark(int size, boolean isReconciliationEnabled) {
+      final ComponentTree componentTree =
+          ComponentTree.create(
+                  mContext,
+                  SyntheticTrees.create(
+                      mContext,
+                      size,
+                      StatefulLeafComponent.create(mContext).contextRef(mLeafContext).build()))
+              .isReconciliationEnabled(isReconciliationEnabled)
+              .build();
+      componentTree.setSizeSpec(WIDTH_SPEC, HEIGHT_SPEC);
+    }
+
+    @Override
+    public void setUp() {}
+
+    @Override
+    public void run() {
+      StatefulLeafComponent.incrementSync(mLeafContext.get());
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.benchmarks;
+
+import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+import static org.junit.Assume.assumeTrue;
+
+import androidx.recyclerview.widget.OrientationHelper;
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.LithoHandler;
+import com.facebook.litho.Size;
+import com.facebook.litho.SizeSpec;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import com.facebook.litho.widget.ChangeSetCompleteCallback;
+import com.facebook.litho.widget.ComponentRenderInfo;
+import com.facebook.litho.widget.LayoutHandlerFactory;
+import com.facebook.litho.widget.LinearLayoutInfo;
+import com.facebook.litho.widget.RecyclerBinder;
+import com.facebook.litho.widget.RenderInfo;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the time to compute the layout range of a {@link RecyclerBinder} while its visible range
+ * moves from the first to the last item. Layouts are computed synchronously on the test thread so
+ * that they are included in the measured time.
+ */
+@RunWith(LithoTestRunner.class)
+public class RecyclerBinderBenchmarkTest {
+
+  private static final int ITEM_NODE_COUNT = 10;
+  private static final int VISIBLE_ITEM_COUNT = 5;
+  private static final int WIDTH_SPEC = SizeSpec.makeSizeSpec(1080, SizeSpec.EXACTLY);
+  private static final int HEIGHT_SPEC = SizeSpec.makeSizeSpec(1920, SizeSpec.EXACTLY);
+
+  private ComponentContext mContext;
+
+  @Before
+  public void setup() {
+    assumeTrue(BenchmarkRunner.isEnabled());
+    mContext = new ComponentContext(getApplicationContext());
+  }
+
+  @Test
+  public void benchmarkRangeComputation() {
+    for (final int size : BenchmarkRunner.getSizes()) {
+      BenchmarkRunner.run(
+          "recyclerBinder.range",
+          size,
+          new BenchmarkRunner.Benchmark() {
+            private RecyclerBinder mRecyclerBinder;
+
+            @Override
+            public void setUp() {
+              mRecyclerBinder = createRecyclerBinder(size);
+            }
+
+            @Override
+            public void run() {
+              for (int first = 0; first < size; first++) {
+                mRecyclerBinder.updateSubAdapterVisibleRange(
+                    first, Math.min(size, first + VISIBLE_ITEM_COUNT) - 1);
+              }
+            }
+          });
+    }
+  }
+
+  private RecyclerBinder createRecyclerBinder(int itemCount) {
+    final RecyclerBinder recyclerBinder =
+        new RecyclerBinder.Builder()
+            .layoutInfo(new LinearLayoutInfo(mContext, OrientationHelper.VERTICAL, false))
+            .layoutHandlerFactory(new SynchronousLayoutHandlerFactory())
+            .isSubAdapter(true)
+            .build(mContext);
+
+    final List<RenderInfo> renderInfos = new ArrayList<>(itemCount);
+    for (int i = 0; i < itemCount; i++) {
+      renderInfos.add(
+          ComponentRenderInfo.create()
+              .component(SyntheticTrees.create(mContext, ITEM_NODE_COUNT))
+              .build());
+    }
+    recyclerBinder.insertRangeAt(0, renderInfos);
+    recyclerBinder.notifyChangeSetComplete(true, new NoOpChangeSetCompleteCallback());
+    recyclerBinder.measure(new Size(), WIDTH_SPEC, HEIGHT_SPEC, null);
+    return recyclerBinder;
+  }
+
+  private static class SynchronousLayoutHandlerFactory implements LayoutHandlerFactory {
+
+    @Override
+    public LithoHandler createLayoutCalculationHandler(RenderInfo renderInfo) {
+      return new SynchronousLithoHandler();
+    }
+
+    @Override
+    public boolean shouldUpdateLayoutHandler(
+        RenderInfo previousRenderInfo, RenderInfo newRenderInfo) {
+      return false;
+    }
+  }
+
+  private static class NoOpChangeSetCompleteCallback implements ChangeSetCompleteCallback {
+
+    @Override
+    public void onDataBound() {}
+
+    @Override
+    public void onDataRendered(boolean isMounted, long uptimeMillis) {}
+  }
+
+  /** Runs posted layouts immediately on the posting thread. */
+  private static class SynchronousLithoHandler implements LithoHandler {
+
+    @Override
+    public boolean isTracing() {
+      return false;
+    }
+
+    @Override
+    public void post(Runnable runnable, String tag) {
+      runnable.run();
+    }
+
+    @Override
+    public void postAtFront(Runnable runnable, String tag) {
+      runnable.run();
+    }
+
+    @Override
+    public void remove(Runnable runnable) {}
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.benchmarks;
+
+import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+import static org.junit.Assume.assumeTrue;
+
+import androidx.annotation.Nullable;
+import com.facebook.litho.sections.SectionContext;
+import com.facebook.litho.sections.SectionTree;
+import com.facebook.litho.testing.sections.TestGroupSection;
+import com.facebook.litho.testing.sections.TestTarget;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the time to compute the {@link com.facebook.litho.sections.ChangeSet} of a section tree
+ * backed by a {@link com.facebook.litho.sections.common.DataDiffSection}.
+ */
+@RunWith(LithoTestRunner.class)
+public class SectionsBenchmarkTest {
+
+  private SectionContext mSectionContext;
+
+  @Before
+  public void setup() {
+    assumeTrue(BenchmarkRunner.isEnabled());
+    mSectionContext = new SectionContext(getApplicationContext());
+  }
+
+  @Test
+  public void benchmarkInitialChangeSet() {
+    for (int size : BenchmarkRunner.getSizes()) {
+      final List<String> data = generateData(size);
+      BenchmarkRunner.run("sections.insertAll", size, new SetRootBenchmark(null, data));
+    }
+  }
+
+  @Test
+  public void benchmarkUnchangedData() {
+    for (int size : BenchmarkRunner.getSizes()) {
+      final List<String> data = generateData(size);
+      BenchmarkRunner.run(
+          "sections.unchanged", size, new SetRootBenchmark(data, new ArrayList<>(data)));
+    }
+  }
+
+  @Test
+  public void benchmarkShuffledData() {
+    for (int size : BenchmarkRunner.getSizes()) {
+      final List<String> data = generateData(size);
+      final List<String> shuffled = new ArrayList<>(data);
+      Collections.shuffle(shuffled, new Random(size));
+      BenchmarkRunner.run("sections.shuffle", size, new SetRootBenchmark(data, shuffled));
+    }
+  }
+
+  private static List<String> generateData(int size) {
+    final List<String> data = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      data.add("item" + i);
+    }
+    return data;
+  }
+
+  /** Sets a root with {@code nextData} on a tree which was showing {@code previousData}. */
+  private class SetRootBenchmark implements BenchmarkRunner.Benchmark {
+
+    private final @Nullable List<String> mPreviousData;
+    private final List<String> mNextData;
+    private SectionTree mSectionTree;
+
+    SetRootBenchmark(@Nullable List<String> previousData, List<String> nextData) {
+      mPreviousData = previousData;
+      mNextData = nextData;
+    }
+
+    @Override
+    public void setUp() {
+      mSectionTree = SectionTree.create(mSectionContext, new TestTarget()).build();
+      if (mPreviousData != null) {
+        mSectionTree.setRoot(
+            TestGroupSection.create(mSectionContext).data(mPreviousData).build());
+      }
+    }
+
+    @Override
+    public void run() {
+      mSectionTree.setRoot(TestGroupSection.create(mSectionContext).data(mNextData).build());
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.benchmarks;
+
+import android.graphics.Color;
+import com.facebook.litho.Component;
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.StateValue;
+import com.facebook.litho.annotations.LayoutSpec;
+import com.facebook.litho.annotations.OnCreateInitialState;
+import com.facebook.litho.annotations.OnCreateLayout;
+import com.facebook.litho.annotations.OnUpdateState;
+import com.facebook.litho.annotations.Prop;
+import com.facebook.litho.annotations.State;
+import com.facebook.litho.widget.SolidColor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A leaf whose state can be updated from a benchmark. The scoped context of the last layout is
+ * published to {@code contextRef} so that the benchmark can trigger state updates on it.
+ */
+@LayoutSpec
+class StatefulLeafComponentSpec {
+
+  @OnCreateInitialState
+  static void onCreateInitialState(ComponentContext c, StateValue<Integer> count) {
+    count.set(0);
+  }
+
+  @OnCreateLayout
+  static Component onCreateLayout(
+      ComponentContext c, @Prop AtomicReference<ComponentContext> contextRef, @State int count) {
+    contextRef.set(c);
+    return SolidColor.create(c)
+        .color(count % 2 == 0 ? Color.RED : Color.BLUE)
+        .widthPx(20)
+        .heightPx(20)
+        .build();
+  }
+
+  @OnUpdateState
+  static void increment(StateValue<Integer> count) {
+    count.set(count.get() + 1);
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.benchmarks;
+
+import android.graphics.Color;
+import androidx.annotation.Nullable;
+import com.facebook.litho.Column;
+import com.facebook.litho.Component;
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.Row;
+import com.facebook.litho.widget.SolidColor;
+import com.facebook.yoga.YogaAlign;
+import com.facebook.yoga.YogaEdge;
+
+/**
+ * Builds synthetic component trees of a given number of nodes. Containers alternate between {@link
+ * Column} and {@link Row} and every node sets a few common style props, so that the trees exercise
+ * both the Yoga layout and the style application paths.
+ */
+final class SyntheticTrees {
+
+  private static final int BRANCHING_FACTOR = 4;
+  private static final int LEAF_SIZE_PX = 20;
+  private static final int[] COLORS = {Color.RED, Color.GREEN, Color.BLUE, Color.GRAY};
+
+  private SyntheticTrees() {}
+
+  static Component create(ComponentContext c, int nodeCount) {
+    return create(c, nodeCount, null);
+  }
+
+  /**
+   * @param nodeCount the number of components in the tree, including containers.
+   * @param firstLeaf if not null, replaces the first leaf of the tree.
+   */
+  static Component create(ComponentContext c, int nodeCount, @Nullable Component firstLeaf) {
+    return createNode(c, Math.max(1, nodeCount), 0, 0, firstLeaf);
+  }
+
+  private static Component createNode(
+      ComponentContext c, int nodeCount, int depth, int index, @Nullable Component firstLeaf) {
+    if (nodeCount == 1) {
+      return firstLeaf != null ? firstLeaf : createLeaf(c, index);
+    }
+
+    final Component.ContainerBuilder<?> container =
+        depth % 2 == 0
+            ? Column.create(c).alignItems(YogaAlign.STRETCH)
+            : Row.create(c).alignItems(YogaAlign.CENTER);
+    container.paddingPx(YogaEdge.ALL, 2).flexShrink(0);
+
+    // Spread the remaining nodes as evenly as possible between the children.
+    int remaining = nodeCount - 1;
+    final int childCount = Math.min(BRANCHING_FACTOR, remaining);
+    for (int i = 0; i < childCount; i++) {
+      final int childNodeCount = remaining / (childCount - i);
+      container.child(
+          createNode(
+              c,
+              childNodeCount,
+              depth + 1,
+              index * BRANCHING_FACTOR + i,
+              i == 0 ? firstLeaf : null));
+      remaining -= childNodeCount;
+    }
+
+    return container.build();
+  }
+
+  private static Component createLeaf(ComponentContext c, int index) {
+    return SolidColor.create(c)
+        .color(COLORS[index % COLORS.length])
+        .widthPx(LEAF_SIZE_PX)
+        .heightPx(LEAF_SIZE_PX)
+        .marginPx(YogaEdge.ALL, 1)
+        .flexGrow(index % 2)
+        .build();
+  }
+}
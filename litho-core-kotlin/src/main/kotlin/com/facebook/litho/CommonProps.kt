@@ -21,17 +21,15 @@ package com.facebook.litho
 import android.graphics.drawable.Drawable
 
 /**
- * Builder for setting an [onClick] event handler for component.
- *
- * TODO Currently lambda captures possibly old props. Find a better option.
- *  This will work for core Litho, but may break Sections.
+ * Builder for setting an [onClick] event handler for component. The handler keeps its identity
+ * across re-renders and always invokes the latest [onClick], see [useEventHandler].
  */
 inline fun DslScope.Clickable(
     noinline onClick: () -> Unit,
     content: DslScope.() -> Component
 ): Component =
     content().apply {
-      getOrCreateCommonProps.clickHandler(eventHandler(onClick))
+      getOrCreateCommonProps.clickHandler(useEventHandler(onClick))
     }
 
 /**
@@ -21,68 +21,66 @@ import kotlin.reflect.KProperty
 /**
  * Create a CachedValue variable within a Component. The [calculator] will provide the calculated value if it hasn't
  * already been calculated or if the inputs have changed since the previous calculation.
+ *
+ * The value is resolved when it is declared, while the Component renders. It is cached in a slot of the Component,
+ * assigned in call order like [useState], so reading it compares the inputs in place and doesn't allocate or lock.
  */
 fun <T> DslScope.useCached(calculator: () -> T): CachedDelegate<T> =
-    CachedDelegate(context, calculator = calculator)
+    CachedDelegate(resolveCached(context, null, null, null, calculator))
 
 fun <T> DslScope.useCached(input1: Any, calculator: () -> T): CachedDelegate<T> =
-    CachedDelegate(context, input1, calculator = calculator)
+    CachedDelegate(resolveCached(context, input1, null, null, calculator))
 
 fun <T> DslScope.useCached(input1: Any, input2: Any, calculator: () -> T): CachedDelegate<T> =
-    CachedDelegate(context, input1, input2, calculator = calculator)
+    CachedDelegate(resolveCached(context, input1, input2, null, calculator))
 
 fun <T> DslScope.useCached(vararg inputs: Any, calculator: () -> T): CachedDelegate<T> =
-    CachedDelegate(context, inputs = inputs, calculator = calculator)
+    CachedDelegate(resolveCached(context, null, null, inputs, calculator))
 
-class CachedDelegate<T> internal constructor(
-    private val c: ComponentContext,
-    private val input1: Any? = null,
-    private val input2: Any? = null,
-    private val inputs: Array<out Any>? = null,
-    private val calculator: () -> T
-) {
-  operator fun getValue(nothing: Nothing?, property: KProperty<*>): T {
-    val cacheInputs = CachedInputs(c.componentScope.javaClass, property.name, input1, input2, inputs)
-    val result =
-        c.getCachedValue(cacheInputs)
-            ?: calculator().also { c.putCachedValue(cacheInputs, it) }
+/** Delegate to access a cached value, resolved once when it was declared. */
+class CachedDelegate<T> internal constructor(private val value: T) {
+  operator fun getValue(nothing: Nothing?, property: KProperty<*>): T = value
+}
 
+private fun <T> resolveCached(
+    c: ComponentContext,
+    input1: Any?,
+    input2: Any?,
+    inputs: Array<out Any>?,
+    calculator: () -> T
+): T {
+  val values = c.hookCachedValues ?: return calculator()
+  val slot = c.nextHookCachedValue()
+
+  val cached = values.getOrNull(slot) as? CachedSlot
+  if (cached != null && cached.hasInputs(input1, input2, inputs)) {
     @Suppress("UNCHECKED_CAST")
-    return result as T
+    return cached.value as T
+  }
+
+  val value = calculator()
+  while (values.size <= slot) {
+    values.add(null)
   }
+  values[slot] = CachedSlot(input1, input2, inputs, value)
+  return value
 }
 
-internal class CachedInputs(
-    val componentClz: Class<out Component>,
-    val propertyName: String,
-    val input1: Any? = null,
-    val input2: Any? = null,
-    val inputs: Array<out Any>? = null
+/**
+ * The inputs and value of a [useCached] slot. Slots are shared between copies of a StateHandler, so a new one replaces
+ * it when the inputs change rather than updating it in place.
+ */
+internal class CachedSlot(
+    private val input1: Any?,
+    private val input2: Any?,
+    private val inputs: Array<out Any>?,
+    val value: Any?
 ) {
-  override fun equals(other: Any?): Boolean {
-    if (this === other) return true
-    if (javaClass != other?.javaClass) return false
-
-    other as CachedInputs
-
-    if (componentClz != other.componentClz) return false
-    if (propertyName != other.propertyName) return false
-    if (input1 != other.input1) return false
-    if (input2 != other.input2) return false
-    if (inputs != null) {
-      if (other.inputs == null) return false
-      if (!inputs.contentEquals(other.inputs)) return false
-    } else if (other.inputs != null) return false
-
-    return true
-  }
 
-  override fun hashCode(): Int {
-    var result = componentClz.hashCode()
-    result = 31 * result + propertyName.hashCode()
-    result = 31 * result + (input1?.hashCode() ?: 0)
-    result = 31 * result + (input2?.hashCode() ?: 0)
-    result = 31 * result + (inputs?.contentHashCode() ?: 0)
-    return result
+  fun hasInputs(input1: Any?, input2: Any?, inputs: Array<out Any>?): Boolean {
+    if (this.input1 != input1 || this.input2 != input2) return false
+    if (this.inputs === inputs) return true
+    if (this.inputs == null || inputs == null) return false
+    return this.inputs.contentEquals(inputs)
   }
 }
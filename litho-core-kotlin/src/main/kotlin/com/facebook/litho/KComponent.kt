@@ -21,6 +21,7 @@ open class KComponent(
     private val content: DslScope.() -> Component?
 ) : Component() {
   override fun onCreateLayout(c: ComponentContext): Component? {
+    c.resetHookSlots()
     return DslScope(c).content()
   }
 }
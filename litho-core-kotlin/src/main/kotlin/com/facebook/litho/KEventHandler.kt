@@ -20,14 +20,45 @@ package com.facebook.litho
 inline fun <E : Any> eventHandler(noinline onEvent: () -> Unit): EventHandler<E> =
     KEventHandler(onEvent)
 
+/**
+ * Returns an [EventHandler] that invokes [onEvent] and keeps its identity across re-renders of the
+ * Component, so props and common props holding it stay equivalent to the previous ones. The handler
+ * invokes the lambda of the committed layout: a re-render replaces it with the latest one when its
+ * layout is committed, so layouts which are never committed don't change what mounted views run.
+ *
+ * Handlers are matched to the ones of the previous render by the order in which they are created
+ * and by the call site of the lambda. When they don't match, a new handler is created.
+ */
+fun <E : Any> DslScope.useEventHandler(onEvent: () -> Unit): EventHandler<E> {
+  val handlers = context.hookEventHandlers ?: return KEventHandler(onEvent)
+  val index = context.nextHookEventHandler()
+  val previous = handlers.getOrNull(index)
+  if (previous is KEventHandler<*> && previous.isFromCallSiteOf(onEvent)) {
+    context.addHookCommitAction(Runnable { previous.onEvent = onEvent })
+    @Suppress("UNCHECKED_CAST")
+    return previous as EventHandler<E>
+  }
+
+  val handler = KEventHandler<E>(onEvent)
+  if (index < handlers.size) {
+    handlers[index] = handler
+  } else {
+    handlers.add(handler)
+  }
+  return handler
+}
+
 /**
  * [EventHandler] for codegen-free Components which squashes [EventHandler], [HasEventDispatcher] and [EventDispatcher]
  * together in one object allocation.
  */
 class KEventHandler<E : Any>(
-    private val onEvent: () -> Unit
+    onEvent: () -> Unit
 ) : EventHandler<E>(null, -1), HasEventDispatcher, EventDispatcher {
 
+  @Volatile
+  internal var onEvent: () -> Unit = onEvent
+
   init {
     mHasEventDispatcher = this
   }
@@ -43,4 +74,7 @@ class KEventHandler<E : Any>(
   override fun getEventDispatcher(): EventDispatcher {
     return this
   }
+
+  /** Every lambda literal compiles to its own class, which identifies where it was declared. */
+  internal fun isFromCallSiteOf(other: () -> Unit): Boolean = onEvent.javaClass == other.javaClass
 }
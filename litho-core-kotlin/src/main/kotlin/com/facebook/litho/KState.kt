@@ -22,26 +22,39 @@ import kotlin.reflect.KProperty
  * Declares a state variable within a Component. The initializer will provide the initial value if
  * it hasn't already been initialized in a previous lifecycle of the Component.
  *
+ * Each state variable is stored in a slot of its Component, assigned in the order in which
+ * [useState] is called, so it must be called unconditionally and in the same order on every
+ * render.
+ *
  * Assignments to the state variables are allowed only in [updateState] block to batch updates and
  * trigger a UI layout only once per batch.
  */
-fun <T> DslScope.useState(initializer: () -> T): StateDelegate<T> =
-    StateDelegate(context, initializer)
-
-/** Delegate to access and initialize a state variable. */
-class StateDelegate<T>(private val c: ComponentContext, private val initializer: () -> T) {
-  operator fun getValue(nothing: Nothing?, property: KProperty<*>): State<T> {
-    val hookStateKey = "${c.componentScope.globalKey}:${property.name}"
-    @Suppress("UNCHECKED_CAST")
-    val value = c.stateHandler!!.hookState.getOrPut(
-        hookStateKey,
-        initializer) as T
-    return State(hookStateKey, value)
+fun <T> DslScope.useState(initializer: () -> T): StateDelegate<T> {
+  val slots = context.hookSlots
+  val slot = context.nextHookSlot()
+  if (slot >= slots.size) {
+    while (slots.size < slot) {
+      slots.add(UnsetSlot)
+    }
+    slots.add(initializer())
+  } else if (slots[slot] === UnsetSlot) {
+    slots[slot] = initializer()
   }
+  @Suppress("UNCHECKED_CAST")
+  return StateDelegate(State(context.componentScope.globalKey, slot, slots[slot] as T))
+}
+
+/** Delegate to access a state variable, resolved once when it was declared. */
+class StateDelegate<T>(private val state: State<T>) {
+  operator fun getValue(nothing: Nothing?, property: KProperty<*>): State<T> = state
 }
 
 /** Interface with which a component gets the value from a state or updates it. */
-class State<T>(internal val key: String, private val value: T) {
+class State<T>(
+    internal val globalKey: String,
+    internal val slot: Int,
+    private val value: T
+) {
 
   fun get() = value
 }
@@ -55,9 +68,13 @@ class StateUpdater(private val stateHandler: StateHandler) {
 
   var <T> State<T>.value: T
     @Suppress("UNCHECKED_CAST")
-    get() = stateHandler.hookState[key] as T
+    get() = stateHandler.getHookSlots(globalKey).getOrNull(slot)?.takeIf { it !== UnsetSlot } as T
     set(value) {
-      stateHandler.hookState[key] = value
+      val slots = stateHandler.getHookSlots(globalKey)
+      while (slots.size <= slot) {
+        slots.add(UnsetSlot)
+      }
+      slots[slot] = value
     }
 }
 
@@ -70,3 +87,9 @@ fun DslScope.updateState(block: StateUpdater.() -> Unit) {
     StateUpdater(stateHandler).block()
   }
 }
+
+/**
+ * Marks a slot that was padded by an update to a later slot, before the Component that declares it
+ * committed a layout. [useState] runs the initializer for it.
+ */
+private object UnsetSlot
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import android.content.Context
+import android.os.Looper
+import androidx.test.core.app.ApplicationProvider.getApplicationContext
+import com.facebook.litho.testing.helper.ComponentTestHelper
+import com.facebook.litho.testing.testrunner.LithoTestRunner
+import com.facebook.litho.widget.Text
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.Shadows
+import org.robolectric.shadows.ShadowLooper
+
+/** Unit tests for useEventHandler. */
+@RunWith(LithoTestRunner::class)
+class KEventHandlerTest {
+
+  private lateinit var context: ComponentContext
+  private lateinit var layoutThreadShadowLooper: ShadowLooper
+
+  @Before
+  fun setUp() {
+    context = ComponentContext(getApplicationContext<Context>())
+    val getLooper = ComponentTree::class.java.getDeclaredMethod("getDefaultLayoutThreadLooper")
+    getLooper.isAccessible = true
+    layoutThreadShadowLooper = Shadows.shadowOf(getLooper.invoke(null) as Looper)
+  }
+
+  @Test
+  fun eventHandlerKeepsIdentityAndInvokesLambdaOfCommittedLayout() {
+    val handlers = mutableListOf<EventHandler<ClickEvent>>()
+    val clicks = mutableListOf<String>()
+    val lithoView = LithoView(context.androidContext)
+    val componentTree = ComponentTree.create(context).build()
+
+    fun root(label: String) = KComponent {
+      handlers.add(useEventHandler { clicks.add(label) })
+      Text(text = label)
+    }
+
+    ComponentTestHelper.mountComponent(lithoView, componentTree, root("first"))
+    ComponentTestHelper.mountComponent(lithoView, componentTree, root("second"))
+
+    assertThat(handlers.all { it === handlers[0] }).isTrue()
+    handlers[0].dispatchEvent(ClickEvent())
+    assertThat(clicks).containsExactly("second")
+
+    // The handler keeps invoking the lambda of the committed layout while the next one is pending.
+    val rendered = handlers.size
+    componentTree.setRootAsync(root("third"))
+    handlers[0].dispatchEvent(ClickEvent())
+    assertThat(clicks).containsExactly("second", "second")
+
+    layoutThreadShadowLooper.runToEndOfTasks()
+
+    assertThat(handlers.size).isGreaterThan(rendered)
+    assertThat(handlers.all { it === handlers[0] }).isTrue()
+    handlers[0].dispatchEvent(ClickEvent())
+    assertThat(clicks).containsExactly("second", "second", "third")
+  }
+}
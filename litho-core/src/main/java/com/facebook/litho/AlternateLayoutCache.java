@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds a small number of {@link LayoutState}s of a {@link ComponentTree} computed for size specs
+ * other than the current one, so that switching back to one of those sizes (e.g. on rotation or a
+ * multi-window resize) doesn't need a new layout calculation.
+ *
+ * <p>An entry can only be reused if it was computed for the current root and after the last change
+ * of the tree's content (root, tree props or state), which is expressed by a minimum layout
+ * version. Entries are evicted oldest first. This class is not thread safe, it's guarded by the
+ * owning {@link ComponentTree}.
+ */
+final class AlternateLayoutCache {
+
+  private final int mMaxSize;
+  private final List<LayoutState> mLayoutStates;
+
+  AlternateLayoutCache(int maxSize) {
+    mMaxSize = maxSize;
+    mLayoutStates = new ArrayList<>(maxSize);
+  }
+
+  boolean isEnabled() {
+    return mMaxSize > 0;
+  }
+
+  /** Adds a layout, replacing any layout already cached for equivalent size specs. */
+  void put(LayoutState layoutState) {
+    if (mMaxSize <= 0) {
+      return;
+    }
+
+    for (int i = mLayoutStates.size() - 1; i >= 0; i--) {
+      final LayoutState cached = mLayoutStates.get(i);
+      if (cached == layoutState) {
+        return;
+      }
+      if (MeasureComparisonUtils.areMeasureSpecsEquivalent(
+              cached.getWidthSpec(), layoutState.getWidthSpec())
+          && MeasureComparisonUtils.areMeasureSpecsEquivalent(
+              cached.getHeightSpec(), layoutState.getHeightSpec())) {
+        mLayoutStates.remove(i);
+      }
+    }
+
+    if (mLayoutStates.size() >= mMaxSize) {
+      mLayoutStates.remove(0);
+    }
+    mLayoutStates.add(layoutState);
+  }
+
+  /**
+   * Removes and returns a layout which is compatible with the given specs, dropping entries that
+   * are not valid for the given root and minimum layout version anymore.
+   */
+  @Nullable
+  LayoutState take(int rootId, int minLayoutVersion, int widthSpec, int heightSpec) {
+    LayoutState match = null;
+    for (int i = mLayoutStates.size() - 1; i >= 0; i--) {
+      final LayoutState cached = mLayoutStates.get(i);
+      if (!isReusable(cached, rootId, minLayoutVersion)) {
+        mLayoutStates.remove(i);
+      } else if (match == null && cached.isCompatibleSpec(widthSpec, heightSpec)) {
+        match = cached;
+        mLayoutStates.remove(i);
+      }
+    }
+
+    return match;
+  }
+
+  boolean has(int rootId, int minLayoutVersion, int widthSpec, int heightSpec) {
+    for (int i = 0, size = mLayoutStates.size(); i < size; i++) {
+      final LayoutState cached = mLayoutStates.get(i);
+      if (isReusable(cached, rootId, minLayoutVersion)
+          && cached.isCompatibleSpec(widthSpec, heightSpec)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  void clear() {
+    mLayoutStates.clear();
+  }
+
+  int size() {
+    return mLayoutStates.size();
+  }
+
+  static boolean isReusable(@Nullable LayoutState layoutState, int rootId, int minLayoutVersion) {
+    return layoutState != null
+        && layoutState.isForComponentId(rootId)
+        && layoutState.mLayoutVersion >= minLayoutVersion
+        && layoutState.isCompatibleAccessibility();
+  }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+/**
+ * A {@link Touchable} drawable which only needs the {@link android.view.MotionEvent#ACTION_MOVE}
+ * events of gestures that started within its bounds. A {@link ComponentHost} skips it for the move
+ * events of any other gesture instead of asking it whether it wants to handle them.
+ */
+public interface BoundedTouchable extends Touchable {}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+/**
+ * A snapshot of how the values computed by {@link
+ * com.facebook.litho.annotations.OnCalculateCachedValue} methods of a ComponentTree or a
+ * SectionTree have been used, e.g. to tune {@link
+ * com.facebook.litho.config.ComponentsConfiguration#cachedValuesMaxSize}.
+ */
+public final class CachedValueStats {
+
+  private final int mSize;
+  private final int mMaxSize;
+  private final int mHitCount;
+  private final int mMissCount;
+  private final int mEvictionCount;
+
+  CachedValueStats(int size, int maxSize, int hitCount, int missCount, int evictionCount) {
+    mSize = size;
+    mMaxSize = maxSize;
+    mHitCount = hitCount;
+    mMissCount = missCount;
+    mEvictionCount = evictionCount;
+  }
+
+  /** The number of values currently cached. */
+  public int getSize() {
+    return mSize;
+  }
+
+  /** The number of values after which the least recently used ones are evicted. */
+  public int getMaxSize() {
+    return mMaxSize;
+  }
+
+  /** The number of reads which returned a cached value. */
+  public int getHitCount() {
+    return mHitCount;
+  }
+
+  /** The number of reads which found no cached value, so that the value was calculated. */
+  public int getMissCount() {
+    return mMissCount;
+  }
+
+  /** The number of values which were evicted to stay within the max size. */
+  public int getEvictionCount() {
+    return mEvictionCount;
+  }
+
+  @Override
+  public String toString() {
+    return "CachedValueStats{size="
+        + mSize
+        + ", maxSize="
+        + mMaxSize
+        + ", hitCount="
+        + mHitCount
+        + ", missCount="
+        + mMissCount
+        + ", evictionCount="
+        + mEvictionCount
+        + "}";
+  }
+}
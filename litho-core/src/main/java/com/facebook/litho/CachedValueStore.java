@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import android.content.ComponentCallbacks2;
+import androidx.annotation.Nullable;
+import androidx.collection.LruCache;
+import com.facebook.litho.config.ComponentsConfiguration;
+
+/**
+ * Holds the values calculated by {@link com.facebook.litho.annotations.OnCalculateCachedValue}
+ * methods for a ComponentTree or a SectionTree. {@code useCached} in the Kotlin API keeps its
+ * values in slots of each component instead, bounded in the same way by the StateHandler.
+ *
+ * <p>Keys are the generated inputs objects, which already include the owning component (either as
+ * a nested inputs class or as an explicit component class field), so entries from different
+ * components never collide. The store is bounded by {@link
+ * ComponentsConfiguration#cachedValuesMaxSize} and evicts the least recently used values first. A
+ * non positive max size keeps every value for the lifetime of the tree.
+ *
+ * <p>This class is not thread safe, callers are expected to hold their own lock.
+ */
+public class CachedValueStore {
+
+  private static final int UNBOUNDED_MAX_SIZE = Integer.MAX_VALUE;
+
+  private final LruCache<Object, Object> mCache;
+
+  public CachedValueStore() {
+    this(ComponentsConfiguration.cachedValuesMaxSize);
+  }
+
+  public CachedValueStore(int maxSize) {
+    mCache = new LruCache<>(maxSize > 0 ? maxSize : UNBOUNDED_MAX_SIZE);
+  }
+
+  public @Nullable Object get(Object cachedValueInputs) {
+    return mCache.get(cachedValueInputs);
+  }
+
+  public void put(Object cachedValueInputs, @Nullable Object cachedValue) {
+    // A null value is indistinguishable from a miss, so there is nothing worth storing.
+    if (cachedValue == null) {
+      mCache.remove(cachedValueInputs);
+      return;
+    }
+
+    mCache.put(cachedValueInputs, cachedValue);
+  }
+
+  /**
+   * Releases cached values according to the given memory pressure level, as received by {@link
+   * ComponentCallbacks2#onTrimMemory(int)}. Values are recalculated on the next read.
+   */
+  public void onTrimMemory(int level) {
+    final int size = getSizeAfterTrimMemory(mCache.size(), level);
+    if (size == 0) {
+      mCache.evictAll();
+    } else if (size < mCache.size()) {
+      mCache.trimToSize(size);
+    }
+  }
+
+  /**
+   * Returns how many of the given number of cached values are kept at the given memory pressure
+   * level, see {@link #onTrimMemory(int)}.
+   */
+  static int getSizeAfterTrimMemory(int size, int level) {
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE
+        || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+      return 0;
+    } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+      return size / 2;
+    }
+
+    return size;
+  }
+
+  public void evictAll() {
+    mCache.evictAll();
+  }
+
+  public int size() {
+    return mCache.size();
+  }
+
+  public int maxSize() {
+    return mCache.maxSize();
+  }
+
+  public int hitCount() {
+    return mCache.hitCount();
+  }
+
+  public int missCount() {
+    return mCache.missCount();
+  }
+
+  public int evictionCount() {
+    return mCache.evictionCount();
+  }
+
+  /** Returns a snapshot of the counters above. */
+  public CachedValueStats getStats() {
+    return new CachedValueStats(
+        mCache.size(),
+        mCache.maxSize(),
+        mCache.hitCount(),
+        mCache.missCount(),
+        mCache.evictionCount());
+  }
+}
@@ -28,6 +28,7 @@ import androidx.annotation.Nullable;
 import androidx.annotation.Px;
 import androidx.annotation.StyleRes;
 import com.facebook.infer.annotation.ThreadConfined;
+import com.facebook.litho.drawable.DrawableUtils;
 import com.facebook.yoga.YogaAlign;
 import com.facebook.yoga.YogaConstants;
 import com.facebook.yoga.YogaDirection;
@@ -617,30 +618,89 @@ class CommonPropsHolder implements CommonProps {
       return;
     }
 
-    // TODO: (T55170222) Use InternalNodeUtils#applyStyles(InternalNode, int, int)} instead.
-    c.applyStyle(node, mDefStyleAttr, mDefStyleRes);
+    node.beginStyleInputsBatch();
 
-    if (mNodeInfo != null) {
-      mNodeInfo.copyInto(node.getOrCreateNodeInfo());
-    }
+    try {
+      // TODO: (T55170222) Use InternalNodeUtils#applyStyles(InternalNode, int, int)} instead.
+      c.applyStyle(node, mDefStyleAttr, mDefStyleRes);
+
+      if (mNodeInfo != null) {
+        mNodeInfo.copyInto(node.getOrCreateNodeInfo());
+      }
 
-    if ((mPrivateFlags & PFLAG_BACKGROUND_IS_SET) != 0L) {
-      node.background(mBackground);
+      if ((mPrivateFlags & PFLAG_BACKGROUND_IS_SET) != 0L) {
+        node.background(mBackground);
+      }
+      if ((mPrivateFlags & PFLAG_TEST_KEY_IS_SET) != 0L) {
+        node.testKey(mTestKey);
+      }
+      if (shouldWrapInView()) {
+        node.wrapInView();
+      }
+
+      if (mLayoutProps != null) {
+        mLayoutProps.copyInto(node);
+      }
+
+      if (mOtherProps != null) {
+        mOtherProps.copyInto(node);
+      }
+    } finally {
+      // Ends the batch even if a setter throws, so the buffer of this thread can be used again.
+      node.applyStyleInputsBatch();
     }
-    if ((mPrivateFlags & PFLAG_TEST_KEY_IS_SET) != 0L) {
-      node.testKey(mTestKey);
+  }
+
+  /**
+   * @return true if the other common props set the same values. Event handlers and other objects
+   *     which can't be compared by value are compared by reference.
+   */
+  boolean isEquivalentTo(@Nullable CommonProps other) {
+    if (this == other) {
+      return true;
     }
-    if (shouldWrapInView()) {
-      node.wrapInView();
+    if (!(other instanceof CommonPropsHolder)) {
+      return false;
     }
 
-    if (mLayoutProps != null) {
-      mLayoutProps.copyInto(node);
+    final CommonPropsHolder props = (CommonPropsHolder) other;
+    return mPrivateFlags == props.mPrivateFlags
+        && mWrapInView == props.mWrapInView
+        && mDefStyleAttr == props.mDefStyleAttr
+        && mDefStyleRes == props.mDefStyleRes
+        && CommonUtils.equals(mTestKey, props.mTestKey)
+        && DrawableUtils.isEquivalentTo(mBackground, props.mBackground)
+        && NodeInfoUtils.isEquivalentTo(mNodeInfo, props.mNodeInfo)
+        && isEquivalentTo(mLayoutProps, props.mLayoutProps)
+        && (mOtherProps == null
+            ? props.mOtherProps == null
+            : mOtherProps.isEquivalentTo(props.mOtherProps));
+  }
+
+  private static boolean isEquivalentTo(
+      @Nullable CopyableLayoutProps x, @Nullable CopyableLayoutProps y) {
+    if (x == y) {
+      return true;
+    }
+    if (x instanceof DefaultLayoutProps && y instanceof DefaultLayoutProps) {
+      return ((DefaultLayoutProps) x).isEquivalentTo((DefaultLayoutProps) y);
     }
+    return false;
+  }
 
-    if (mOtherProps != null) {
-      mOtherProps.copyInto(node);
+  private static boolean isEquivalentTo(@Nullable Edges x, @Nullable Edges y) {
+    if (x == y) {
+      return true;
+    }
+    if (x == null || y == null) {
+      return false;
     }
+    for (int i = 0; i < Edges.EDGES_LENGTH; i++) {
+      if (Float.compare(x.getRaw(i), y.getRaw(i)) != 0) {
+        return false;
+      }
+    }
+    return true;
   }
 
   private static class OtherProps {
@@ -839,6 +899,29 @@ class CommonPropsHolder implements CommonProps {
         node.stateListAnimatorRes(mStateListAnimatorRes);
       }
     }
+
+    boolean isEquivalentTo(@Nullable OtherProps other) {
+      return other != null
+          && mPrivateFlags == other.mPrivateFlags
+          && Float.compare(mVisibleHeightRatio, other.mVisibleHeightRatio) == 0
+          && Float.compare(mVisibleWidthRatio, other.mVisibleWidthRatio) == 0
+          && mVisibleHandler == other.mVisibleHandler
+          && mFocusedHandler == other.mFocusedHandler
+          && mUnfocusedHandler == other.mUnfocusedHandler
+          && mFullImpressionHandler == other.mFullImpressionHandler
+          && mInvisibleHandler == other.mInvisibleHandler
+          && mVisibilityChangedHandler == other.mVisibilityChangedHandler
+          && mImportantForAccessibility == other.mImportantForAccessibility
+          && mDuplicateParentState == other.mDuplicateParentState
+          && CommonPropsHolder.isEquivalentTo(mTouchExpansions, other.mTouchExpansions)
+          && DrawableUtils.isEquivalentTo(mForeground, other.mForeground)
+          && CommonUtils.equals(mTransitionOwnerKey, other.mTransitionOwnerKey)
+          && CommonUtils.equals(mTransitionKey, other.mTransitionKey)
+          && mTransitionKeyType == other.mTransitionKeyType
+          && mBorder == other.mBorder
+          && mStateListAnimator == other.mStateListAnimator
+          && mStateListAnimatorRes == other.mStateListAnimatorRes;
+    }
   }
 
   static class DefaultLayoutProps implements CopyableLayoutProps {
@@ -1109,6 +1192,40 @@ class CommonPropsHolder implements CommonProps {
       mUseHeightAsBaseline = useHeightAsBaseline;
     }
 
+    boolean isEquivalentTo(DefaultLayoutProps other) {
+      return mPrivateFlags == other.mPrivateFlags
+          && mWidthPx == other.mWidthPx
+          && Float.compare(mWidthPercent, other.mWidthPercent) == 0
+          && mMinWidthPx == other.mMinWidthPx
+          && Float.compare(mMinWidthPercent, other.mMinWidthPercent) == 0
+          && mMaxWidthPx == other.mMaxWidthPx
+          && Float.compare(mMaxWidthPercent, other.mMaxWidthPercent) == 0
+          && mHeightPx == other.mHeightPx
+          && Float.compare(mHeightPercent, other.mHeightPercent) == 0
+          && mMinHeightPx == other.mMinHeightPx
+          && Float.compare(mMinHeightPercent, other.mMinHeightPercent) == 0
+          && mMaxHeightPx == other.mMaxHeightPx
+          && Float.compare(mMaxHeightPercent, other.mMaxHeightPercent) == 0
+          && Float.compare(mFlex, other.mFlex) == 0
+          && Float.compare(mFlexGrow, other.mFlexGrow) == 0
+          && Float.compare(mFlexShrink, other.mFlexShrink) == 0
+          && mFlexBasisPx == other.mFlexBasisPx
+          && Float.compare(mFlexBasisPercent, other.mFlexBasisPercent) == 0
+          && Float.compare(mAspectRatio, other.mAspectRatio) == 0
+          && mLayoutDirection == other.mLayoutDirection
+          && mAlignSelf == other.mAlignSelf
+          && mPositionType == other.mPositionType
+          && CommonPropsHolder.isEquivalentTo(mPositions, other.mPositions)
+          && CommonPropsHolder.isEquivalentTo(mMargins, other.mMargins)
+          && CommonPropsHolder.isEquivalentTo(mMarginPercents, other.mMarginPercents)
+          && CommonUtils.equals(mMarginAutos, other.mMarginAutos)
+          && CommonPropsHolder.isEquivalentTo(mPaddings, other.mPaddings)
+          && CommonPropsHolder.isEquivalentTo(mPaddingPercents, other.mPaddingPercents)
+          && CommonPropsHolder.isEquivalentTo(mPositionPercents, other.mPositionPercents)
+          && mIsReferenceBaseline == other.mIsReferenceBaseline
+          && mUseHeightAsBaseline == other.mUseHeightAsBaseline;
+    }
+
     @Override
     public void copyInto(LayoutProps target) {
       if ((mPrivateFlags & PFLAG_WIDTH_IS_SET) != 0L) {
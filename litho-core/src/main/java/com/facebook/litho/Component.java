@@ -17,7 +17,7 @@
 package com.facebook.litho;
 
 import static androidx.annotation.Dimension.DP;
-import static com.facebook.litho.ComponentKeyUtils.getKeyForChildPosition;
+import static com.facebook.litho.ComponentKeyUtils.getGlobalKeyForChildPosition;
 import static com.facebook.litho.DynamicPropsManager.KEY_ALPHA;
 import static com.facebook.litho.DynamicPropsManager.KEY_BACKGROUND_COLOR;
 import static com.facebook.litho.DynamicPropsManager.KEY_ELEVATION;
@@ -615,7 +615,7 @@ public abstract class Component extends ComponentLifecycle
                 + " check the value of ComponentsConfiguration.useGlobalKeys.");
         globalKey = "null" + key;
       } else {
-        globalKey = parentScope.generateUniqueGlobalKeyForChild(this, key);
+        globalKey = parentScope.generateUniqueGlobalKeyForChild(parentContext, this, key);
       }
     }
 
@@ -629,23 +629,26 @@ public abstract class Component extends ComponentLifecycle
    *
    * <p>TODO: (T38237241) remove the usage of the key handler post the nested tree experiment
    *
+   * @param parentContext the context of this component, used to register hashed keys
    * @param component the child component for which we're finding a unique global key
    * @param key the key of the child component as determined by its lifecycle id or manual setting
    * @return a unique global key for this component relative to its siblings.
    */
-  private String generateUniqueGlobalKeyForChild(Component component, String key) {
-    final String childKey = ComponentKeyUtils.getKeyWithSeparator(getGlobalKey(), key);
+  private String generateUniqueGlobalKeyForChild(
+      ComponentContext parentContext, Component component, String key) {
+    final String globalKey = getGlobalKey();
+    final String childKey = ComponentKeyUtils.getGlobalKeyForChild(globalKey, key);
 
     if (component.mHasManualKey) {
       final int manualKeyIndex = getManualKeyUsagesCountAndIncrement(childKey);
       if (manualKeyIndex != 0) {
         logDuplicateManualKeyWarning(component, key);
       }
-      return getKeyForChildPosition(childKey, manualKeyIndex);
+      return getGlobalKeyForChildPosition(parentContext, childKey, globalKey, key, manualKeyIndex);
     }
 
     final int childIndex = getChildCountAndIncrement(component);
-    return getKeyForChildPosition(childKey, childIndex);
+    return getGlobalKeyForChildPosition(parentContext, childKey, globalKey, key, childIndex);
   }
 
   /**
@@ -31,6 +31,9 @@ import androidx.annotation.VisibleForTesting;
 import com.facebook.infer.annotation.ThreadConfined;
 import com.facebook.litho.LayoutState.LayoutStateContext;
 import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.stats.LithoStats;
+import com.facebook.litho.stats.PhaseMetrics;
+import java.util.List;
 
 /**
  * A Context subclass for use within the Components framework. Contains extra bookkeeping
@@ -74,6 +77,25 @@ public class ComponentContext {
   @ThreadConfined(ThreadConfined.ANY)
   private ComponentTree mComponentTree;
 
+  // Hook state slots of the component scope and the next slot to assign while creating its layout.
+  @ThreadConfined(ThreadConfined.ANY)
+  private @Nullable List<Object> mHookSlots;
+
+  @ThreadConfined(ThreadConfined.ANY)
+  private int mNextHookSlot;
+
+  @ThreadConfined(ThreadConfined.ANY)
+  private @Nullable List<Object> mHookEventHandlers;
+
+  @ThreadConfined(ThreadConfined.ANY)
+  private int mNextHookEventHandler;
+
+  @ThreadConfined(ThreadConfined.ANY)
+  private @Nullable List<Object> mHookCachedValues;
+
+  @ThreadConfined(ThreadConfined.ANY)
+  private int mNextHookCachedValue;
+
   // Used to hold styling information applied to components
   @StyleRes
   @ThreadConfined(ThreadConfined.ANY)
@@ -305,6 +327,78 @@ public class ComponentContext {
         updateBlock, scope != null ? scope.getSimpleName() : "hook", isCreateLayoutInProgress());
   }
 
+  /**
+   * EXPERIMENTAL - returns the hook state slots of the current component scope. The list is looked
+   * up once per scope and cached, so that hooks don't need to resolve it on every call.
+   */
+  List<Object> getHookSlots() {
+    if (mHookSlots == null) {
+      mHookSlots = mStateHandler.getHookSlots(mComponentScope.getGlobalKey());
+    }
+    return mHookSlots;
+  }
+
+  /** EXPERIMENTAL - returns the slot of the next hook declared by the current component scope. */
+  int nextHookSlot() {
+    return mNextHookSlot++;
+  }
+
+  /**
+   * EXPERIMENTAL - returns the event handlers created from hooks by the current component scope,
+   * or null if there is no component scope or StateHandler to keep them between layouts.
+   */
+  @Nullable
+  List<Object> getHookEventHandlers() {
+    if (mHookEventHandlers == null && mStateHandler != null && mComponentScope != null) {
+      mHookEventHandlers = mStateHandler.getHookEventHandlers(mComponentScope.getGlobalKey());
+    }
+    return mHookEventHandlers;
+  }
+
+  /** EXPERIMENTAL - returns the index of the next event handler created by a hook. */
+  int nextHookEventHandler() {
+    return mNextHookEventHandler++;
+  }
+
+  /**
+   * EXPERIMENTAL - runs the given action when the layout being created is committed, or right away
+   * if there is no StateHandler to commit it with.
+   */
+  void addHookCommitAction(Runnable action) {
+    if (mStateHandler == null) {
+      action.run();
+    } else {
+      mStateHandler.addHookCommitAction(action);
+    }
+  }
+
+  /**
+   * EXPERIMENTAL - returns the values cached with hooks by the current component scope, or null if
+   * there is no component scope or StateHandler to keep them between layouts.
+   */
+  @Nullable
+  List<Object> getHookCachedValues() {
+    if (mHookCachedValues == null && mStateHandler != null && mComponentScope != null) {
+      mHookCachedValues = mStateHandler.getHookCachedValues(mComponentScope.getGlobalKey());
+    }
+    return mHookCachedValues;
+  }
+
+  /** EXPERIMENTAL - returns the index of the next value cached by a hook. */
+  int nextHookCachedValue() {
+    return mNextHookCachedValue++;
+  }
+
+  /** EXPERIMENTAL - restarts slot assignment before the component scope creates its layout. */
+  void resetHookSlots() {
+    mHookSlots = null;
+    mNextHookSlot = 0;
+    mHookEventHandlers = null;
+    mNextHookEventHandler = 0;
+    mHookCachedValues = null;
+    mNextHookCachedValue = 0;
+  }
+
   public void applyLazyStateUpdatesForContainer(StateContainer container) {
     if (mComponentTree == null) {
       return;
@@ -360,6 +454,13 @@ public class ComponentContext {
     return mComponentTree;
   }
 
+  /** @return the metrics of the tree of this context, or the global ones if there is no tree. */
+  PhaseMetrics getPhaseMetrics() {
+    return mComponentTree != null
+        ? mComponentTree.getPhaseMetrics()
+        : LithoStats.getGlobalPhaseMetrics();
+  }
+
   protected void setTreeProps(@Nullable TreeProps treeProps) {
     mTreeProps = treeProps;
   }
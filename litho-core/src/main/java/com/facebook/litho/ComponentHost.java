@@ -48,6 +48,7 @@ import com.facebook.rendercore.Host;
 import com.facebook.rendercore.MountItem;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 
 /**
@@ -60,6 +61,12 @@ public class ComponentHost extends Host {
 
   private static final int SCRAP_ARRAY_INITIAL_SIZE = 4;
 
+  /**
+   * Below this number of children, looking each child up with {@link #indexOfChild(View)} is
+   * cheaper than indexing all of them first.
+   */
+  private static final int INDEXED_CHILD_DRAWING_ORDER_THRESHOLD = 8;
+
   private SparseArrayCompat<MountItem> mMountItems;
   private SparseArrayCompat<MountItem> mScrapMountItemsArray;
 
@@ -83,8 +90,19 @@ public class ComponentHost extends Host {
 
   private final InterleavedDispatchDraw mDispatchDraw = new InterleavedDispatchDraw();
 
+  /** Mounted Touchable drawables, from the last to the first one in drawing order. */
+  private @Nullable ArrayList<MountItem> mTouchables;
+
+  private boolean mIsTouchablesDirty = true;
+
+  /** The touchables which can handle the move events of the current gesture. */
+  private @Nullable ArrayList<MountItem> mGestureTouchables;
+
+  private boolean mHasGestureTouchables;
+
   private int[] mChildDrawingOrder = new int[0];
   private boolean mIsChildDrawingOrderDirty;
+  private @Nullable IdentityHashMap<View, Integer> mChildIndices;
 
   private boolean mInLayout;
 
@@ -208,6 +226,7 @@ public class ComponentHost extends Host {
 
       unmountDrawable(mountItem);
       ComponentHostUtils.removeItem(index, mDrawableMountItems, mScrapDrawableMountItems);
+      invalidateTouchables();
     } else if (content instanceof View) {
       unmountView((View) content);
 
@@ -230,6 +249,7 @@ public class ComponentHost extends Host {
       ensureDrawableMountItems();
 
       ComponentHostUtils.removeItem(index, mDrawableMountItems, mScrapDrawableMountItems);
+      invalidateTouchables();
     } else if (content instanceof View) {
       ensureViewMountItems();
       ComponentHostUtils.removeItem(index, mViewMountItems, mScrapViewMountItemsArray);
@@ -806,14 +826,25 @@ public class ComponentHost extends Host {
     boolean handled = false;
 
     if (isEnabled()) {
-      // Iterate drawable from last to first to respect drawing order.
-      for (int i = ((mDrawableMountItems == null) ? 0 : mDrawableMountItems.size()) - 1;
-          i >= 0;
-          i--) {
-        final MountItem item = mDrawableMountItems.valueAt(i);
-
-        if (item.getContent() instanceof Touchable
-            && !isTouchableDisabled(getLayoutOutput(item).getFlags())) {
+      updateTouchablesIfNeeded();
+      final int action = event.getActionMasked();
+      if (action == MotionEvent.ACTION_DOWN) {
+        updateGestureTouchables(event);
+      } else if (action != MotionEvent.ACTION_MOVE) {
+        // Other pointers can start touching different drawables, so stop filtering move events.
+        mHasGestureTouchables = false;
+      }
+
+      final ArrayList<MountItem> touchables =
+          action == MotionEvent.ACTION_MOVE && mHasGestureTouchables
+              ? mGestureTouchables
+              : mTouchables;
+
+      // Touchables are stored from last to first to respect drawing order.
+      for (int i = 0, size = touchables == null ? 0 : touchables.size(); i < size; i++) {
+        final MountItem item = touchables.get(i);
+
+        if (!isTouchableDisabled(getLayoutOutput(item).getFlags())) {
           final Touchable t = (Touchable) item.getContent();
           if (t.shouldHandleTouchEvent(event) && t.onTouchEvent(event, this)) {
             handled = true;
@@ -830,6 +861,61 @@ public class ComponentHost extends Host {
     return handled;
   }
 
+  private void invalidateTouchables() {
+    mIsTouchablesDirty = true;
+    mHasGestureTouchables = false;
+  }
+
+  private void updateTouchablesIfNeeded() {
+    if (!mIsTouchablesDirty) {
+      return;
+    }
+
+    if (mTouchables != null) {
+      mTouchables.clear();
+    }
+
+    for (int i = ((mDrawableMountItems == null) ? 0 : mDrawableMountItems.size()) - 1;
+        i >= 0;
+        i--) {
+      final MountItem item = mDrawableMountItems.valueAt(i);
+      if (item.getContent() instanceof Touchable) {
+        if (mTouchables == null) {
+          mTouchables = new ArrayList<>();
+        }
+        mTouchables.add(item);
+      }
+    }
+
+    mIsTouchablesDirty = false;
+  }
+
+  /**
+   * Keeps the touchables which can handle the move events of the gesture starting with the given
+   * down event: all of them but the {@link BoundedTouchable}s which are not under the pointer.
+   */
+  private void updateGestureTouchables(MotionEvent event) {
+    if (mGestureTouchables != null) {
+      mGestureTouchables.clear();
+    }
+
+    final int x = (int) event.getX();
+    final int y = (int) event.getY();
+    for (int i = 0, size = mTouchables == null ? 0 : mTouchables.size(); i < size; i++) {
+      final MountItem item = mTouchables.get(i);
+      final Object content = item.getContent();
+      if (!(content instanceof BoundedTouchable)
+          || ((Drawable) content).getBounds().contains(x, y)) {
+        if (mGestureTouchables == null) {
+          mGestureTouchables = new ArrayList<>();
+        }
+        mGestureTouchables.add(item);
+      }
+    }
+
+    mHasGestureTouchables = true;
+  }
+
   void performLayout(boolean changed, int l, int t, int r, int b) {}
 
   @Override
@@ -1279,11 +1365,25 @@ public class ComponentHost extends Host {
       mChildDrawingOrder = new int[childCount + 5];
     }
 
+    // indexOfChild is linear, so with many children index all of them in a single pass first.
+    final IdentityHashMap<View, Integer> childIndices;
+    if (childCount > INDEXED_CHILD_DRAWING_ORDER_THRESHOLD) {
+      if (mChildIndices == null) {
+        mChildIndices = new IdentityHashMap<>(childCount);
+      }
+      childIndices = mChildIndices;
+      for (int i = 0; i < childCount; i++) {
+        childIndices.put(getChildAt(i), i);
+      }
+    } else {
+      childIndices = null;
+    }
+
     int index = 0;
     final int viewMountItemCount = mViewMountItems == null ? 0 : mViewMountItems.size();
     for (int i = 0; i < viewMountItemCount; i++) {
       final View child = (View) mViewMountItems.valueAt(i).getContent();
-      mChildDrawingOrder[index++] = indexOfChild(child);
+      mChildDrawingOrder[index++] = indexOfChild(childIndices, child);
     }
 
     // Draw disappearing items on top of mounted views.
@@ -1292,13 +1392,26 @@ public class ComponentHost extends Host {
         i++) {
       final Object child = mDisappearingItems.get(i).getContent();
       if (child instanceof View) {
-        mChildDrawingOrder[index++] = indexOfChild((View) child);
+        mChildDrawingOrder[index++] = indexOfChild(childIndices, (View) child);
       }
     }
 
+    if (childIndices != null) {
+      childIndices.clear();
+    }
+
     mIsChildDrawingOrderDirty = false;
   }
 
+  private int indexOfChild(@Nullable IdentityHashMap<View, Integer> childIndices, View child) {
+    if (childIndices == null) {
+      return indexOfChild(child);
+    }
+
+    final Integer childIndex = childIndices.get(child);
+    return childIndex == null ? -1 : childIndex;
+  }
+
   private void ensureScrapViewMountItemsArray() {
     if (mScrapViewMountItemsArray == null) {
       mScrapViewMountItemsArray = new SparseArrayCompat<>(SCRAP_ARRAY_INITIAL_SIZE);
@@ -1326,6 +1439,7 @@ public class ComponentHost extends Host {
 
     ensureDrawableMountItems();
     mDrawableMountItems.put(index, mountItem);
+    invalidateTouchables();
     final Drawable drawable = (Drawable) mountItem.getContent();
 
     final LayoutOutput output = getLayoutOutput(mountItem);
@@ -1357,6 +1471,7 @@ public class ComponentHost extends Host {
 
     // Move the MountItem in the new position.
     ComponentHostUtils.moveItem(oldIndex, newIndex, mDrawableMountItems, mScrapDrawableMountItems);
+    invalidateTouchables();
 
     // Drawing order changed, invalidate the whole view.
     this.invalidate();
@@ -16,8 +16,22 @@
 
 package com.facebook.litho;
 
+import androidx.annotation.Nullable;
+import com.facebook.litho.config.ComponentsConfiguration;
+
 public class ComponentKeyUtils {
   private static final String SEPARATOR = ",";
+  private static final char SEPARATOR_CHAR = ',';
+  private static final char POSITION_SEPARATOR_CHAR = '!';
+
+  /**
+   * Hashed keys start with a character that is never the first one of a component type id. Manual
+   * root keys starting with it are treated as hashed keys unknown to the registry.
+   */
+  private static final char HASHED_KEY_PREFIX = '#';
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
 
   /**
    * @param keyParts a list of objects that will be concatenated to form another component's key
@@ -54,4 +68,103 @@ public class ComponentKeyUtils {
 
     return sb.toString();
   }
+
+  /**
+   * @return the global key of a child with the given key, either the concatenation of the keys or a
+   *     hash of them if {@link ComponentsConfiguration#useHashedGlobalKeys} is enabled.
+   */
+  static String getGlobalKeyForChild(String parentGlobalKey, String key) {
+    if (!ComponentsConfiguration.useHashedGlobalKeys) {
+      return getKeyWithSeparator(parentGlobalKey, key);
+    }
+
+    long hash = hash(FNV_OFFSET_BASIS, parentGlobalKey);
+    hash = hash(hash, SEPARATOR_CHAR);
+    hash = hash(hash, key);
+    return toHashedKey(hash);
+  }
+
+  /** Same as {@link #getKeyForChildPosition(String, int)} for keys from getGlobalKeyForChild. */
+  static String getGlobalKeyForChildPosition(String childKey, int index) {
+    if (index == 0 || !ComponentsConfiguration.useHashedGlobalKeys) {
+      return getKeyForChildPosition(childKey, index);
+    }
+
+    long hash = hash(FNV_OFFSET_BASIS, childKey);
+    hash = hash(hash, POSITION_SEPARATOR_CHAR);
+    hash = hash(hash, index);
+    return toHashedKey(hash);
+  }
+
+  /**
+   * Same as {@link #getGlobalKeyForChildPosition(String, int)}, but also registers hashed keys with
+   * the {@link ComponentTree} of the given context so that they can be traced back to their parent.
+   */
+  static String getGlobalKeyForChildPosition(
+      ComponentContext c, String childKey, String parentGlobalKey, String key, int index) {
+    final ComponentTree componentTree = c.getComponentTree();
+    if (!ComponentsConfiguration.useHashedGlobalKeys || componentTree == null) {
+      return getGlobalKeyForChildPosition(childKey, index);
+    }
+
+    final LayoutState layoutState = c.getLayoutState();
+    return componentTree
+        .getHashedGlobalKeyRegistry()
+        .registerGlobalKeyForChild(
+            childKey,
+            parentGlobalKey,
+            key,
+            index,
+            layoutState != null ? layoutState.mLayoutVersion : -1);
+  }
+
+  /**
+   * Same as {@link #getGlobalKeyForChild(String, String)}, but returns the key the given {@link
+   * ComponentTree} registered for the first child with the key, which differs when it had to be
+   * rehashed because of a collision.
+   */
+  static String getGlobalKeyForChild(
+      @Nullable ComponentTree componentTree, String parentGlobalKey, String key) {
+    if (!ComponentsConfiguration.useHashedGlobalKeys || componentTree == null) {
+      return getGlobalKeyForChild(parentGlobalKey, key);
+    }
+
+    return componentTree.getHashedGlobalKeyRegistry().getGlobalKeyForChild(parentGlobalKey, key);
+  }
+
+  /** @return a different hashed key to use when the given one collides with another component. */
+  static String rehashGlobalKey(String hashedKey, int attempt) {
+    long hash = hash(FNV_OFFSET_BASIS, hashedKey);
+    hash = hash(hash, HASHED_KEY_PREFIX);
+    hash = hash(hash, attempt);
+    return toHashedKey(hash);
+  }
+
+  static boolean isHashedGlobalKey(String key) {
+    return !key.isEmpty() && key.charAt(0) == HASHED_KEY_PREFIX;
+  }
+
+  private static String toHashedKey(long hash) {
+    return HASHED_KEY_PREFIX + Long.toHexString(hash);
+  }
+
+  /** 64 bit FNV-1a, hashing each char as two bytes. */
+  private static long hash(long hash, String value) {
+    for (int i = 0, length = value.length(); i < length; i++) {
+      hash = hash(hash, value.charAt(i));
+    }
+    return hash;
+  }
+
+  private static long hash(long hash, char value) {
+    hash = (hash ^ (value & 0xff)) * FNV_PRIME;
+    return (hash ^ (value >>> 8)) * FNV_PRIME;
+  }
+
+  private static long hash(long hash, int value) {
+    for (int shift = 0; shift < 32; shift += 8) {
+      hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+    }
+    return hash;
+  }
 }
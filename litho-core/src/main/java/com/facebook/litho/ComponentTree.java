@@ -38,6 +38,7 @@ import android.graphics.Rect;
 import android.os.Handler;
 import android.os.HandlerThread;
 import android.os.Looper;
+import android.os.MessageQueue;
 import android.os.Process;
 import android.util.Log;
 import androidx.annotation.IntDef;
@@ -56,6 +57,7 @@ import com.facebook.litho.annotations.MountSpec;
 import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.perfboost.LithoPerfBooster;
 import com.facebook.litho.stats.LithoStats;
+import com.facebook.litho.stats.PhaseMetrics;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.ref.WeakReference;
@@ -258,6 +260,14 @@ public class ComponentTree {
   @GuardedBy("this")
   private int mNextLayoutVersion;
 
+  // Layouts for size specs other than the current one, see AlternateLayoutCache. Only layouts with
+  // a version of at least mMinReusableLayoutVersion reflect the current root, tree props and state.
+  @GuardedBy("this")
+  private final AlternateLayoutCache mAlternateLayouts;
+
+  @GuardedBy("this")
+  private int mMinReusableLayoutVersion;
+
   @Nullable
   @GuardedBy("this")
   private TreeProps mRootTreeProps;
@@ -309,6 +319,10 @@ public class ComponentTree {
 
   private final EventTriggersContainer mEventTriggersContainer = new EventTriggersContainer();
 
+  private volatile @Nullable HashedGlobalKeyRegistry mHashedGlobalKeyRegistry;
+
+  private final PhaseMetrics mPhaseMetrics = new PhaseMetrics();
+
   @GuardedBy("this")
   private final WorkingRangeStatusHandler mWorkingRangeStatusHandler =
       new WorkingRangeStatusHandler();
@@ -353,6 +367,7 @@ public class ComponentTree {
     isReconciliationEnabled = builder.isReconciliationEnabled;
     mForceAsyncStateUpdate = builder.shouldForceAsyncStateUpdate;
     mRecyclingMode = builder.recyclingMode;
+    mAlternateLayouts = new AlternateLayoutCache(builder.alternateLayoutCount);
 
     if (mPreAllocateMountContentHandler == null && builder.canPreallocateOnDefaultHandler) {
       mPreAllocateMountContentHandler =
@@ -497,6 +512,7 @@ public class ComponentTree {
       final LayoutState toRelease = mMainThreadLayoutState;
       mMainThreadLayoutState = mBackgroundLayoutState;
       mBackgroundLayoutState = null;
+      stashAlternateLayout(toRelease);
 
       return toRelease;
     }
@@ -731,11 +747,35 @@ public class ComponentTree {
     // Per ComponentTree visible area. Because LithoViews can be nested and mounted
     // not in "depth order", this variable cannot be static.
     final Rect currentVisibleArea = new Rect();
+    final boolean isVisible = mLithoView.getLocalVisibleRect(currentVisibleArea);
 
-    if (ComponentsConfiguration.incrementalMountWhenNotVisible) {
-      boolean isVisible = mIsAttached && mLithoView.getLocalVisibleRect(currentVisibleArea);
+    incrementalMountComponent(currentVisibleArea, isVisible);
+  }
+
+  /**
+   * Incrementally mounts with a visible rect, in the coordinates of the LithoView, which has been
+   * computed by the MountState of a LithoView hosting this one. An empty rect means that the
+   * LithoView is not visible.
+   */
+  @UiThread
+  void incrementalMountComponentWithVisibleRect(Rect visibleRect) {
+    assertMainThread();
+
+    if (!mIncrementalMountEnabled) {
+      throw new IllegalStateException(
+          "Calling incrementalMountComponent() but incremental mount is not enabled");
+    }
+
+    if (mLithoView == null) {
+      return;
+    }
+
+    incrementalMountComponent(new Rect(visibleRect), !visibleRect.isEmpty());
+  }
 
-      if (!isVisible) {
+  private void incrementalMountComponent(Rect currentVisibleArea, boolean isVisible) {
+    if (ComponentsConfiguration.incrementalMountWhenNotVisible) {
+      if (!mIsAttached || !isVisible) {
         // We just do this so that every mount call when the LithoView is not visible is done with
         // the same rect so that we can return early if possible.
         currentVisibleArea.setEmpty();
@@ -743,7 +783,7 @@ public class ComponentTree {
 
       mountComponent(currentVisibleArea, true);
     } else {
-      if (mLithoView.getLocalVisibleRect(currentVisibleArea)
+      if (isVisible
           // It might not be yet visible but animating from 0 height/width in which case we still
           // need
           // to mount them to trigger animation.
@@ -817,6 +857,130 @@ public class ComponentTree {
     mRootHeightAnimation = rootHeightAnimation;
   }
 
+  /**
+   * Computes a layout for the given size specs on the layout thread and keeps it, so that a later
+   * change to these specs (e.g. on rotation or a multi-window resize) is applied without computing
+   * a layout on the UI thread. Does nothing unless the tree keeps alternate layouts, see {@link
+   * Builder#alternateLayoutCount(int)}. The layout is dropped if the root, tree props or state
+   * change before it is used.
+   */
+  public void prepareAlternateLayoutAsync(final int widthSpec, final int heightSpec) {
+    synchronized (this) {
+      if (mRoot == null || !mAlternateLayouts.isEnabled()) {
+        return;
+      }
+    }
+
+    String tag = EMPTY_STRING;
+    if (mLayoutThreadHandler.isTracing()) {
+      tag = "prepareAlternateLayout";
+    }
+    mLayoutThreadHandler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            calculateAlternateLayout(widthSpec, heightSpec);
+          }
+        },
+        tag);
+  }
+
+  /**
+   * Same as {@link #prepareAlternateLayoutAsync(int, int)} for the current size specs with width
+   * and height swapped, which is what a full screen tree gets after a rotation. The layout is only
+   * started once the UI thread is idle so that it doesn't compete with the current frame.
+   */
+  @UiThread
+  public void prepareRotatedLayoutWhenIdle() {
+    assertMainThread();
+
+    Looper.myQueue()
+        .addIdleHandler(
+            new MessageQueue.IdleHandler() {
+              @Override
+              public boolean queueIdle() {
+                final int widthSpec;
+                final int heightSpec;
+                synchronized (ComponentTree.this) {
+                  if (!hasSizeSpec()) {
+                    return false;
+                  }
+                  widthSpec = mWidthSpec;
+                  heightSpec = mHeightSpec;
+                }
+
+                prepareAlternateLayoutAsync(heightSpec, widthSpec);
+                return false;
+              }
+            });
+  }
+
+  @VisibleForTesting
+  void calculateAlternateLayout(int widthSpec, int heightSpec) {
+    final Component root;
+    final TreeProps treeProps;
+    final int layoutVersion;
+    synchronized (this) {
+      if (mRoot == null || !mAlternateLayouts.isEnabled()) {
+        return;
+      }
+
+      final int rootId = mRoot.getId();
+      final int minVersion = mMinReusableLayoutVersion;
+      final boolean hasLayoutForSpecs =
+          (AlternateLayoutCache.isReusable(mMainThreadLayoutState, rootId, minVersion)
+                  && isCompatibleSpec(mMainThreadLayoutState, widthSpec, heightSpec))
+              || mAlternateLayouts.has(rootId, minVersion, widthSpec, heightSpec);
+      if (hasLayoutForSpecs) {
+        return;
+      }
+
+      root = mRoot.makeShallowCopy();
+      treeProps = TreeProps.copy(mRootTreeProps);
+      layoutVersion = mNextLayoutVersion++;
+    }
+
+    final LayoutState layoutState =
+        calculateLayoutState(
+            mContext,
+            root,
+            widthSpec,
+            heightSpec,
+            layoutVersion,
+            mIsLayoutDiffingEnabled,
+            treeProps,
+            CalculateLayoutSource.SET_SIZE_SPEC_ASYNC,
+            "alternate");
+
+    if (layoutState == null) {
+      return;
+    }
+
+    synchronized (this) {
+      final boolean isReusable =
+          mRoot != null
+              && AlternateLayoutCache.isReusable(
+                  layoutState, mRoot.getId(), mMinReusableLayoutVersion);
+      final StateHandler layoutStateStateHandler = layoutState.consumeStateHandler();
+      if (layoutStateStateHandler != null) {
+        // Components which only show up at this size need their initial state to be committed.
+        if (isReusable && mStateHandler != null) {
+          mStateHandler.commit(layoutStateStateHandler);
+        }
+        mInitialStateContainer.unregisterStateHandler(layoutStateStateHandler);
+      }
+
+      if (isReusable) {
+        mAlternateLayouts.put(layoutState);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  synchronized int getAlternateLayoutCount() {
+    return mAlternateLayouts.size();
+  }
+
   /**
    * @return whether this ComponentTree has a computed layout that will work for the given measure
    *     specs.
@@ -866,6 +1030,9 @@ public class ComponentTree {
       mHasMounted = true;
     }
 
+    final long mountStartTimeNanos = PhaseMetrics.currentTimeNanos();
+    final long mountStartAllocationCount = PhaseMetrics.currentAllocationCount();
+
     // currentVisibleArea null or empty => mount all
     try {
       mLithoView.mount(layoutState, currentVisibleArea, processVisibilityOutputs);
@@ -873,6 +1040,10 @@ public class ComponentTree {
         recordRenderData(layoutState);
       }
     } finally {
+      mPhaseMetrics.record(
+          isDirtyMount ? PhaseMetrics.PHASE_MOUNT : PhaseMetrics.PHASE_INCREMENTAL_MOUNT,
+          mountStartTimeNanos,
+          mountStartAllocationCount);
       mIsMounting = false;
       mRootHeightAnimation = null;
       mRootWidthAnimation = null;
@@ -954,6 +1125,8 @@ public class ComponentTree {
 
     synchronized (this) {
       mIsAttached = false;
+      // Layouts for other sizes are only worth keeping while the tree is on screen.
+      mAlternateLayouts.clear();
     }
   }
 
@@ -1031,6 +1204,7 @@ public class ComponentTree {
     Component component = null;
     TreeProps treeProps = null;
     int layoutVersion = -1;
+    LayoutState alternateLayoutState = null;
 
     synchronized (this) {
       mIsMeasuring = true;
@@ -1049,7 +1223,17 @@ public class ComponentTree {
               || (!mMainThreadLayoutState.isForComponentId(mRoot.getId())
                   && !isPendingLayoutCompatible());
 
-      if (forceLayout || shouldCalculateNewLayout) {
+      if (!forceLayout && shouldCalculateNewLayout) {
+        alternateLayoutState = takeAlternateLayout(mWidthSpec, mHeightSpec);
+        if (alternateLayoutState != null) {
+          stashAlternateLayout(mMainThreadLayoutState);
+          mMainThreadLayoutState = alternateLayoutState;
+          mCommittedLayoutState = alternateLayoutState;
+          pruneHashedGlobalKeys(alternateLayoutState);
+        }
+      }
+
+      if (alternateLayoutState == null && (forceLayout || shouldCalculateNewLayout)) {
         // Neither layout was compatible and we have to perform a layout.
         // Since outputs get set on the same object during the lifecycle calls,
         // we need to copy it in order to use it concurrently.
@@ -1059,12 +1243,21 @@ public class ComponentTree {
       }
     }
 
+    if (alternateLayoutState != null) {
+      onAlternateLayoutPromoted(alternateLayoutState);
+      mLithoView.setMountStateDirty();
+      dispatchNewLayoutStateReady();
+    }
+
     if (component != null) {
       // TODO: We should re-use the existing CSSNodeDEPRECATED tree instead of re-creating it.
       if (mMainThreadLayoutState != null) {
         // It's beneficial to delete the old layout state before we start creating a new one since
         // we'll be able to re-use some of the layout nodes.
         synchronized (this) {
+          if (!forceLayout) {
+            stashAlternateLayout(mMainThreadLayoutState);
+          }
           mMainThreadLayoutState = null;
         }
       }
@@ -1100,6 +1293,7 @@ public class ComponentTree {
         components = localLayoutState.consumeComponents();
         mMainThreadLayoutState = localLayoutState;
         mCommittedLayoutState = localLayoutState;
+        pruneHashedGlobalKeys(localLayoutState);
       }
 
       if (attachables != null) {
@@ -1256,6 +1450,7 @@ public class ComponentTree {
       }
 
       mStateHandler.queueStateUpdate(componentKey, stateUpdate, true);
+      invalidateAlternateLayouts();
     }
   }
 
@@ -1289,6 +1484,7 @@ public class ComponentTree {
       }
 
       mStateHandler.queueStateUpdate(componentKey, stateUpdate, false);
+      invalidateAlternateLayouts();
     }
 
     LithoStats.incrementComponentStateUpdateSyncCount();
@@ -1354,6 +1550,7 @@ public class ComponentTree {
       }
 
       mStateHandler.queueStateUpdate(componentKey, stateUpdate, false);
+      invalidateAlternateLayouts();
     }
 
     LithoStats.incrementComponentStateUpdateAsyncCount();
@@ -1368,6 +1565,7 @@ public class ComponentTree {
       }
 
       mStateHandler.queueHookStateUpdate(updater);
+      invalidateAlternateLayouts();
     }
 
     LithoStats.incrementComponentStateUpdateAsyncCount();
@@ -1897,6 +2095,10 @@ public class ComponentTree {
         mExternalRootVersion = externalRootVersion;
       }
 
+      if (root != null || treeProps != null) {
+        invalidateAlternateLayouts();
+      }
+
       if (mStateHandler.hasPendingUpdates() && root != null) {
         root = root.makeShallowCopyWithNewId();
       }
@@ -2018,6 +2220,7 @@ public class ComponentTree {
     final int heightSpec;
     final Component root;
     final int layoutVersion;
+    final LayoutState alternateLayoutState;
 
     // Cancel any scheduled layout requests we might have in the background queue
     // since we are starting a new layout computation.
@@ -2045,6 +2248,37 @@ public class ComponentTree {
         return;
       }
 
+      alternateLayoutState = takeAlternateLayout(mWidthSpec, mHeightSpec);
+      if (alternateLayoutState != null) {
+        if (output != null) {
+          output.width = alternateLayoutState.getWidth();
+          output.height = alternateLayoutState.getHeight();
+        }
+        mBackgroundLayoutState = alternateLayoutState;
+        mCommittedLayoutState = alternateLayoutState;
+        pruneHashedGlobalKeys(alternateLayoutState);
+      }
+    }
+
+    if (alternateLayoutState != null) {
+      // A promoted layout is committed just like a freshly calculated one.
+      notifyMeasureListeners(
+          alternateLayoutState.mLayoutVersion,
+          alternateLayoutState.getWidth(),
+          alternateLayoutState.getHeight(),
+          source == CalculateLayoutSource.UPDATE_STATE_ASYNC
+              || source == CalculateLayoutSource.UPDATE_STATE_SYNC);
+      onAlternateLayoutPromoted(alternateLayoutState);
+      postBackgroundLayoutStateUpdated();
+      return;
+    }
+
+    synchronized (this) {
+      // We might have been released while the lock wasn't held.
+      if (mRoot == null) {
+        return;
+      }
+
       widthSpec = mWidthSpec;
       heightSpec = mHeightSpec;
       mPendingLayoutWidthSpec = widthSpec;
@@ -2113,6 +2347,7 @@ public class ComponentTree {
         // Set the new layout state.
         mBackgroundLayoutState = localLayoutState;
         mCommittedLayoutState = localLayoutState;
+        pruneHashedGlobalKeys(localLayoutState);
         layoutStateUpdated = true;
       }
 
@@ -2127,21 +2362,12 @@ public class ComponentTree {
     }
 
     if (noCompatibleComponent) {
-      final List<MeasureListener> measureListeners;
-      synchronized (this) {
-        measureListeners = mMeasureListeners == null ? null : new ArrayList<>(mMeasureListeners);
-      }
-
-      if (measureListeners != null) {
-        for (MeasureListener measureListener : measureListeners) {
-          measureListener.onSetRootAndSizeSpec(
-              layoutVersion,
-              rootWidth,
-              rootHeight,
-              source == CalculateLayoutSource.UPDATE_STATE_ASYNC
-                  || source == CalculateLayoutSource.UPDATE_STATE_SYNC);
-        }
-      }
+      notifyMeasureListeners(
+          layoutVersion,
+          rootWidth,
+          rootHeight,
+          source == CalculateLayoutSource.UPDATE_STATE_ASYNC
+              || source == CalculateLayoutSource.UPDATE_STATE_SYNC);
 
       if (mAttachDetachHandler != null) {
         mAttachDetachHandler.onAttached(attachables);
@@ -2172,6 +2398,20 @@ public class ComponentTree {
     }
   }
 
+  private void notifyMeasureListeners(
+      int layoutVersion, int width, int height, boolean stateUpdate) {
+    final List<MeasureListener> measureListeners;
+    synchronized (this) {
+      measureListeners = mMeasureListeners == null ? null : new ArrayList<>(mMeasureListeners);
+    }
+
+    if (measureListeners != null) {
+      for (MeasureListener measureListener : measureListeners) {
+        measureListener.onSetRootAndSizeSpec(layoutVersion, width, height, stateUpdate);
+      }
+    }
+  }
+
   private void bindEventAndTriggerHandlers(List<Component> components) {
     clearUnusedTriggerHandlers();
 
@@ -2260,6 +2500,7 @@ public class ComponentTree {
       mMainThreadLayoutState = null;
       mBackgroundLayoutState = null;
       mCommittedLayoutState = null;
+      mAlternateLayouts.clear();
       mStateHandler = null;
       mPreviousRenderState = null;
       mMeasureListeners = null;
@@ -2325,6 +2566,31 @@ public class ComponentTree {
     mStateHandler.putCachedValue(cachedValueInputs, cachedValue);
   }
 
+  /**
+   * Returns how the values computed by {@link
+   * com.facebook.litho.annotations.OnCalculateCachedValue} methods in this tree have been used.
+   */
+  public synchronized CachedValueStats getCachedValueStats() {
+    if (mReleased) {
+      return new CachedValueStats(0, 0, 0, 0, 0);
+    }
+    return mStateHandler.getCachedValueStats();
+  }
+
+  /**
+   * Releases values computed by {@link com.facebook.litho.annotations.OnCalculateCachedValue}
+   * methods in this tree according to the given memory pressure level, as well as the layouts kept
+   * for other sizes. Should be called from {@link
+   * android.content.ComponentCallbacks2#onTrimMemory(int)}.
+   */
+  public synchronized void onTrimMemory(int level) {
+    if (mReleased) {
+      return;
+    }
+    mStateHandler.trimCachedValues(level);
+    mAlternateLayouts.clear();
+  }
+
   private static synchronized Looper getDefaultLayoutThreadLooper() {
     if (sDefaultLayoutThreadLooper == null) {
       final HandlerThread defaultThread =
@@ -2367,6 +2633,57 @@ public class ComponentTree {
         && layoutState.isCompatibleAccessibility();
   }
 
+  /**
+   * Called when the root, tree props or state change. Layouts started before this point don't
+   * reflect the content of the tree anymore and can't be reused for other sizes.
+   */
+  @GuardedBy("this")
+  private void invalidateAlternateLayouts() {
+    mMinReusableLayoutVersion = mNextLayoutVersion;
+    mAlternateLayouts.clear();
+  }
+
+  /** Keeps a layout which is being replaced because of a size change for later reuse. */
+  @GuardedBy("this")
+  private void stashAlternateLayout(@Nullable LayoutState layoutState) {
+    if (mAlternateLayouts.isEnabled()
+        && mRoot != null
+        && AlternateLayoutCache.isReusable(layoutState, mRoot.getId(), mMinReusableLayoutVersion)
+        && !isCompatibleSpec(layoutState, mWidthSpec, mHeightSpec)) {
+      mAlternateLayouts.put(layoutState);
+    }
+  }
+
+  @GuardedBy("this")
+  private @Nullable LayoutState takeAlternateLayout(int widthSpec, int heightSpec) {
+    if (!mAlternateLayouts.isEnabled() || mRoot == null) {
+      return null;
+    }
+
+    return mAlternateLayouts.take(mRoot.getId(), mMinReusableLayoutVersion, widthSpec, heightSpec);
+  }
+
+  /**
+   * Layouts computed by {@link #calculateAlternateLayout(int, int)} keep their components until
+   * they are used, so their handlers are only bound once they are promoted.
+   */
+  private void onAlternateLayoutPromoted(LayoutState layoutState) {
+    final List<Component> components;
+    @Nullable final Map<String, Component> attachables;
+    synchronized (this) {
+      components = layoutState.consumeComponents();
+      attachables = layoutState.consumeAttachables();
+    }
+
+    if (attachables != null) {
+      getOrCreateAttachDetachHandler().onAttached(attachables);
+    }
+
+    if (components != null) {
+      bindEventAndTriggerHandlers(components);
+    }
+  }
+
   public synchronized boolean isReleased() {
     return mReleased;
   }
@@ -2894,6 +3211,45 @@ public class ComponentTree {
     return sIdGenerator.getAndIncrement();
   }
 
+  HashedGlobalKeyRegistry getHashedGlobalKeyRegistry() {
+    HashedGlobalKeyRegistry registry = mHashedGlobalKeyRegistry;
+    if (registry == null) {
+      synchronized (this) {
+        registry = mHashedGlobalKeyRegistry;
+        if (registry == null) {
+          registry = new HashedGlobalKeyRegistry();
+          mHashedGlobalKeyRegistry = registry;
+        }
+      }
+    }
+    return registry;
+  }
+
+  /** Drops the hashed global keys which the newly committed layout doesn't use anymore. */
+  @GuardedBy("this")
+  private void pruneHashedGlobalKeys(LayoutState committedLayoutState) {
+    final HashedGlobalKeyRegistry registry = mHashedGlobalKeyRegistry;
+    if (registry != null) {
+      registry.prune(
+          committedLayoutState.mLayoutVersion,
+          committedLayoutState.getComponentKeyToBounds().keySet());
+    }
+  }
+
+  /**
+   * @return the key the component with the given global key would have without {@link
+   *     ComponentsConfiguration#useHashedGlobalKeys}, for debugging.
+   */
+  public String getReadableGlobalKey(String globalKey) {
+    final HashedGlobalKeyRegistry registry = mHashedGlobalKeyRegistry;
+    return registry == null ? globalKey : registry.toReadableKey(globalKey);
+  }
+
+  /** @return the time and allocations spent in each phase of this tree since its creation. */
+  public PhaseMetrics getPhaseMetrics() {
+    return mPhaseMetrics;
+  }
+
   @VisibleForTesting
   EventHandlersController getEventHandlersController() {
     return mEventHandlersController;
@@ -2984,6 +3340,7 @@ public class ComponentTree {
     private boolean incrementalVisibility = ComponentsConfiguration.incrementalVisibilityHandling;
     private boolean shouldForceAsyncStateUpdate =
         ComponentsConfiguration.shouldForceAsyncStateUpdate;
+    private int alternateLayoutCount = ComponentsConfiguration.defaultAlternateLayoutCount;
 
     protected Builder(ComponentContext context) {
       this.context = context;
@@ -3169,6 +3526,16 @@ public class ComponentTree {
       return this;
     }
 
+    /**
+     * Number of layouts for size specs other than the current one that the tree keeps, so that
+     * going back to one of those sizes, e.g. on rotation or a multi-window resize, doesn't need a
+     * new layout calculation. See {@link ComponentTree#prepareAlternateLayoutAsync(int, int)}.
+     */
+    public Builder alternateLayoutCount(int alternateLayoutCount) {
+      this.alternateLayoutCount = alternateLayoutCount;
+      return this;
+    }
+
     // TODO: T48569046 verify the usage, if this should be split up
     public Builder logger(@Nullable ComponentsLogger logger, @Nullable String logTag) {
       this.logger = logger;
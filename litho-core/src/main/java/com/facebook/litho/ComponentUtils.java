@@ -23,15 +23,30 @@ import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
 
 public class ComponentUtils {
 
+  /** The Comparable annotation of a field could not be read. */
+  private static final int NOT_COMPARABLE = -1;
+
+  /** A collection of components whose nesting level was inferred from its generic type. */
+  private static final int COLLECTION_OF_COMPONENTS = -2;
+
+  private static final Map<Class<?>, ComparableField[]> sComparableFieldsFromAnnotations =
+      new ConcurrentHashMap<>();
+  private static final Map<Class<?>, ComparableField[]> sComparableFieldsFromTypes =
+      new ConcurrentHashMap<>();
+
   public static boolean isSameComponentType(Component a, Component b) {
     if (a == b) {
       return true;
@@ -71,6 +86,30 @@ public class ComponentUtils {
     return hasEquivalentFields(current, next, /* shouldCompareStateContainers */ false);
   }
 
+  /**
+   * Returns whether components of the given class can hold other components as props. These are
+   * compared with isEquivalentTo, which doesn't take their common props into account.
+   */
+  static boolean hasComponentProps(Class<?> clazz) {
+    final ComparableField[] fields = getComparableFields(clazz);
+    for (int i = 0, length = fields.length; i < length; i++) {
+      switch (fields[i].comparableType) {
+        case NOT_COMPARABLE:
+        case Comparable.COMPONENT:
+        case Comparable.COLLECTION_COMPLEVEL_1:
+        case Comparable.COLLECTION_COMPLEVEL_2:
+        case Comparable.COLLECTION_COMPLEVEL_3:
+        case Comparable.COLLECTION_COMPLEVEL_4:
+        case COLLECTION_OF_COMPONENTS:
+          return true;
+        default:
+          break;
+      }
+    }
+
+    return false;
+  }
+
   /**
    * Given two object instances of the same type, this method accesses all their internal fields,
    * including the fields of StateContainer if the class type is Component, to check if they are
@@ -91,45 +130,69 @@ public class ComponentUtils {
       throw new IllegalArgumentException("The input is invalid.");
     }
 
-    for (Field field : obj1.getClass().getDeclaredFields()) {
-      if (!field.isAnnotationPresent(Comparable.class)) {
-        continue;
-      }
-
-      final Class<?> classType = field.getType();
+    final ComparableField[] fields = getComparableFields(obj1.getClass());
+    for (int i = 0, length = fields.length; i < length; i++) {
+      final ComparableField comparableField = fields[i];
       final Object val1;
       final Object val2;
       try {
-        field.setAccessible(true);
-        val1 = field.get(obj1);
-        val2 = field.get(obj2);
-        field.setAccessible(false);
+        val1 = comparableField.field.get(obj1);
+        val2 = comparableField.field.get(obj2);
       } catch (IllegalAccessException e) {
         throw new IllegalStateException("Unable to get fields by reflection.", e);
       }
 
-      boolean intermediateResult =
-          ComponentsConfiguration.disableGetAnnotationUsage
-              ? isEquivalentUtilWithoutGetAnnotation(
-                  field, classType, val1, val2, shouldCompareStateContainers)
-              : isEquivalentUtil(field, classType, val1, val2, shouldCompareStateContainers);
-      if (!intermediateResult) {
-        return intermediateResult;
+      if (!isEquivalentUtil(comparableField, val1, val2, shouldCompareStateContainers)) {
+        return false;
       }
     }
 
     return true;
   }
 
-  private static boolean isEquivalentUtil(
-      Field field,
-      Class<?> classType,
-      @Nullable Object val1,
-      @Nullable Object val2,
-      boolean shouldCompareStateContainers) {
-    @Comparable.Type int comparableType;
+  /**
+   * Returns the {@link Comparable} fields of the given class along with how each of them should be
+   * compared. This is computed once per class, so that comparing two instances doesn't need to
+   * allocate the declared fields or inspect annotations and generic types again.
+   */
+  private static ComparableField[] getComparableFields(Class<?> clazz) {
+    final boolean useAnnotations = !ComponentsConfiguration.disableGetAnnotationUsage;
+    final Map<Class<?>, ComparableField[]> cache =
+        useAnnotations ? sComparableFieldsFromAnnotations : sComparableFieldsFromTypes;
+
+    ComparableField[] fields = cache.get(clazz);
+    if (fields != null) {
+      return fields;
+    }
+
+    boolean canCache = true;
+    final List<ComparableField> comparableFields = new ArrayList<>();
+    for (Field field : clazz.getDeclaredFields()) {
+      if (!field.isAnnotationPresent(Comparable.class)) {
+        continue;
+      }
+
+      field.setAccessible(true);
+      final int comparableType =
+          useAnnotations ? getComparableTypeFromAnnotation(field) : getComparableTypeFromType(field);
+      if (comparableType == NOT_COMPARABLE) {
+        // Reading the annotation can fail intermittently, don't remember the failure.
+        canCache = false;
+      }
+      comparableFields.add(new ComparableField(field, comparableType));
+    }
+
+    fields = comparableFields.toArray(new ComparableField[comparableFields.size()]);
+    if (canCache) {
+      cache.put(clazz, fields);
+    }
+
+    return fields;
+  }
+
+  private static int getComparableTypeFromAnnotation(Field field) {
     try {
-      comparableType = field.getAnnotation(Comparable.class).type();
+      return field.getAnnotation(Comparable.class).type();
     } catch (IncompatibleClassChangeError | NullPointerException ignore) {
       /**
        * Libraries which uses annotations is facing this intermittently in Lollypop 5.0, 5.0.1 &
@@ -138,9 +201,51 @@ public class ComponentUtils {
        * <p>https://issuetracker.google.com/issues/37045084
        * https://github.com/google/gson/issues/726
        */
-      return false;
+      return NOT_COMPARABLE;
     }
+  }
+
+  private static int getComparableTypeFromType(Field field) {
+    final Class<?> classType = field.getType();
+    final Type type = field.getGenericType();
+
+    if (classType.isArray()) {
+      return Comparable.ARRAY;
+    } else if (Double.TYPE.isAssignableFrom(classType)) {
+      return Comparable.DOUBLE;
+    } else if (Float.TYPE.isAssignableFrom(classType)) {
+      return Comparable.FLOAT;
+    } else if (ComparableDrawable.class.isAssignableFrom(classType)) {
+      return Comparable.COMPARABLE_DRAWABLE;
+    } else if (Collection.class.isAssignableFrom(classType)) {
+      final int level = levelOfComponentsInCollection(type);
+      return level > 0 ? COLLECTION_OF_COMPONENTS : Comparable.COLLECTION_COMPLEVEL_0;
+    } else if (Equivalence.class.isAssignableFrom(classType)) {
+      // Sections & Components implement Equivalence interface.
+      return Comparable.COMPONENT;
+    } else if (EventHandler.class.isAssignableFrom(classType)
+        || (type instanceof ParameterizedType
+            && EventHandler.class.isAssignableFrom(
+                (Class) ((ParameterizedType) type).getRawType()))) {
+      return Comparable.EVENT_HANDLER;
+    } else if (StateContainer.class.isAssignableFrom(classType)) {
+      // StateContainers have also fields that we need to check for being equivalent.
+      return Comparable.STATE_CONTAINER;
+    }
+
+    return Comparable.OTHER;
+  }
+
+  private static boolean isEquivalentUtil(
+      ComparableField comparableField,
+      @Nullable Object val1,
+      @Nullable Object val2,
+      boolean shouldCompareStateContainers) {
+    final int comparableType = comparableField.comparableType;
     switch (comparableType) {
+      case NOT_COMPARABLE:
+        return false;
+
       case Comparable.FLOAT:
         if (Float.compare((Float) val1, (Float) val2) != 0) {
           return false;
@@ -154,7 +259,7 @@ public class ComponentUtils {
         break;
 
       case Comparable.ARRAY:
-        if (!areArraysEquals(classType, val1, val2)) {
+        if (!areArraysEquals(comparableField.field.getType(), val1, val2)) {
           return false;
         }
         break;
@@ -166,7 +271,9 @@ public class ComponentUtils {
         break;
 
       case Comparable.COMPARABLE_DRAWABLE:
-        if (!((ComparableDrawable) val1).isEquivalentTo((ComparableDrawable) val2)) {
+        if (val1 != null
+            ? !((ComparableDrawable) val1).isEquivalentTo((ComparableDrawable) val2)
+            : val2 != null) {
           return false;
         }
         break;
@@ -183,9 +290,9 @@ public class ComponentUtils {
       case Comparable.COLLECTION_COMPLEVEL_2:
       case Comparable.COLLECTION_COMPLEVEL_3:
       case Comparable.COLLECTION_COMPLEVEL_4:
-        // N.B. This relies on the IntDef to be in increasing order.
-        int level = comparableType - Comparable.COLLECTION_COMPLEVEL_0;
-        if (!areComponentCollectionsEquals(level, (Collection) val1, (Collection) val2)) {
+      case COLLECTION_OF_COMPONENTS:
+        if (!areComponentCollectionsEquals(
+            comparableField.collectionLevel, (Collection) val1, (Collection) val2)) {
           return false;
         }
         break;
@@ -225,78 +332,6 @@ public class ComponentUtils {
     return true;
   }
 
-  private static boolean isEquivalentUtilWithoutGetAnnotation(
-      Field field,
-      Class<?> classType,
-      @Nullable Object val1,
-      @Nullable Object val2,
-      boolean shouldCompareStateContainers) {
-
-    final Type type = field.getGenericType();
-
-    if (classType.isArray()) {
-      if (!areArraysEquals(classType, val1, val2)) {
-        return false;
-      }
-
-    } else if (Double.TYPE.isAssignableFrom(classType)) {
-      if (Double.compare((Double) val1, (Double) val2) != 0) {
-        return false;
-      }
-
-    } else if (Float.TYPE.isAssignableFrom(classType)) {
-      if (Float.compare((Float) val1, (Float) val2) != 0) {
-        return false;
-      }
-
-    } else if (ComparableDrawable.class.isAssignableFrom(classType)) {
-      if (val1 != null
-          ? !((ComparableDrawable) val1).isEquivalentTo((ComparableDrawable) val2)
-          : val2 != null) {
-        return false;
-      }
-
-    } else if (Collection.class.isAssignableFrom(classType)) {
-      final Collection c1 = (Collection) val1;
-      final Collection c2 = (Collection) val2;
-      final int level = levelOfComponentsInCollection(type);
-      if (level > 0) {
-        if (!areComponentCollectionsEquals(level, c1, c2)) {
-          return false;
-        }
-      } else {
-        if (c1 != null ? !c1.equals(c2) : c2 != null) {
-          return false;
-        }
-      }
-      // Sections & Components implement Equivalence interface.
-    } else if (Equivalence.class.isAssignableFrom(classType)) {
-      if (val1 != null ? !((Equivalence) val1).isEquivalentTo(val2) : val2 != null) {
-        return false;
-      }
-
-    } else if (EventHandler.class.isAssignableFrom(classType)
-        || (type instanceof ParameterizedType
-            && EventHandler.class.isAssignableFrom(
-                (Class) ((ParameterizedType) type).getRawType()))) {
-      if (val1 != null
-          ? !((EventHandler) val1).isEquivalentTo((EventHandler) val2)
-          : val2 != null) {
-        return false;
-      }
-
-      // StateContainers have also fields that we need to check for being equivalent.
-    } else if (StateContainer.class.isAssignableFrom(classType)) {
-      if (shouldCompareStateContainers && !hasEquivalentFields(val1, val2, true)) {
-        return false;
-      }
-
-    } else if (val1 != null ? !val1.equals(val2) : val2 != null) {
-      return false;
-    }
-    return true;
-  }
-
   /**
    * Calculate the level of the target Component/Section. The level here means how many bracket
    * pairs are needed to break until reaching the component type. For example, the level of
@@ -473,4 +508,25 @@ public class ComponentUtils {
 
     return builder.toString();
   }
+
+  /** A {@link Comparable} field along with the kind of equivalence used to compare it. */
+  private static final class ComparableField {
+    final Field field;
+    final int comparableType;
+    final int collectionLevel;
+
+    ComparableField(Field field, int comparableType) {
+      this.field = field;
+      this.comparableType = comparableType;
+      if (comparableType == COLLECTION_OF_COMPONENTS) {
+        collectionLevel = levelOfComponentsInCollection(field.getGenericType());
+      } else if (comparableType > Comparable.COLLECTION_COMPLEVEL_0
+          && comparableType <= Comparable.COLLECTION_COMPLEVEL_4) {
+        // N.B. This relies on the IntDef to be in increasing order.
+        collectionLevel = comparableType - Comparable.COLLECTION_COMPLEVEL_0;
+      } else {
+        collectionLevel = 0;
+      }
+    }
+  }
 }
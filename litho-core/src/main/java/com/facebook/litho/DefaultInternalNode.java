@@ -63,8 +63,10 @@ import com.facebook.yoga.YogaJustify;
 import com.facebook.yoga.YogaMeasureFunction;
 import com.facebook.yoga.YogaNode;
 import com.facebook.yoga.YogaPositionType;
+import com.facebook.yoga.YogaStyleInputs;
 import com.facebook.yoga.YogaWrap;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -161,6 +163,7 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
   private boolean mDuplicateParentState;
   private boolean mForceViewWrapping;
   private boolean mCachedMeasuresValid;
+  private boolean mCanShareSubtreesOnReconcile;
 
   private int mImportantForAccessibility = ViewCompat.IMPORTANT_FOR_ACCESSIBILITY_AUTO;
   private @DrawableRes int mStateListAnimatorRes;
@@ -179,8 +182,14 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
   private float mLastMeasuredWidth = DiffNode.UNSPECIFIED;
   private float mLastMeasuredHeight = DiffNode.UNSPECIFIED;
 
+  // Layout inputs of the last onBoundsDefined call, or null if it has to run again.
+  private @Nullable int[] mBoundsDefinedFrame;
+
   private long mPrivateFlags;
 
+  /** Non null while style inputs are being batched, see {@link #beginStyleInputsBatch()}. */
+  private @Nullable YogaStyleInputsBuffer mStyleInputs;
+
   protected DefaultInternalNode(ComponentContext componentContext) {
     this(componentContext, true);
   }
@@ -240,20 +249,32 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
 
   @Override
   public InternalNode alignContent(YogaAlign alignContent) {
-    mYogaNode.setAlignContent(alignContent);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.ALIGN_CONTENT, alignContent.intValue());
+    } else {
+      mYogaNode.setAlignContent(alignContent);
+    }
     return this;
   }
 
   @Override
   public InternalNode alignItems(YogaAlign alignItems) {
-    mYogaNode.setAlignItems(alignItems);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.ALIGN_ITEMS, alignItems.intValue());
+    } else {
+      mYogaNode.setAlignItems(alignItems);
+    }
     return this;
   }
 
   @Override
   public void alignSelf(YogaAlign alignSelf) {
     mPrivateFlags |= PFLAG_ALIGN_SELF_IS_SET;
-    mYogaNode.setAlignSelf(alignSelf);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.ALIGN_SELF, alignSelf.intValue());
+    } else {
+      mYogaNode.setAlignSelf(alignSelf);
+    }
   }
 
   @Override
@@ -278,7 +299,11 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
   @Override
   public void aspectRatio(float aspectRatio) {
     mPrivateFlags |= PFLAG_ASPECT_RATIO_IS_SET;
-    mYogaNode.setAspectRatio(aspectRatio);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.ASPECT_RATIO, aspectRatio);
+    } else {
+      mYogaNode.setAspectRatio(aspectRatio);
+    }
   }
 
   @Override
@@ -319,15 +344,15 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
   public void border(Edges width, int[] colors, float[] radii) {
     mPrivateFlags |= PFLAG_BORDER_IS_SET;
 
-    mYogaNode.setBorder(LEFT, width.getRaw(YogaEdge.LEFT));
-    mYogaNode.setBorder(TOP, width.getRaw(YogaEdge.TOP));
-    mYogaNode.setBorder(RIGHT, width.getRaw(YogaEdge.RIGHT));
-    mYogaNode.setBorder(BOTTOM, width.getRaw(YogaEdge.BOTTOM));
-    mYogaNode.setBorder(VERTICAL, width.getRaw(YogaEdge.VERTICAL));
-    mYogaNode.setBorder(HORIZONTAL, width.getRaw(YogaEdge.HORIZONTAL));
-    mYogaNode.setBorder(START, width.getRaw(YogaEdge.START));
-    mYogaNode.setBorder(END, width.getRaw(YogaEdge.END));
-    mYogaNode.setBorder(ALL, width.getRaw(YogaEdge.ALL));
+    setYogaBorder(LEFT, width.getRaw(YogaEdge.LEFT));
+    setYogaBorder(TOP, width.getRaw(YogaEdge.TOP));
+    setYogaBorder(RIGHT, width.getRaw(YogaEdge.RIGHT));
+    setYogaBorder(BOTTOM, width.getRaw(YogaEdge.BOTTOM));
+    setYogaBorder(VERTICAL, width.getRaw(YogaEdge.VERTICAL));
+    setYogaBorder(HORIZONTAL, width.getRaw(YogaEdge.HORIZONTAL));
+    setYogaBorder(START, width.getRaw(YogaEdge.START));
+    setYogaBorder(END, width.getRaw(YogaEdge.END));
+    setYogaBorder(ALL, width.getRaw(YogaEdge.ALL));
 
     System.arraycopy(colors, 0, mBorderColors, 0, colors.length);
     System.arraycopy(radii, 0, mBorderRadius, 0, radii.length);
@@ -380,44 +405,72 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
   @Override
   public void flex(float flex) {
     mPrivateFlags |= PFLAG_FLEX_IS_SET;
-    mYogaNode.setFlex(flex);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.FLEX, flex);
+    } else {
+      mYogaNode.setFlex(flex);
+    }
   }
 
   // Used by stetho to re-set auto value
   @Override
   public InternalNode flexBasisAuto() {
-    mYogaNode.setFlexBasisAuto();
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.FLEX_BASIS_AUTO);
+    } else {
+      mYogaNode.setFlexBasisAuto();
+    }
     return this;
   }
 
   @Override
   public void flexBasisPercent(float percent) {
     mPrivateFlags |= PFLAG_FLEX_BASIS_IS_SET;
-    mYogaNode.setFlexBasisPercent(percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.FLEX_BASIS_PERCENT, percent);
+    } else {
+      mYogaNode.setFlexBasisPercent(percent);
+    }
   }
 
   @Override
   public void flexBasisPx(@Px int flexBasis) {
     mPrivateFlags |= PFLAG_FLEX_BASIS_IS_SET;
-    mYogaNode.setFlexBasis(flexBasis);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.FLEX_BASIS, flexBasis);
+    } else {
+      mYogaNode.setFlexBasis(flexBasis);
+    }
   }
 
   @Override
   public InternalNode flexDirection(YogaFlexDirection direction) {
-    mYogaNode.setFlexDirection(direction);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.FLEX_DIRECTION, direction.intValue());
+    } else {
+      mYogaNode.setFlexDirection(direction);
+    }
     return this;
   }
 
   @Override
   public void flexGrow(float flexGrow) {
     mPrivateFlags |= PFLAG_FLEX_GROW_IS_SET;
-    mYogaNode.setFlexGrow(flexGrow);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.FLEX_GROW, flexGrow);
+    } else {
+      mYogaNode.setFlexGrow(flexGrow);
+    }
   }
 
   @Override
   public void flexShrink(float flexShrink) {
     mPrivateFlags |= PFLAG_FLEX_SHRINK_IS_SET;
-    mYogaNode.setFlexShrink(flexShrink);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.FLEX_SHRINK, flexShrink);
+    } else {
+      mYogaNode.setFlexShrink(flexShrink);
+    }
   }
 
   @Override
@@ -941,20 +994,32 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
   // Used by stetho to re-set auto value
   @Override
   public InternalNode heightAuto() {
-    mYogaNode.setHeightAuto();
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.HEIGHT_AUTO);
+    } else {
+      mYogaNode.setHeightAuto();
+    }
     return this;
   }
 
   @Override
   public void heightPercent(float percent) {
     mPrivateFlags |= PFLAG_HEIGHT_IS_SET;
-    mYogaNode.setHeightPercent(percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.HEIGHT_PERCENT, percent);
+    } else {
+      mYogaNode.setHeightPercent(percent);
+    }
   }
 
   @Override
   public void heightPx(@Px int height) {
     mPrivateFlags |= PFLAG_HEIGHT_IS_SET;
-    mYogaNode.setHeight(height);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.HEIGHT, height);
+    } else {
+      mYogaNode.setHeight(height);
+    }
   }
 
   @Override
@@ -971,6 +1036,12 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
     return this;
   }
 
+  @Override
+  public boolean isBoundsDefinedUpToDate() {
+    return mBoundsDefinedFrame != null
+        && Arrays.equals(mBoundsDefinedFrame, getBoundsDefinedFrame());
+  }
+
   @Override
   public boolean isDuplicateParentStateEnabled() {
     return mDuplicateParentState;
@@ -1013,37 +1084,61 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
 
   @Override
   public void isReferenceBaseline(boolean isReferenceBaseline) {
-    mYogaNode.setIsReferenceBaseline(isReferenceBaseline);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.IS_REFERENCE_BASELINE, isReferenceBaseline ? 1 : 0);
+    } else {
+      mYogaNode.setIsReferenceBaseline(isReferenceBaseline);
+    }
   }
 
   @Override
   public InternalNode justifyContent(YogaJustify justifyContent) {
-    mYogaNode.setJustifyContent(justifyContent);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.JUSTIFY_CONTENT, justifyContent.intValue());
+    } else {
+      mYogaNode.setJustifyContent(justifyContent);
+    }
     return this;
   }
 
   @Override
   public void layoutDirection(YogaDirection direction) {
     mPrivateFlags |= PFLAG_LAYOUT_DIRECTION_IS_SET;
-    mYogaNode.setDirection(direction);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.LAYOUT_DIRECTION, direction.intValue());
+    } else {
+      mYogaNode.setDirection(direction);
+    }
   }
 
   @Override
   public void marginAuto(YogaEdge edge) {
     mPrivateFlags |= PFLAG_MARGIN_IS_SET;
-    mYogaNode.setMarginAuto(edge);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.MARGIN_AUTO, edge);
+    } else {
+      mYogaNode.setMarginAuto(edge);
+    }
   }
 
   @Override
   public void marginPercent(YogaEdge edge, float percent) {
     mPrivateFlags |= PFLAG_MARGIN_IS_SET;
-    mYogaNode.setMarginPercent(edge, percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.MARGIN_PERCENT, edge, percent);
+    } else {
+      mYogaNode.setMarginPercent(edge, percent);
+    }
   }
 
   @Override
   public void marginPx(YogaEdge edge, @Px int margin) {
     mPrivateFlags |= PFLAG_MARGIN_IS_SET;
-    mYogaNode.setMargin(edge, margin);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.MARGIN, edge, margin);
+    } else {
+      mYogaNode.setMargin(edge, margin);
+    }
   }
 
   /** Mark this node as a nested tree root holder. */
@@ -1053,6 +1148,12 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
     getOrCreateNestedTreeProps().mPendingTreeProps = TreeProps.copy(currentTreeProps);
   }
 
+  @Override
+  public void markBoundsDefined() {
+    // A new array, since copies of this node start out sharing it.
+    mBoundsDefinedFrame = getBoundsDefinedFrame();
+  }
+
   @Override
   public void markLayoutSeen() {
     mYogaNode.markLayoutSeen();
@@ -1061,49 +1162,81 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
   @Override
   public void maxHeightPercent(float percent) {
     mPrivateFlags |= PFLAG_MAX_HEIGHT_IS_SET;
-    mYogaNode.setMaxHeightPercent(percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.MAX_HEIGHT_PERCENT, percent);
+    } else {
+      mYogaNode.setMaxHeightPercent(percent);
+    }
   }
 
   @Override
   public void maxHeightPx(@Px int maxHeight) {
     mPrivateFlags |= PFLAG_MAX_HEIGHT_IS_SET;
-    mYogaNode.setMaxHeight(maxHeight);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.MAX_HEIGHT, maxHeight);
+    } else {
+      mYogaNode.setMaxHeight(maxHeight);
+    }
   }
 
   @Override
   public void maxWidthPercent(float percent) {
     mPrivateFlags |= PFLAG_MAX_WIDTH_IS_SET;
-    mYogaNode.setMaxWidthPercent(percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.MAX_WIDTH_PERCENT, percent);
+    } else {
+      mYogaNode.setMaxWidthPercent(percent);
+    }
   }
 
   @Override
   public void maxWidthPx(@Px int maxWidth) {
     mPrivateFlags |= PFLAG_MAX_WIDTH_IS_SET;
-    mYogaNode.setMaxWidth(maxWidth);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.MAX_WIDTH, maxWidth);
+    } else {
+      mYogaNode.setMaxWidth(maxWidth);
+    }
   }
 
   @Override
   public void minHeightPercent(float percent) {
     mPrivateFlags |= PFLAG_MIN_HEIGHT_IS_SET;
-    mYogaNode.setMinHeightPercent(percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.MIN_HEIGHT_PERCENT, percent);
+    } else {
+      mYogaNode.setMinHeightPercent(percent);
+    }
   }
 
   @Override
   public void minHeightPx(@Px int minHeight) {
     mPrivateFlags |= PFLAG_MIN_HEIGHT_IS_SET;
-    mYogaNode.setMinHeight(minHeight);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.MIN_HEIGHT, minHeight);
+    } else {
+      mYogaNode.setMinHeight(minHeight);
+    }
   }
 
   @Override
   public void minWidthPercent(float percent) {
     mPrivateFlags |= PFLAG_MIN_WIDTH_IS_SET;
-    mYogaNode.setMinWidthPercent(percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.MIN_WIDTH_PERCENT, percent);
+    } else {
+      mYogaNode.setMinWidthPercent(percent);
+    }
   }
 
   @Override
   public void minWidthPx(@Px int minWidth) {
     mPrivateFlags |= PFLAG_MIN_WIDTH_IS_SET;
-    mYogaNode.setMinWidth(minWidth);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.MIN_WIDTH, minWidth);
+    } else {
+      mYogaNode.setMinWidth(minWidth);
+    }
   }
 
   @Override
@@ -1112,6 +1245,8 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
     if (mNestedTreeProps != null && mNestedTreeProps.mIsNestedTreeHolder) {
       getNestedTreePadding().set(edge, percent);
       setIsPaddingPercent(edge, true);
+    } else if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.PADDING_PERCENT, edge, percent);
     } else {
       mYogaNode.setPaddingPercent(edge, percent);
     }
@@ -1123,6 +1258,8 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
     if (mNestedTreeProps != null && mNestedTreeProps.mIsNestedTreeHolder) {
       getNestedTreePadding().set(edge, padding);
       setIsPaddingPercent(edge, false);
+    } else if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.PADDING, edge, padding);
     } else {
       mYogaNode.setPadding(edge, padding);
     }
@@ -1131,19 +1268,31 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
   @Override
   public void positionPercent(YogaEdge edge, float percent) {
     mPrivateFlags |= PFLAG_POSITION_IS_SET;
-    mYogaNode.setPositionPercent(edge, percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.POSITION_PERCENT, edge, percent);
+    } else {
+      mYogaNode.setPositionPercent(edge, percent);
+    }
   }
 
   @Override
   public void positionPx(YogaEdge edge, @Px int position) {
     mPrivateFlags |= PFLAG_POSITION_IS_SET;
-    mYogaNode.setPosition(edge, position);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.POSITION, edge, position);
+    } else {
+      mYogaNode.setPosition(edge, position);
+    }
   }
 
   @Override
   public void positionType(@Nullable YogaPositionType positionType) {
     mPrivateFlags |= PFLAG_POSITION_TYPE_IS_SET;
-    mYogaNode.setPositionType(positionType);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.POSITION_TYPE, positionType.intValue());
+    } else {
+      mYogaNode.setPositionType(positionType);
+    }
   }
 
   /** Continually walks the node hierarchy until a node returns a non inherited layout direction */
@@ -1169,6 +1318,11 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
     return (InternalNode) mYogaNode.removeChildAt(index).getData();
   }
 
+  @Override
+  public void resetBoundsDefined() {
+    mBoundsDefinedFrame = null;
+  }
+
   /** This method marks all resolved layout property values to undefined. */
   @Override
   public void resetResolvedLayoutProperties() {
@@ -1190,7 +1344,27 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
 
       props.mNestedTreeBorderWidth.set(edge, borderWidth);
     } else {
-      mYogaNode.setBorder(edge, borderWidth);
+      setYogaBorder(edge, borderWidth);
+    }
+  }
+
+  @Override
+  public void beginStyleInputsBatch() {
+    if (ComponentsConfiguration.useBatchedYogaStyleInputs && mStyleInputs == null) {
+      mStyleInputs = YogaStyleInputsBuffer.acquire();
+    }
+  }
+
+  @Override
+  public void applyStyleInputsBatch() {
+    final YogaStyleInputsBuffer styleInputs = mStyleInputs;
+    if (styleInputs != null) {
+      mStyleInputs = null;
+      try {
+        styleInputs.applyTo(mYogaNode);
+      } finally {
+        styleInputs.release();
+      }
     }
   }
 
@@ -1346,25 +1520,41 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
 
   @Override
   public InternalNode widthAuto() {
-    mYogaNode.setWidthAuto();
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.WIDTH_AUTO);
+    } else {
+      mYogaNode.setWidthAuto();
+    }
     return this;
   }
 
   @Override
   public void widthPercent(float percent) {
     mPrivateFlags |= PFLAG_WIDTH_IS_SET;
-    mYogaNode.setWidthPercent(percent);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.WIDTH_PERCENT, percent);
+    } else {
+      mYogaNode.setWidthPercent(percent);
+    }
   }
 
   @Override
   public void widthPx(@Px int width) {
     mPrivateFlags |= PFLAG_WIDTH_IS_SET;
-    mYogaNode.setWidth(width);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.WIDTH, width);
+    } else {
+      mYogaNode.setWidth(width);
+    }
   }
 
   @Override
   public InternalNode wrap(YogaWrap wrap) {
-    mYogaNode.setWrap(wrap);
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.FLEX_WRAP, wrap.intValue());
+    } else {
+      mYogaNode.setWrap(wrap);
+    }
     return this;
   }
 
@@ -1705,6 +1895,7 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
     }
 
     copy.resetResolvedLayoutProperties();
+    copy.mBoundsDefinedFrame = null;
 
     return copy;
   }
@@ -1724,7 +1915,26 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
       keys = stateHandler.getKeysForPendingUpdates();
     }
 
-    return reconcile(c, this, next, keys);
+    final boolean shareSubtrees = mCanShareSubtreesOnReconcile;
+    mCanShareSubtreesOnReconcile = false;
+
+    return reconcile(c, this, next, keys, shareSubtrees);
+  }
+
+  /**
+   * Marks this tree as owned by the layout which reconciles against it: nothing else reads it
+   * anymore, so unchanged subtrees can be moved to the new tree instead of being copied.
+   */
+  void setCanShareSubtreesOnReconcile() {
+    mCanShareSubtreesOnReconcile = true;
+  }
+
+  /**
+   * Copies this tree for a new head component which is equivalent to the current one, like the
+   * reconciliation of a subtree without any state updates.
+   */
+  InternalNode copyWithHeadComponent(Component head) {
+    return reconcile(this, head, Collections.<String>emptySet(), ReconciliationMode.COPY, false);
   }
 
   void setComponentContext(ComponentContext c) {
@@ -1740,6 +1950,28 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
     }
   }
 
+  /**
+   * Returns the values onBoundsDefined can read from this node through {@link ComponentLayout},
+   * and its borders. The background and whether padding is set are props of the node.
+   */
+  private int[] getBoundsDefinedFrame() {
+    return new int[] {
+      getX(),
+      getY(),
+      getWidth(),
+      getHeight(),
+      getPaddingLeft(),
+      getPaddingTop(),
+      getPaddingRight(),
+      getPaddingBottom(),
+      getLayoutBorder(LEFT),
+      getLayoutBorder(TOP),
+      getLayoutBorder(RIGHT),
+      getLayoutBorder(BOTTOM),
+      getResolvedLayoutDirection().ordinal()
+    };
+  }
+
   private boolean isPaddingPercent(YogaEdge edge) {
     return mIsPaddingPercent != null && mIsPaddingPercent[edge.intValue()];
   }
@@ -1801,6 +2033,14 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
     }
   }
 
+  private void setYogaBorder(YogaEdge edge, float width) {
+    if (mStyleInputs != null) {
+      mStyleInputs.add(YogaStyleInputs.BORDER, edge, width);
+    } else {
+      mYogaNode.setBorder(edge, width);
+    }
+  }
+
   private void setPaddingFromBackground(Drawable drawable) {
     if (drawable != null) {
       final Rect backgroundPadding = new Rect();
@@ -1826,6 +2066,7 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
     mComponents = new ArrayList<>();
     mDiffNode = null;
     mDebugComponents = null;
+    mBoundsDefinedFrame = null;
 
     // 2. reset resolved layout properties.
     resetResolvedLayoutProperties();
@@ -2019,26 +2260,34 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
    * @param current The current InternalNode which should be updated.
    * @param next The updated component to be used to reconcile this InternalNode.
    * @param keys The keys of mutated components.
+   * @param shareSubtrees Whether unchanged subtrees can be moved to the new tree.
    * @return A new updated InternalNode.
    */
   private static InternalNode reconcile(
       final ComponentContext parentContext,
       final DefaultInternalNode current,
       final Component next,
-      final Set<String> keys) {
+      final Set<String> keys,
+      final boolean shareSubtrees) {
     int mode = getReconciliationMode(next.getScopedContext(), current, keys);
     final InternalNode layout;
 
+    // When sharing, unchanged children are moved by their parent before getting here, so this
+    // is only reached for the root: it still needs a copy to hold the new root component.
+    if (shareSubtrees && mode == ReconciliationMode.COPY) {
+      mode = ReconciliationMode.RECONCILE;
+    }
+
     switch (mode) {
       case ReconciliationMode.COPY:
         if (ComponentsConfiguration.shouldUseDeepCloneDuringReconciliation) {
           layout = current.deepClone();
         } else {
-          layout = reconcile(current, next, keys, ReconciliationMode.COPY);
+          layout = reconcile(current, next, keys, ReconciliationMode.COPY, false);
         }
         break;
       case ReconciliationMode.RECONCILE:
-        layout = reconcile(current, next, keys, ReconciliationMode.RECONCILE);
+        layout = reconcile(current, next, keys, ReconciliationMode.RECONCILE, shareSubtrees);
         break;
       case ReconciliationMode.RECREATE:
         layout = Layout.create(parentContext, next, false, true);
@@ -2058,13 +2307,15 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
    * @param next The updated component to be used to reconcile this InternalNode.
    * @param keys The keys of mutated components.
    * @param mode {@link ReconciliationMode#RECONCILE} or {@link ReconciliationMode#COPY}.
+   * @param shareSubtrees Whether unchanged subtrees can be moved to the new tree.
    * @return A new updated InternalNode.
    */
   private static InternalNode reconcile(
       final DefaultInternalNode current,
       final Component next,
       final Set<String> keys,
-      final @ReconciliationMode int mode) {
+      final @ReconciliationMode int mode,
+      final boolean shareSubtrees) {
 
     final boolean isTracing = ComponentsSystrace.isTracing();
     if (isTracing) {
@@ -2097,7 +2348,10 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
     // 4. Iterate over children.
     int count = currentNode.getChildCount();
     for (int i = 0; i < count; i++) {
-      final DefaultInternalNode child = (DefaultInternalNode) currentNode.getChildAt(i).getData();
+      // When sharing, children are detached from the current tree so they can be re-parented.
+      final DefaultInternalNode child =
+          (DefaultInternalNode)
+              (shareSubtrees ? currentNode.removeChildAt(0) : currentNode.getChildAt(i)).getData();
 
       // 4.1 Get the head component of the child layout.
       List<Component> components = child.getComponents();
@@ -2109,9 +2363,12 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
       // 4.3 Reconcile child layout.
       final InternalNode copy;
       if (mode == ReconciliationMode.COPY) {
-        copy = reconcile(child, updated, keys, ReconciliationMode.COPY);
+        copy = reconcile(child, updated, keys, ReconciliationMode.COPY, false);
+      } else if (shareSubtrees
+          && getReconciliationMode(parentContext, child, keys) == ReconciliationMode.COPY) {
+        copy = moveSubtree(child, updated);
       } else {
-        copy = reconcile(parentContext, child, updated, keys);
+        copy = reconcile(parentContext, child, updated, keys, shareSubtrees);
       }
 
       // 4.3 Add the child to the cloned yoga node
@@ -2125,6 +2382,45 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
     return layout;
   }
 
+  /**
+   * Moves an unchanged subtree of the current tree to the new tree. Its YogaNodes are kept, so Yoga
+   * can reuse their cached layout. The InternalNodes are still copied with updated shallow copies
+   * of their components, like in {@link ReconciliationMode#COPY}, because the components of the
+   * current tree hold the outputs of the mounted layout.
+   *
+   * @param current The InternalNode of the current tree, already detached from its parent.
+   * @param next The updated head component of the InternalNode.
+   * @return A copy of the InternalNode which owns its YogaNode.
+   */
+  private static DefaultInternalNode moveSubtree(
+      final DefaultInternalNode current, final Component next) {
+    final YogaNode node = current.getYogaNode();
+    final DefaultInternalNode layout = getCleanUpdatedShallowCopy(current, next, node);
+    final ComponentContext parentContext = layout.getTailComponent().getScopedContext();
+
+    // The updated copies of the components hold the outputs of the current ones, so the last
+    // onBoundsDefined call still holds if the layout of the node doesn't change.
+    layout.mBoundsDefinedFrame = current.mBoundsDefinedFrame;
+
+    // Nested trees are resolved again, like for copied nodes.
+    if (layout.getNestedTree() != null) {
+      layout.getOrCreateNestedTreeProps().mNestedTree = null;
+      if (node.isMeasureDefined()) {
+        node.dirty();
+      }
+    }
+
+    // The children stay attached to the YogaNode, only their InternalNodes are replaced.
+    for (int i = 0, count = node.getChildCount(); i < count; i++) {
+      final DefaultInternalNode child = (DefaultInternalNode) node.getChildAt(i).getData();
+      final List<Component> components = child.getComponents();
+      final Component component = components.get(Math.max(0, components.size() - 1));
+      moveSubtree(child, component.makeUpdatedShallowCopy(parentContext));
+    }
+
+    return layout;
+  }
+
   /**
    * Convenience method to create a shallow copy of the InternalNode, set a new YogaNode, update all
    * components and ComponentContext, release all the unnecessary properties from the new
@@ -2193,9 +2489,20 @@ public class DefaultInternalNode extends Node implements InternalNode, Cloneable
     }
 
     // 2.0 Check if any descendants have mutations
-    for (String key : keys) {
-      if (key.startsWith(root.getGlobalKey())) {
-        return ReconciliationMode.RECONCILE;
+    final String rootKey = root.getGlobalKey();
+    final ComponentTree componentTree = c.getComponentTree();
+    if (ComponentsConfiguration.useHashedGlobalKeys && componentTree != null) {
+      final HashedGlobalKeyRegistry registry = componentTree.getHashedGlobalKeyRegistry();
+      for (String key : keys) {
+        if (registry.isSameOrDescendant(key, rootKey)) {
+          return ReconciliationMode.RECONCILE;
+        }
+      }
+    } else {
+      for (String key : keys) {
+        if (key.startsWith(rootKey)) {
+          return ReconciliationMode.RECONCILE;
+        }
       }
     }
 
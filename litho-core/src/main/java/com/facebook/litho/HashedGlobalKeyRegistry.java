@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers what each hashed global key of a {@link ComponentTree} was generated from when {@link
+ * com.facebook.litho.config.ComponentsConfiguration#useHashedGlobalKeys} is enabled. This keeps the
+ * link from a key to its parent key, which is needed to detect hash collisions, to tell whether a
+ * component is a descendant of another one, and to rebuild the readable key for debugging.
+ *
+ * <p>Keys which aren't used anymore are dropped when a layout is committed, see {@link
+ * #prune(int, Set)}.
+ */
+class HashedGlobalKeyRegistry {
+
+  private static final String HASH_COLLISION = "HashedGlobalKeyRegistry:HashCollision";
+
+  private final ConcurrentHashMap<String, Entry> mEntries = new ConcurrentHashMap<>();
+
+  /**
+   * Registers the global key of a child component.
+   *
+   * @param childKey the key returned by {@link ComponentKeyUtils#getGlobalKeyForChild(String,
+   *     String)} for the parent global key and the key
+   * @param parentGlobalKey the global key of the parent component
+   * @param key the key of the child component
+   * @param index the position of the child among the siblings with the same child key
+   * @param layoutVersion the version of the layout which generates the key
+   * @return the global key to use for the child, which is only ever returned for the same parent
+   *     global key, key and index.
+   */
+  String registerGlobalKeyForChild(
+      String childKey, String parentGlobalKey, String key, int index, int layoutVersion) {
+    final String globalKey = ComponentKeyUtils.getGlobalKeyForChildPosition(childKey, index);
+    String candidate = globalKey;
+    int attempt = 0;
+
+    while (true) {
+      Entry entry = mEntries.get(candidate);
+      if (entry == null) {
+        final Entry created = new Entry(parentGlobalKey, key, index);
+        entry = mEntries.putIfAbsent(candidate, created);
+        if (entry == null) {
+          entry = created;
+        }
+      }
+
+      if (entry.matches(parentGlobalKey, key, index)) {
+        if (entry.mLayoutVersion < layoutVersion) {
+          entry.mLayoutVersion = layoutVersion;
+        }
+        return candidate;
+      }
+
+      if (attempt == 0) {
+        ComponentsReporter.emitMessage(
+            ComponentsReporter.LogLevel.WARNING,
+            HASH_COLLISION,
+            "The hashed global key of "
+                + toReadableKey(parentGlobalKey)
+                + ","
+                + key
+                + " collides with the one of "
+                + toReadableKey(globalKey)
+                + ", a different key will be used.");
+      }
+
+      candidate = ComponentKeyUtils.rehashGlobalKey(globalKey, ++attempt);
+    }
+  }
+
+  /**
+   * @return the global key registered for the first child with the given key, the one a child with
+   *     a manual key gets, or the key it would get if no such child was registered yet.
+   */
+  String getGlobalKeyForChild(String parentGlobalKey, String key) {
+    final String globalKey = ComponentKeyUtils.getGlobalKeyForChild(parentGlobalKey, key);
+    String candidate = globalKey;
+    int attempt = 0;
+
+    while (true) {
+      final Entry existing = mEntries.get(candidate);
+      if (existing == null || existing.matches(parentGlobalKey, key, 0)) {
+        return candidate;
+      }
+
+      candidate = ComponentKeyUtils.rehashGlobalKey(globalKey, ++attempt);
+    }
+  }
+
+  /**
+   * Drops the keys which only layouts older than the committed one used, so that the registry
+   * doesn't grow with every component the tree ever rendered. Keys of newer layouts which are still
+   * being calculated are kept.
+   *
+   * @param layoutVersion the version of the committed layout
+   * @param globalKeys the global keys of the components of the committed layout
+   */
+  void prune(int layoutVersion, Set<String> globalKeys) {
+    final Iterator<Map.Entry<String, Entry>> iterator = mEntries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<String, Entry> entry = iterator.next();
+      if (entry.getValue().mLayoutVersion < layoutVersion
+          && !globalKeys.contains(entry.getKey())) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * @return true if the component with the given key is the same as or a descendant of the one with
+   *     the ancestor key. If the chain of parents can't be followed up to a key which isn't hashed
+   *     this conservatively returns true.
+   */
+  boolean isSameOrDescendant(String globalKey, String ancestorGlobalKey) {
+    String current = globalKey;
+    while (true) {
+      if (current.equals(ancestorGlobalKey)) {
+        return true;
+      }
+
+      if (!ComponentKeyUtils.isHashedGlobalKey(current)) {
+        return current.startsWith(ancestorGlobalKey);
+      }
+
+      final Entry entry = mEntries.get(current);
+      if (entry == null) {
+        return true;
+      }
+
+      current = entry.mParentGlobalKey;
+    }
+  }
+
+  /** @return the key that would have been generated without hashing, for debugging. */
+  String toReadableKey(String globalKey) {
+    if (!ComponentKeyUtils.isHashedGlobalKey(globalKey)) {
+      return globalKey;
+    }
+
+    final Entry entry = mEntries.get(globalKey);
+    if (entry == null) {
+      return globalKey;
+    }
+
+    return ComponentKeyUtils.getKeyForChildPosition(
+        ComponentKeyUtils.getKeyWithSeparator(toReadableKey(entry.mParentGlobalKey), entry.mKey),
+        entry.mIndex);
+  }
+
+  int size() {
+    return mEntries.size();
+  }
+
+  private static final class Entry {
+    final String mParentGlobalKey;
+    final String mKey;
+    final int mIndex;
+
+    /** The version of the most recent layout which generated this key. */
+    volatile int mLayoutVersion = -1;
+
+    Entry(String parentGlobalKey, String key, int index) {
+      mParentGlobalKey = parentGlobalKey;
+      mKey = key;
+      mIndex = index;
+    }
+
+    boolean matches(String parentGlobalKey, String key, int index) {
+      return mIndex == index && mParentGlobalKey.equals(parentGlobalKey) && mKey.equals(key);
+    }
+  }
+}
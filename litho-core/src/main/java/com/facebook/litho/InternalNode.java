@@ -70,6 +70,16 @@ public interface InternalNode
 
   void border(Edges width, int[] colors, float[] radii);
 
+  /**
+   * Starts collecting the Yoga style changes made to this node so they can be applied with a single
+   * call to {@link #applyStyleInputsBatch()}. This is a no-op unless {@link
+   * com.facebook.litho.config.ComponentsConfiguration#useBatchedYogaStyleInputs} is enabled.
+   */
+  void beginStyleInputsBatch();
+
+  /** Applies the style changes collected since {@link #beginStyleInputsBatch()} to Yoga. */
+  void applyStyleInputsBatch();
+
   void calculateLayout(float width, float height);
 
   void calculateLayout();
@@ -304,6 +314,12 @@ public interface InternalNode
 
   InternalNode invisibleHandler(@Nullable EventHandler<InvisibleEvent> invisibleHandler);
 
+  /**
+   * @return Whether onBoundsDefined already ran on the tail component of this node with its current
+   *     layout, see {@link #markBoundsDefined()}.
+   */
+  boolean isBoundsDefinedUpToDate();
+
   boolean isDuplicateParentStateEnabled();
 
   boolean isForceViewWrapping();
@@ -329,6 +345,9 @@ public interface InternalNode
   /** Mark this node as a nested tree root holder. */
   void markIsNestedTreeHolder(@Nullable TreeProps currentTreeProps);
 
+  /** Records that onBoundsDefined ran on the tail component with the current layout. */
+  void markBoundsDefined();
+
   void markLayoutSeen();
 
   /** Continually walks the node hierarchy until a node returns a non inherited layout direction */
@@ -338,6 +357,9 @@ public interface InternalNode
 
   InternalNode removeChildAt(int index);
 
+  /** Forgets the last onBoundsDefined call, because the outputs it read may have changed. */
+  void resetBoundsDefined();
+
   /** This method marks all resolved layout property values to undefined. */
   void resetResolvedLayoutProperties();
 
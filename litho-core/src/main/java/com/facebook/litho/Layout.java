@@ -32,6 +32,7 @@ import android.view.View;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.stats.PhaseMetrics;
 import com.facebook.yoga.YogaConstants;
 import com.facebook.yoga.YogaDirection;
 import com.facebook.yoga.YogaFlexDirection;
@@ -71,12 +72,19 @@ class Layout {
     c.setWidthSpec(widthSpec);
     c.setHeightSpec(heightSpec);
 
+    final PhaseMetrics phaseMetrics = c.getPhaseMetrics();
+    final long resolveStartTimeNanos = PhaseMetrics.currentTimeNanos();
+    final long resolveStartAllocationCount = PhaseMetrics.currentAllocationCount();
+
     final InternalNode layout;
     if (current == null) {
       layout = create(c, component, true);
 
       // This needs to finish layout on the UI thread.
       if (c.wasLayoutInterrupted()) {
+        phaseMetrics.record(
+            PhaseMetrics.PHASE_RESOLVE, resolveStartTimeNanos, resolveStartAllocationCount);
+
         if (layoutStatePerfEvent != null) {
           layoutStatePerfEvent.markerPoint(EVENT_END_CREATE_LAYOUT);
         }
@@ -92,6 +100,9 @@ class Layout {
       layout = current.reconcile(c, updated);
     }
 
+    phaseMetrics.record(
+        PhaseMetrics.PHASE_RESOLVE, resolveStartTimeNanos, resolveStartAllocationCount);
+
     if (layoutStatePerfEvent != null) {
       final String event = current == null ? EVENT_END_CREATE_LAYOUT : EVENT_END_RECONCILE;
       layoutStatePerfEvent.markerPoint(event);
@@ -101,7 +112,7 @@ class Layout {
       layoutStatePerfEvent.markerPoint("start_measure");
     }
 
-    measure(c, layout, widthSpec, heightSpec, diff);
+    measureAndRecord(c, layout, widthSpec, heightSpec, diff);
 
     if (layoutStatePerfEvent != null) {
       layoutStatePerfEvent.markerPoint("end_measure");
@@ -149,6 +160,15 @@ class Layout {
       // 5. Get the scoped context of the updated component.
       c = component.getScopedContext();
 
+      // 5.1 Reuse the previous layout of the component if it did not change.
+      final LayoutState layoutState = c.getLayoutState();
+      if (layoutState != null && layoutState.mReusableNodes != null) {
+        final InternalNode reused = layoutState.mReusableNodes.reuse(component);
+        if (reused != null) {
+          return reused;
+        }
+      }
+
       // 6. Resolve the component into an InternalNode tree.
 
       final boolean shouldDeferNestedTreeResolution =
@@ -437,6 +457,20 @@ class Layout {
     }
   }
 
+  private static void measureAndRecord(
+      final ComponentContext c,
+      final InternalNode root,
+      final int widthSpec,
+      final int heightSpec,
+      final @Nullable DiffNode diff) {
+    final long startTimeNanos = PhaseMetrics.currentTimeNanos();
+    final long startAllocationCount = PhaseMetrics.currentAllocationCount();
+
+    measure(c, root, widthSpec, heightSpec, diff);
+
+    c.getPhaseMetrics().record(PhaseMetrics.PHASE_MEASURE, startTimeNanos, startAllocationCount);
+  }
+
   static void resumeCreateAndMeasureComponent(
       final ComponentContext c,
       final InternalNode root,
@@ -455,7 +489,7 @@ class Layout {
       logLayoutState.markerPoint("start_measure");
     }
 
-    measure(c, root, widthSpec, heightSpec, diff);
+    measureAndRecord(c, root, widthSpec, heightSpec, diff);
 
     if (logLayoutState != null) {
       logLayoutState.markerPoint("end_measure");
@@ -62,6 +62,7 @@ import com.facebook.litho.annotations.ImportantForAccessibility;
 import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.drawable.BorderColorDrawable;
 import com.facebook.litho.stats.LithoStats;
+import com.facebook.litho.stats.PhaseMetrics;
 import com.facebook.rendercore.RenderTree;
 import com.facebook.rendercore.RenderTreeNode;
 import com.facebook.yoga.YogaDirection;
@@ -275,6 +276,8 @@ public class LayoutState
   // Id of the layout state (if any) that was used in comparisons with this layout state.
   private int mPreviousLayoutStateId = NO_PREVIOUS_LAYOUT_STATE_ID;
   private boolean mIsCreateLayoutInProgress;
+  @Nullable ReusableNodeIndex mReusableNodes;
+  private int mReusedNodeCount;
 
   private AccessibilityManager mAccessibilityManager;
   private boolean mAccessibilityEnabled = false;
@@ -900,13 +903,20 @@ public class LayoutState
 
     // 3. Now add the MountSpec (either View or Drawable) to the Outputs.
     if (isMountSpec(component)) {
-      // Notify component about its final size.
-      if (isTracing) {
-        ComponentsSystrace.beginSection("onBoundsDefined:" + node.getSimpleName());
-      }
-      component.onBoundsDefined(component.getScopedContext(), node);
-      if (isTracing) {
-        ComponentsSystrace.endSection();
+      // Notify component about its final size, unless the node was moved from the previous layout
+      // with the outputs of a call for the same layout.
+      if (!ComponentsConfiguration.skipBoundsDefinedForUnchangedNodes
+          || !node.isBoundsDefinedUpToDate()) {
+        if (isTracing) {
+          ComponentsSystrace.beginSection("onBoundsDefined:" + node.getSimpleName());
+        }
+        component.onBoundsDefined(component.getScopedContext(), node);
+        if (ComponentsConfiguration.skipBoundsDefinedForUnchangedNodes) {
+          node.markBoundsDefined();
+        }
+        if (isTracing) {
+          ComponentsSystrace.endSection();
+        }
       }
 
       addMountableOutput(layoutState, layoutOutput, parent);
@@ -1482,11 +1492,26 @@ public class LayoutState
 
       final boolean isReconcilable = isReconcilable(c, component, currentLayoutState);
 
+      // Index the current InternalNode tree to reuse the unchanged subtrees of a new root.
+      if (!isReconcilable && canReuseNodesForNewRoot(c, component, currentLayoutState)) {
+        layoutState.mReusableNodes =
+            ReusableNodeIndex.create(c, currentLayoutState.takeLayoutRoot());
+      }
+
       // Release the current InternalNode tree if it is not reconcilable.
       if (!isReconcilable && currentLayoutState != null) {
         currentLayoutState.mLayoutRoot = null;
       }
 
+      final InternalNode currentRoot;
+      if (!isReconcilable) {
+        currentRoot = null;
+      } else if (canShareSubtreesOnReconcile()) {
+        currentRoot = currentLayoutState.takeLayoutRootForReconciliation();
+      } else {
+        currentRoot = currentLayoutState.mLayoutRoot;
+      }
+
       final InternalNode root =
           layoutCreatedInWillRender == null
               ? Layout.createAndMeasureComponent(
@@ -1494,10 +1519,16 @@ public class LayoutState
                   component,
                   widthSpec,
                   heightSpec,
-                  isReconcilable ? currentLayoutState.mLayoutRoot : null,
+                  currentRoot,
                   diffTreeRoot,
                   logLayoutState)
               : layoutCreatedInWillRender;
+
+      if (layoutState.mReusableNodes != null) {
+        layoutState.mReusedNodeCount = layoutState.mReusableNodes.getReusedCount();
+        layoutState.mReusableNodes = null;
+      }
+
       // Null check for tests.
       if (root.getContext() != null) {
         root.getContext().setLayoutStateContext(layoutStateContext);
@@ -1679,6 +1710,9 @@ public class LayoutState
       return;
     }
 
+    final long collectResultsStartTimeNanos = PhaseMetrics.currentTimeNanos();
+    final long collectResultsStartAllocationCount = PhaseMetrics.currentAllocationCount();
+
     if (isTracing) {
       ComponentsSystrace.beginSection("collectResults");
     }
@@ -1702,6 +1736,12 @@ public class LayoutState
       ComponentsSystrace.endSection();
     }
 
+    c.getPhaseMetrics()
+        .record(
+            PhaseMetrics.PHASE_COLLECT_RESULTS,
+            collectResultsStartTimeNanos,
+            collectResultsStartAllocationCount);
+
     if (!c.isReconciliationEnabled()
         && !ComponentsConfiguration.useInternalNodesForLayoutDiffing
         && !ComponentsConfiguration.isDebugModeEnabled
@@ -1710,6 +1750,27 @@ public class LayoutState
     }
   }
 
+  /**
+   * Returns whether a reconciling layout can take the InternalNode tree of the current layout and
+   * move its YogaNodes. Debugging tools and end to end tests read that tree, so they keep it.
+   */
+  private static boolean canShareSubtreesOnReconcile() {
+    return ComponentsConfiguration.useStructuralSharingDuringReconciliation
+        && !ComponentsConfiguration.isDebugModeEnabled
+        && !ComponentsConfiguration.isEndToEndTestRun;
+  }
+
+  private static boolean canReuseNodesForNewRoot(
+      final ComponentContext c,
+      final Component nextRootComponent,
+      final @Nullable LayoutState currentLayoutState) {
+    return ComponentsConfiguration.usePropChangeReconciliation
+        && currentLayoutState != null
+        && currentLayoutState.mLayoutRoot != null
+        && c.isReconciliationEnabled()
+        && ComponentUtils.isSameComponentType(currentLayoutState.mComponent, nextRootComponent);
+  }
+
   private static boolean isReconcilable(
       final ComponentContext c,
       final Component nextRootComponent,
@@ -1882,7 +1943,7 @@ public class LayoutState
     }
 
     final String childKey =
-        ComponentKeyUtils.getKeyWithSeparator(parentGlobalKey, component.getKey());
+        ComponentKeyUtils.getGlobalKeyForChild(parentGlobalKey, component.getKey());
 
     if (component.hasManualKey()) {
       final int manualKeyIndex = layoutState.getGlobalManualKeyCountAndIncrement(childKey);
@@ -1897,11 +1958,13 @@ public class LayoutState
                 + " is a duplicate and will be changed into a unique one. "
                 + "This will result in unexpected behavior if you don't change it.");
       }
-      return ComponentKeyUtils.getKeyForChildPosition(childKey, manualKeyIndex);
+      return ComponentKeyUtils.getGlobalKeyForChildPosition(
+          layoutState.mContext, childKey, parentGlobalKey, component.getKey(), manualKeyIndex);
     }
 
     final int childIndex = layoutState.getGlobalKeyCountAndIncrement(childKey);
-    return ComponentKeyUtils.getKeyForChildPosition(childKey, childIndex);
+    return ComponentKeyUtils.getGlobalKeyForChildPosition(
+        layoutState.mContext, childKey, parentGlobalKey, component.getKey(), childIndex);
   }
 
   @Nullable
@@ -2023,6 +2086,14 @@ public class LayoutState
     return mHeight;
   }
 
+  int getWidthSpec() {
+    return mWidthSpec;
+  }
+
+  int getHeightSpec() {
+    return mHeightSpec;
+  }
+
   /** @return The id of the {@link ComponentTree} that generated this {@link LayoutState} */
   int getComponentTreeId() {
     return mComponentTreeId;
@@ -2052,6 +2123,37 @@ public class LayoutState
     return stateHandler;
   }
 
+  /**
+   * Hands the InternalNode tree of this LayoutState over to a new layout. Returns null if another
+   * layout already took it, in which case the new layout is created from scratch.
+   */
+  synchronized @Nullable InternalNode takeLayoutRoot() {
+    final InternalNode root = mLayoutRoot;
+    mLayoutRoot = null;
+
+    return root;
+  }
+
+  /**
+   * Hands the InternalNode tree of this LayoutState over to a new layout which reconciles against
+   * it, so that unchanged subtrees can be moved to the new tree instead of being copied.
+   */
+  @Nullable
+  InternalNode takeLayoutRootForReconciliation() {
+    final InternalNode root = takeLayoutRoot();
+    if (root instanceof DefaultInternalNode) {
+      ((DefaultInternalNode) root).setCanShareSubtreesOnReconcile();
+    }
+
+    return root;
+  }
+
+  /** @return the number of subtrees of the previous layout which were reused by this layout. */
+  @VisibleForTesting
+  int getReusedNodeCount() {
+    return mReusedNodeCount;
+  }
+
   @VisibleForTesting(otherwise = VisibleForTesting.PACKAGE_PRIVATE)
   public InternalNode getLayoutRoot() {
     return mLayoutRoot;
@@ -180,7 +180,8 @@ public class LithoTooltipController {
       anchorGlobalKey = rootComponent.getGlobalKey();
     } else {
       anchorGlobalKey =
-          ComponentKeyUtils.getKeyWithSeparator(rootComponent.getGlobalKey(), anchorKey);
+          ComponentKeyUtils.getGlobalKeyForChild(
+              componentTree, rootComponent.getGlobalKey(), anchorKey);
     }
 
     componentTree.showTooltip(lithoTooltip, anchorGlobalKey, xOffset, yOffset);
@@ -267,7 +268,8 @@ public class LithoTooltipController {
     final String anchorGlobalKey =
         rootComponent == null
             ? anchorKey
-            : ComponentKeyUtils.getKeyWithSeparator(rootComponent.getGlobalKey(), anchorKey);
+            : ComponentKeyUtils.getGlobalKeyForChild(
+                componentTree, rootComponent.getGlobalKey(), anchorKey);
 
     componentTree.showTooltip(tooltip, anchorGlobalKey, tooltipPosition, xOffset, yOffset);
   }
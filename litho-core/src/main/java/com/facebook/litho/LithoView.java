@@ -1021,6 +1021,30 @@ public class LithoView extends Host {
     }
   }
 
+  /**
+   * Called during the incremental mount of the LithoView which hosts this one, with the visible
+   * rect of this view computed from the visible rect of the host, so that it doesn't need to be
+   * looked up by walking up the view hierarchy. Nothing is mounted if it didn't change since the
+   * last mount.
+   */
+  void notifyVisibleBoundsChangedFromHost(Rect visibleRect) {
+    if (mComponentTree == null || mComponentTree.getMainThreadLayoutState() == null) {
+      return;
+    }
+
+    if (!mComponentTree.isIncrementalMountEnabled()) {
+      notifyVisibleBoundsChanged();
+      return;
+    }
+
+    if (!isMountStateDirty() && visibleRect.equals(mPreviousMountVisibleRectBounds)) {
+      return;
+    }
+
+    mPreviousMountVisibleRectBounds.set(visibleRect);
+    mComponentTree.incrementalMountComponentWithVisibleRect(visibleRect);
+  }
+
   public boolean isIncrementalMountEnabled() {
     return (mComponentTree != null && mComponentTree.isIncrementalMountEnabled());
   }
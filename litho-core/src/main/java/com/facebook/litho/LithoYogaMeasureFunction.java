@@ -65,6 +65,9 @@ public class LithoYogaMeasureFunction implements YogaMeasureFunction {
     node.setLastWidthSpec(widthSpec);
     node.setLastHeightSpec(heightSpec);
 
+    // The outputs of measuring the node are set again, onBoundsDefined has to read them.
+    node.resetBoundsDefined();
+
     int outputWidth = 0;
     int outputHeight = 0;
 
@@ -17,33 +17,270 @@
 package com.facebook.litho;
 
 import android.content.res.Configuration;
-import androidx.collection.LruCache;
+import androidx.annotation.VisibleForTesting;
 import javax.annotation.Nullable;
 
+/**
+ * A {@link ResourceCache} which keeps the most recently used resources up to a total weight, where
+ * strings and arrays weigh their length and any other value weighs 1.
+ *
+ * <p>It is consulted by every layout thread that resolves resource props, so entries are spread
+ * over independently locked stripes by resource id instead of sharing one lock, and keys are stored
+ * as primitive ints. Each stripe evicts its own least recently used entries once it goes over its
+ * share of the total weight. Values heavier than a stripe are not cached, so by default a stripe
+ * holds {@link #DEFAULT_STRIPE_MAX_WEIGHT}: strings of up to 512 characters are still cached, no
+ * less than the 500 the unstriped cache allowed.
+ */
 class LruResourceCache extends ResourceCache {
-  private final LruCache<Integer, Object> mCache =
-      new LruCache<Integer, Object>(500) {
-        @Override
-        protected int sizeOf(Integer key, Object value) {
-          if (value instanceof String) {
-            return ((String) value).length();
-          }
-          return 1;
-        }
-      };
+
+  private static final int STRIPE_COUNT = 8;
+  @VisibleForTesting static final int DEFAULT_STRIPE_MAX_WEIGHT = 512;
+  @VisibleForTesting static final int DEFAULT_MAX_WEIGHT = STRIPE_COUNT * DEFAULT_STRIPE_MAX_WEIGHT;
+
+  private final Stripe[] mStripes = new Stripe[STRIPE_COUNT];
 
   LruResourceCache(Configuration configuration) {
+    this(configuration, DEFAULT_MAX_WEIGHT);
+  }
+
+  @VisibleForTesting
+  LruResourceCache(Configuration configuration, int maxWeight) {
     super(configuration);
+    final int stripeMaxWeight = Math.max(1, maxWeight / STRIPE_COUNT);
+    for (int i = 0; i < STRIPE_COUNT; i++) {
+      mStripes[i] = new Stripe(stripeMaxWeight);
+    }
   }
 
   @Override
   @Nullable
   <T> T get(int key) {
-    return (T) mCache.get(key);
+    return (T) stripeFor(key).get(key);
   }
 
   @Override
   void put(int key, Object object) {
-    mCache.put(key, object);
+    stripeFor(key).put(key, object, weightOf(object));
+  }
+
+  int hitCount() {
+    int count = 0;
+    for (Stripe stripe : mStripes) {
+      synchronized (stripe) {
+        count += stripe.mHitCount;
+      }
+    }
+    return count;
+  }
+
+  int missCount() {
+    int count = 0;
+    for (Stripe stripe : mStripes) {
+      synchronized (stripe) {
+        count += stripe.mMissCount;
+      }
+    }
+    return count;
+  }
+
+  int evictionCount() {
+    int count = 0;
+    for (Stripe stripe : mStripes) {
+      synchronized (stripe) {
+        count += stripe.mEvictionCount;
+      }
+    }
+    return count;
+  }
+
+  int weight() {
+    int weight = 0;
+    for (Stripe stripe : mStripes) {
+      synchronized (stripe) {
+        weight += stripe.mWeight;
+      }
+    }
+    return weight;
+  }
+
+  private Stripe stripeFor(int key) {
+    // Resource ids of a package only differ in their lower bits, so mix them before picking.
+    final int hash = key ^ (key >>> 16);
+    return mStripes[(hash ^ (hash >>> 8)) & (STRIPE_COUNT - 1)];
+  }
+
+  private static int weightOf(Object value) {
+    if (value instanceof String) {
+      return Math.max(1, ((String) value).length());
+    } else if (value instanceof Object[]) {
+      return Math.max(1, ((Object[]) value).length);
+    } else if (value instanceof int[]) {
+      return Math.max(1, ((int[]) value).length);
+    }
+    return 1;
+  }
+
+  /** An int keyed hash table with its entries linked from the most to the least recently used. */
+  private static final class Stripe {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int mMaxWeight;
+    private Entry[] mTable = new Entry[INITIAL_CAPACITY];
+    private int mSize;
+    private int mWeight;
+    private @Nullable Entry mHead;
+    private @Nullable Entry mTail;
+
+    private int mHitCount;
+    private int mMissCount;
+    private int mEvictionCount;
+
+    Stripe(int maxWeight) {
+      mMaxWeight = maxWeight;
+    }
+
+    synchronized @Nullable Object get(int key) {
+      final Entry entry = find(key);
+      if (entry == null) {
+        mMissCount++;
+        return null;
+      }
+
+      mHitCount++;
+      moveToHead(entry);
+      return entry.mValue;
+    }
+
+    synchronized void put(int key, Object value, int weight) {
+      // Values heavier than the whole stripe would evict everything and then themselves.
+      if (weight > mMaxWeight) {
+        remove(key);
+        return;
+      }
+
+      Entry entry = find(key);
+      if (entry != null) {
+        mWeight += weight - entry.mWeight;
+        entry.mValue = value;
+        entry.mWeight = weight;
+        moveToHead(entry);
+      } else {
+        if (mSize >= mTable.length * 3 / 4) {
+          resize();
+        }
+
+        entry = new Entry(key, value, weight);
+        final int index = indexFor(key, mTable.length);
+        entry.mNextInBucket = mTable[index];
+        mTable[index] = entry;
+        mSize++;
+        mWeight += weight;
+        linkAtHead(entry);
+      }
+
+      while (mWeight > mMaxWeight && mTail != null && mTail != entry) {
+        remove(mTail.mKey);
+        mEvictionCount++;
+      }
+    }
+
+    private @Nullable Entry find(int key) {
+      for (Entry entry = mTable[indexFor(key, mTable.length)];
+          entry != null;
+          entry = entry.mNextInBucket) {
+        if (entry.mKey == key) {
+          return entry;
+        }
+      }
+      return null;
+    }
+
+    private void remove(int key) {
+      final int index = indexFor(key, mTable.length);
+      Entry previous = null;
+      for (Entry entry = mTable[index]; entry != null; entry = entry.mNextInBucket) {
+        if (entry.mKey == key) {
+          if (previous == null) {
+            mTable[index] = entry.mNextInBucket;
+          } else {
+            previous.mNextInBucket = entry.mNextInBucket;
+          }
+          unlink(entry);
+          mSize--;
+          mWeight -= entry.mWeight;
+          return;
+        }
+        previous = entry;
+      }
+    }
+
+    private void resize() {
+      final Entry[] table = new Entry[mTable.length * 2];
+      for (Entry head : mTable) {
+        Entry entry = head;
+        while (entry != null) {
+          final Entry next = entry.mNextInBucket;
+          final int index = indexFor(entry.mKey, table.length);
+          entry.mNextInBucket = table[index];
+          table[index] = entry;
+          entry = next;
+        }
+      }
+      mTable = table;
+    }
+
+    private void moveToHead(Entry entry) {
+      if (mHead != entry) {
+        unlink(entry);
+        linkAtHead(entry);
+      }
+    }
+
+    private void linkAtHead(Entry entry) {
+      entry.mPrevious = null;
+      entry.mNext = mHead;
+      if (mHead != null) {
+        mHead.mPrevious = entry;
+      }
+      mHead = entry;
+      if (mTail == null) {
+        mTail = entry;
+      }
+    }
+
+    private void unlink(Entry entry) {
+      if (entry.mPrevious != null) {
+        entry.mPrevious.mNext = entry.mNext;
+      } else {
+        mHead = entry.mNext;
+      }
+      if (entry.mNext != null) {
+        entry.mNext.mPrevious = entry.mPrevious;
+      } else {
+        mTail = entry.mPrevious;
+      }
+      entry.mPrevious = null;
+      entry.mNext = null;
+    }
+
+    private static int indexFor(int key, int length) {
+      final int hash = key * 0x9E3779B9;
+      return (hash ^ (hash >>> 16)) & (length - 1);
+    }
+  }
+
+  private static final class Entry {
+    private final int mKey;
+    private Object mValue;
+    private int mWeight;
+    private @Nullable Entry mNextInBucket;
+    private @Nullable Entry mPrevious;
+    private @Nullable Entry mNext;
+
+    Entry(int key, Object value, int weight) {
+      mKey = key;
+      mValue = value;
+      mWeight = weight;
+    }
   }
 }
@@ -35,7 +35,7 @@ import javax.annotation.Nullable;
 
 /** A Drawable that wraps another drawable. */
 public class MatrixDrawable<T extends Drawable> extends Drawable
-    implements Drawable.Callback, Touchable {
+    implements Drawable.Callback, BoundedTouchable {
 
   public static final int UNSET = -1;
 
@@ -68,6 +68,7 @@ import com.facebook.litho.animation.AnimatedProperties;
 import com.facebook.litho.animation.PropertyHandle;
 import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.stats.LithoStats;
+import com.facebook.litho.stats.PhaseMetrics;
 import com.facebook.rendercore.Host;
 import com.facebook.rendercore.MountDelegate;
 import com.facebook.rendercore.MountDelegate.MountDelegateTarget;
@@ -405,7 +406,7 @@ class MountState
           }
 
           if (isIncrementalMountEnabled && component.hasChildLithoViews()) {
-            mountItemIncrementally(currentMountItem, processVisibilityOutputs);
+            mountItemIncrementally(currentMountItem, localVisibleRect, processVisibilityOutputs);
           }
         }
 
@@ -833,6 +834,8 @@ class MountState
       boolean isDirty,
       @Nullable PerfEvent mountPerfEvent) {
     final boolean isTracing = ComponentsSystrace.isTracing();
+    final long startTimeNanos = PhaseMetrics.currentTimeNanos();
+    final long startAllocationCount = PhaseMetrics.currentAllocationCount();
 
     try {
       if (mountPerfEvent != null) {
@@ -869,9 +872,19 @@ class MountState
       if (mountPerfEvent != null) {
         mountPerfEvent.markerPoint("VISIBILITY_HANDLERS_END");
       }
+
+      getPhaseMetrics()
+          .record(PhaseMetrics.PHASE_VISIBILITY, startTimeNanos, startAllocationCount);
     }
   }
 
+  private PhaseMetrics getPhaseMetrics() {
+    final ComponentTree componentTree = mLithoView != null ? mLithoView.getComponentTree() : null;
+    return componentTree != null
+        ? componentTree.getPhaseMetrics()
+        : LithoStats.getGlobalPhaseMetrics();
+  }
+
   private void processVisibilityOutputsNonInc(
       LayoutState layoutState, @Nullable Rect localVisibleRect, boolean isDirty) {
     assertMainThread();
@@ -2645,7 +2658,8 @@ class MountState
     view.setStateListAnimator(null);
   }
 
-  private static void mountItemIncrementally(MountItem item, boolean processVisibilityOutputs) {
+  private void mountItemIncrementally(
+      MountItem item, @Nullable Rect localVisibleRect, boolean processVisibilityOutputs) {
     final Component component = getLayoutOutput(item).getComponent();
 
     if (!isMountViewSpec(component)) {
@@ -2656,6 +2670,13 @@ class MountState
     // hosting LithoView (which is what the localVisibleRect is measured relative to).
     final View view = (View) item.getContent();
 
+    if (ComponentsConfiguration.propagateVisibleRectToNestedLithoViews
+        && processVisibilityOutputs
+        && localVisibleRect != null
+        && NestedVisibleRects.propagate(mLithoView, localVisibleRect, view)) {
+      return;
+    }
+
     mountViewIncrementally(view, processVisibilityOutputs);
   }
 
@@ -3570,7 +3591,7 @@ class MountState
       if (!mComponentIdsMountedInThisFrame.contains(layoutOutputId)) {
         final int layoutOutputPosition = layoutState.getLayoutOutputPositionForId(layoutOutputId);
         if (layoutOutputPosition != -1) {
-          mountItemIncrementally(mountItem, processVisibilityOutputs);
+          mountItemIncrementally(mountItem, localVisibleRect, processVisibilityOutputs);
         }
       }
     }
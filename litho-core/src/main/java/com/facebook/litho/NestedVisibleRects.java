@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static com.facebook.litho.ThreadUtils.assertMainThread;
+
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+
+/**
+ * Passes the visible rect of a LithoView down to the LithoViews nested in its mounted views during
+ * incremental mount. Each nested LithoView gets its visible rect computed from the one of its
+ * parent view, instead of walking up the whole view hierarchy with {@link
+ * View#getLocalVisibleRect(Rect)}, and skips mounting when it didn't change.
+ *
+ * <p>Only offsets, translations and scroll positions are taken into account. Views which are
+ * scaled or rotated fall back to looking up their visible rect themselves.
+ */
+final class NestedVisibleRects {
+
+  private NestedVisibleRects() {}
+
+  /**
+   * Propagates the visible rect of the host down to the LithoViews in the given mounted view.
+   *
+   * @param host The LithoView (or host) which is being incrementally mounted.
+   * @param hostVisibleRect The visible rect of the host, in its own coordinates.
+   * @param view A view mounted in the host.
+   * @return false if nothing was propagated and the caller has to notify the nested LithoViews.
+   */
+  static boolean propagate(View host, Rect hostVisibleRect, View view) {
+    // An empty rect means that everything is mounted, which can't be propagated.
+    if (hostVisibleRect.isEmpty()) {
+      return false;
+    }
+
+    final Rect visibleRect = new Rect(hostVisibleRect);
+    if (!toVisibleRectOfDescendant(host, view, visibleRect)) {
+      return false;
+    }
+
+    propagate(view, visibleRect);
+    return true;
+  }
+
+  private static void propagate(View view, Rect visibleRect) {
+    assertMainThread();
+
+    if (view instanceof LithoView) {
+      final LithoView lithoView = (LithoView) view;
+      if (lithoView.isIncrementalMountEnabled()) {
+        lithoView.notifyVisibleBoundsChangedFromHost(visibleRect);
+      }
+    } else if (view instanceof ViewGroup) {
+      final ViewGroup viewGroup = (ViewGroup) view;
+      final Rect childVisibleRect = new Rect();
+
+      for (int i = 0; i < viewGroup.getChildCount(); i++) {
+        final View childView = viewGroup.getChildAt(i);
+        childVisibleRect.set(visibleRect);
+        if (toVisibleRectOfDescendant(viewGroup, childView, childVisibleRect)) {
+          propagate(childView, childVisibleRect);
+        } else {
+          notifyVisibleBoundsChanged(childView);
+        }
+      }
+    }
+  }
+
+  private static void notifyVisibleBoundsChanged(View view) {
+    if (view instanceof LithoView) {
+      final LithoView lithoView = (LithoView) view;
+      if (lithoView.isIncrementalMountEnabled()) {
+        lithoView.notifyVisibleBoundsChanged();
+      }
+    } else if (view instanceof ViewGroup) {
+      final ViewGroup viewGroup = (ViewGroup) view;
+      for (int i = 0; i < viewGroup.getChildCount(); i++) {
+        notifyVisibleBoundsChanged(viewGroup.getChildAt(i));
+      }
+    }
+  }
+
+  /**
+   * Converts the visible rect of an ancestor, in its own coordinates, to the visible rect of one of
+   * its descendants, in the coordinates of the descendant. Like {@link
+   * View#getLocalVisibleRect(Rect)}, the rect is clipped by the bounds of every view between the
+   * two. An empty rect means that the descendant is not visible. Returns false if the position of
+   * the descendant can't be computed from offsets alone.
+   */
+  private static boolean toVisibleRectOfDescendant(View ancestor, View descendant, Rect rect) {
+    if (descendant == ancestor) {
+      return true;
+    }
+
+    final ViewParent parent = descendant.getParent();
+    if (!(parent instanceof View) || !hasOnlyTranslation(descendant)) {
+      return false;
+    }
+
+    final View parentView = (View) parent;
+    if (!toVisibleRectOfDescendant(ancestor, parentView, rect)) {
+      return false;
+    }
+
+    rect.offset(
+        parentView.getScrollX() - descendant.getLeft() - (int) descendant.getTranslationX(),
+        parentView.getScrollY() - descendant.getTop() - (int) descendant.getTranslationY());
+    if (!rect.intersect(0, 0, descendant.getWidth(), descendant.getHeight())) {
+      rect.setEmpty();
+    }
+
+    return true;
+  }
+
+  private static boolean hasOnlyTranslation(View view) {
+    return view.getScaleX() == 1f && view.getScaleY() == 1f && view.getRotation() == 0f;
+  }
+}
@@ -99,6 +99,12 @@ class NoOpInternalNode implements InternalNode {
   @Override
   public void border(Edges width, int[] colors, float[] radii) {}
 
+  @Override
+  public void beginStyleInputsBatch() {}
+
+  @Override
+  public void applyStyleInputsBatch() {}
+
   @Override
   public void calculateLayout(float width, float height) {}
 
@@ -708,6 +714,11 @@ class NoOpInternalNode implements InternalNode {
     return null;
   }
 
+  @Override
+  public boolean isBoundsDefinedUpToDate() {
+    return false;
+  }
+
   @Override
   public boolean isDuplicateParentStateEnabled() {
     return false;
@@ -746,6 +757,9 @@ class NoOpInternalNode implements InternalNode {
   @Override
   public void markIsNestedTreeHolder(@Nullable TreeProps currentTreeProps) {}
 
+  @Override
+  public void markBoundsDefined() {}
+
   @Override
   public void markLayoutSeen() {}
 
@@ -762,6 +776,9 @@ class NoOpInternalNode implements InternalNode {
     return null;
   }
 
+  @Override
+  public void resetBoundsDefined() {}
+
   @Override
   public void resetResolvedLayoutProperties() {}
 
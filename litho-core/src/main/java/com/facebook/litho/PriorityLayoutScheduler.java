@@ -0,0 +1,523 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.IntDef;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.facebook.litho.config.LayoutThreadPoolConfiguration;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.HashMap;
+
+/**
+ * Schedules layout calculations of many {@link ComponentTree}s on a shared pool of threads.
+ *
+ * <p>Each tree posts to its own {@link TreeHandler}, which keeps a deque of pending runnables and
+ * belongs to one of three priority lanes: visible, near range and prefetch. Idle threads always
+ * pick work from the highest priority lane that has any, and take one runnable at a time from the
+ * trees of that lane in round robin order, so a single tree with many pending updates can't starve
+ * the others. Removing a runnable is a map lookup instead of a scan of the whole queue, and {@link
+ * TreeHandler#postAtFront(Runnable, String)} is supported.
+ *
+ * <p>The scheduler also keeps track of how long runnables waited in the queue and how long they
+ * took to run, per priority lane.
+ */
+public class PriorityLayoutScheduler {
+
+  public static final int PRIORITY_VISIBLE = 0;
+  public static final int PRIORITY_NEAR_RANGE = 1;
+  public static final int PRIORITY_PREFETCH = 2;
+
+  private static final int PRIORITY_COUNT = 3;
+
+  @IntDef({PRIORITY_VISIBLE, PRIORITY_NEAR_RANGE, PRIORITY_PREFETCH})
+  @Retention(RetentionPolicy.SOURCE)
+  public @interface Priority {}
+
+  private static volatile PriorityLayoutScheduler sInstance;
+
+  private final Object mLock = new Object();
+  private final LayoutThreadFactory mThreadFactory;
+  private final int mThreadCount;
+
+  @GuardedBy("mLock")
+  private final TreeHandler[] mLaneHeads = new TreeHandler[PRIORITY_COUNT];
+
+  @GuardedBy("mLock")
+  private final TreeHandler[] mLaneTails = new TreeHandler[PRIORITY_COUNT];
+
+  @GuardedBy("mLock")
+  private int mStartedThreads;
+
+  @GuardedBy("mLock")
+  private int mPendingTaskCount;
+
+  @GuardedBy("mLock")
+  private final long[] mCompletedTaskCounts = new long[PRIORITY_COUNT];
+
+  @GuardedBy("mLock")
+  private final long[] mTotalQueueWaitTimesNanos = new long[PRIORITY_COUNT];
+
+  @GuardedBy("mLock")
+  private final long[] mMaxQueueWaitTimesNanos = new long[PRIORITY_COUNT];
+
+  @GuardedBy("mLock")
+  private final long[] mTotalRunTimesNanos = new long[PRIORITY_COUNT];
+
+  public PriorityLayoutScheduler(LayoutThreadPoolConfiguration configuration) {
+    this(
+        Math.max(1, configuration.getCorePoolSize()),
+        new LayoutThreadFactory(configuration.getThreadPriority()));
+  }
+
+  @VisibleForTesting
+  PriorityLayoutScheduler(int threadCount, LayoutThreadFactory threadFactory) {
+    mThreadCount = threadCount;
+    mThreadFactory = threadFactory;
+  }
+
+  /**
+   * Gets the default static singleton reference to {@link PriorityLayoutScheduler}, which uses the
+   * same configuration as {@link ThreadPoolLayoutHandler#getDefaultInstance()}.
+   */
+  public static PriorityLayoutScheduler getDefaultInstance() {
+    if (sInstance == null) {
+      synchronized (PriorityLayoutScheduler.class) {
+        if (sInstance == null) {
+          sInstance =
+              new PriorityLayoutScheduler(
+                  ThreadPoolLayoutHandler.DEFAULT_LAYOUT_THREAD_POOL_CONFIGURATION);
+        }
+      }
+    }
+    return sInstance;
+  }
+
+  /**
+   * Creates a new {@link LithoHandler} to be used by a single {@link ComponentTree}. The priority
+   * can be changed at any time with {@link TreeHandler#setPriority(int)}.
+   */
+  public TreeHandler createHandler(@Priority int priority) {
+    return new TreeHandler(this, priority);
+  }
+
+  public int getPendingTaskCount() {
+    synchronized (mLock) {
+      return mPendingTaskCount;
+    }
+  }
+
+  public long getCompletedTaskCount(@Priority int priority) {
+    synchronized (mLock) {
+      return mCompletedTaskCounts[priority];
+    }
+  }
+
+  /** @return the sum of the time runnables of the given lane spent waiting to be picked up. */
+  public long getTotalQueueWaitTimeNanos(@Priority int priority) {
+    synchronized (mLock) {
+      return mTotalQueueWaitTimesNanos[priority];
+    }
+  }
+
+  public long getMaxQueueWaitTimeNanos(@Priority int priority) {
+    synchronized (mLock) {
+      return mMaxQueueWaitTimesNanos[priority];
+    }
+  }
+
+  /** @return the sum of the time runnables of the given lane took to run. */
+  public long getTotalRunTimeNanos(@Priority int priority) {
+    synchronized (mLock) {
+      return mTotalRunTimesNanos[priority];
+    }
+  }
+
+  public void resetMetrics() {
+    synchronized (mLock) {
+      for (int i = 0; i < PRIORITY_COUNT; i++) {
+        mCompletedTaskCounts[i] = 0;
+        mTotalQueueWaitTimesNanos[i] = 0;
+        mMaxQueueWaitTimesNanos[i] = 0;
+        mTotalRunTimesNanos[i] = 0;
+      }
+    }
+  }
+
+  /**
+   * Runs the next pending runnable on the calling thread.
+   *
+   * @return false if there was nothing to run.
+   */
+  @VisibleForTesting
+  boolean runNextTask() {
+    final Task task;
+    synchronized (mLock) {
+      task = pollLocked();
+    }
+
+    if (task == null) {
+      return false;
+    }
+
+    runTask(task);
+    return true;
+  }
+
+  private void runTask(Task task) {
+    final long startTimeNanos = System.nanoTime();
+    try {
+      task.mRunnable.run();
+    } finally {
+      final long runTimeNanos = System.nanoTime() - startTimeNanos;
+      final long queueWaitTimeNanos = startTimeNanos - task.mPostTimeNanos;
+      final int priority = task.mPriority;
+
+      synchronized (mLock) {
+        mCompletedTaskCounts[priority]++;
+        mTotalQueueWaitTimesNanos[priority] += queueWaitTimeNanos;
+        mTotalRunTimesNanos[priority] += runTimeNanos;
+        if (queueWaitTimeNanos > mMaxQueueWaitTimesNanos[priority]) {
+          mMaxQueueWaitTimesNanos[priority] = queueWaitTimeNanos;
+        }
+      }
+    }
+  }
+
+  private void runWorker() {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        final Task task;
+        synchronized (mLock) {
+          Task next;
+          while ((next = pollLocked()) == null) {
+            mLock.wait();
+          }
+          task = next;
+        }
+
+        runTask(task);
+      }
+    } catch (InterruptedException e) {
+      interrupted = true;
+      Thread.currentThread().interrupt();
+    } finally {
+      synchronized (mLock) {
+        mStartedThreads--;
+
+        // A runnable threw and takes this thread down with it, replace it so that the pending
+        // runnables don't wait for the next post.
+        if (!interrupted && mPendingTaskCount > 0) {
+          startWorkerLocked();
+        }
+      }
+    }
+  }
+
+  @GuardedBy("mLock")
+  private void onTaskAddedLocked() {
+    mPendingTaskCount++;
+
+    if (mStartedThreads < mThreadCount) {
+      startWorkerLocked();
+    } else {
+      mLock.notify();
+    }
+  }
+
+  @GuardedBy("mLock")
+  private void startWorkerLocked() {
+    mStartedThreads++;
+    mThreadFactory
+        .newThread(
+            new Runnable() {
+              @Override
+              public void run() {
+                runWorker();
+              }
+            })
+        .start();
+  }
+
+  /** Takes the first runnable of the first tree of the highest priority non empty lane. */
+  @GuardedBy("mLock")
+  private @Nullable Task pollLocked() {
+    for (int priority = 0; priority < PRIORITY_COUNT; priority++) {
+      final TreeHandler handler = mLaneHeads[priority];
+      if (handler == null) {
+        continue;
+      }
+
+      final Task task = handler.mHead;
+      handler.unlinkTaskLocked(task);
+      task.mPriority = priority;
+      mPendingTaskCount--;
+
+      // Move the tree to the back of its lane so that other trees get a turn.
+      removeFromLaneLocked(handler);
+      if (handler.mHead != null) {
+        addToLaneLocked(handler, false);
+      }
+
+      return task;
+    }
+
+    return null;
+  }
+
+  @GuardedBy("mLock")
+  private void addToLaneLocked(TreeHandler handler, boolean atFront) {
+    final int priority = handler.mPriority;
+    handler.mInLane = true;
+    handler.mLanePriority = priority;
+
+    if (mLaneHeads[priority] == null) {
+      handler.mLanePrevious = null;
+      handler.mLaneNext = null;
+      mLaneHeads[priority] = handler;
+      mLaneTails[priority] = handler;
+    } else if (atFront) {
+      handler.mLanePrevious = null;
+      handler.mLaneNext = mLaneHeads[priority];
+      mLaneHeads[priority].mLanePrevious = handler;
+      mLaneHeads[priority] = handler;
+    } else {
+      handler.mLanePrevious = mLaneTails[priority];
+      handler.mLaneNext = null;
+      mLaneTails[priority].mLaneNext = handler;
+      mLaneTails[priority] = handler;
+    }
+  }
+
+  @GuardedBy("mLock")
+  private void removeFromLaneLocked(TreeHandler handler) {
+    final int priority = handler.mLanePriority;
+
+    if (handler.mLanePrevious != null) {
+      handler.mLanePrevious.mLaneNext = handler.mLaneNext;
+    } else {
+      mLaneHeads[priority] = handler.mLaneNext;
+    }
+
+    if (handler.mLaneNext != null) {
+      handler.mLaneNext.mLanePrevious = handler.mLanePrevious;
+    } else {
+      mLaneTails[priority] = handler.mLanePrevious;
+    }
+
+    handler.mLanePrevious = null;
+    handler.mLaneNext = null;
+    handler.mInLane = false;
+  }
+
+  /** A runnable posted to a {@link TreeHandler}, linked both in its deque and to its duplicates. */
+  private static final class Task {
+    final Runnable mRunnable;
+    final long mPostTimeNanos;
+    int mPriority;
+
+    @Nullable Task mPrevious;
+    @Nullable Task mNext;
+
+    /** Other pending posts of the same runnable, removed together with this one. */
+    @Nullable Task mOlderDuplicate;
+
+    @Nullable Task mNewerDuplicate;
+
+    Task(Runnable runnable) {
+      mRunnable = runnable;
+      mPostTimeNanos = System.nanoTime();
+    }
+  }
+
+  /**
+   * The {@link LithoHandler} of a single {@link ComponentTree}. All the state is guarded by the
+   * lock of the scheduler which created it.
+   */
+  public static final class TreeHandler implements LithoHandler {
+
+    private final PriorityLayoutScheduler mScheduler;
+
+    /** The most recently posted pending task of each runnable. */
+    private final HashMap<Runnable, Task> mTasks = new HashMap<>();
+
+    private @Priority int mPriority;
+
+    private @Nullable Task mHead;
+    private @Nullable Task mTail;
+
+    private boolean mInLane;
+    private int mLanePriority;
+    private @Nullable TreeHandler mLanePrevious;
+    private @Nullable TreeHandler mLaneNext;
+
+    private TreeHandler(PriorityLayoutScheduler scheduler, @Priority int priority) {
+      mScheduler = scheduler;
+      mPriority = priority;
+    }
+
+    public @Priority int getPriority() {
+      synchronized (mScheduler.mLock) {
+        return mPriority;
+      }
+    }
+
+    /** Moves this tree, including the runnables it already posted, to the given priority lane. */
+    public void setPriority(@Priority int priority) {
+      synchronized (mScheduler.mLock) {
+        if (mPriority == priority) {
+          return;
+        }
+
+        mPriority = priority;
+        if (mInLane) {
+          mScheduler.removeFromLaneLocked(this);
+          mScheduler.addToLaneLocked(this, false);
+        }
+      }
+    }
+
+    @Override
+    public boolean isTracing() {
+      return false;
+    }
+
+    @Override
+    public void post(Runnable runnable, String tag) {
+      synchronized (mScheduler.mLock) {
+        final Task task = new Task(runnable);
+        task.mPrevious = mTail;
+        if (mTail != null) {
+          mTail.mNext = task;
+        } else {
+          mHead = task;
+        }
+        mTail = task;
+
+        addTaskLocked(task, false);
+      }
+    }
+
+    @Override
+    public void postAtFront(Runnable runnable, String tag) {
+      synchronized (mScheduler.mLock) {
+        final Task task = new Task(runnable);
+        task.mNext = mHead;
+        if (mHead != null) {
+          mHead.mPrevious = task;
+        } else {
+          mTail = task;
+        }
+        mHead = task;
+
+        addTaskLocked(task, true);
+      }
+    }
+
+    @Override
+    public void remove(Runnable runnable) {
+      synchronized (mScheduler.mLock) {
+        Task task = mTasks.remove(runnable);
+        if (task == null) {
+          return;
+        }
+
+        while (task != null) {
+          final Task older = task.mOlderDuplicate;
+          unlinkFromDequeLocked(task);
+          mScheduler.mPendingTaskCount--;
+          task = older;
+        }
+
+        if (mHead == null && mInLane) {
+          mScheduler.removeFromLaneLocked(this);
+        }
+      }
+    }
+
+    @VisibleForTesting
+    int getPendingTaskCount() {
+      synchronized (mScheduler.mLock) {
+        int count = 0;
+        for (Task task = mHead; task != null; task = task.mNext) {
+          count++;
+        }
+        return count;
+      }
+    }
+
+    @GuardedBy("mScheduler.mLock")
+    private void addTaskLocked(Task task, boolean atFront) {
+      final Task newestDuplicate = mTasks.put(task.mRunnable, task);
+      if (newestDuplicate != null) {
+        newestDuplicate.mNewerDuplicate = task;
+        task.mOlderDuplicate = newestDuplicate;
+      }
+
+      if (atFront && mInLane) {
+        mScheduler.removeFromLaneLocked(this);
+      }
+      if (!mInLane) {
+        mScheduler.addToLaneLocked(this, atFront);
+      }
+
+      mScheduler.onTaskAddedLocked();
+    }
+
+    /** Removes a task which is about to run from both the deque and the duplicates chain. */
+    @GuardedBy("mScheduler.mLock")
+    private void unlinkTaskLocked(Task task) {
+      unlinkFromDequeLocked(task);
+
+      if (task.mNewerDuplicate != null) {
+        task.mNewerDuplicate.mOlderDuplicate = task.mOlderDuplicate;
+      } else if (task.mOlderDuplicate != null) {
+        mTasks.put(task.mRunnable, task.mOlderDuplicate);
+      } else {
+        mTasks.remove(task.mRunnable);
+      }
+
+      if (task.mOlderDuplicate != null) {
+        task.mOlderDuplicate.mNewerDuplicate = task.mNewerDuplicate;
+      }
+
+      task.mOlderDuplicate = null;
+      task.mNewerDuplicate = null;
+    }
+
+    @GuardedBy("mScheduler.mLock")
+    private void unlinkFromDequeLocked(Task task) {
+      if (task.mPrevious != null) {
+        task.mPrevious.mNext = task.mNext;
+      } else {
+        mHead = task.mNext;
+      }
+
+      if (task.mNext != null) {
+        task.mNext.mPrevious = task.mPrevious;
+      } else {
+        mTail = task.mPrevious;
+      }
+
+      task.mPrevious = null;
+      task.mNext = null;
+    }
+  }
+}
@@ -20,13 +20,21 @@ import android.content.res.Configuration;
 import javax.annotation.Nullable;
 
 public abstract class ResourceCache {
-  private static ResourceCache latest;
+  private static volatile @Nullable ResourceCache latest;
 
-  static synchronized ResourceCache getLatest(Configuration configuration) {
-    if (latest == null || !latest.mConfiguration.equals(configuration)) {
-      latest = new LruResourceCache(new Configuration(configuration));
+  static ResourceCache getLatest(Configuration configuration) {
+    // Every ComponentContext asks for the cache, only lock when the configuration changed.
+    final ResourceCache cache = latest;
+    if (cache != null && cache.mConfiguration.equals(configuration)) {
+      return cache;
+    }
+
+    synchronized (ResourceCache.class) {
+      if (latest == null || !latest.mConfiguration.equals(configuration)) {
+        latest = new LruResourceCache(new Configuration(configuration));
+      }
+      return latest;
     }
-    return latest;
   }
 
   private final Configuration mConfiguration;
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static com.facebook.litho.Component.isLayoutSpecWithSizeSpec;
+
+import androidx.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes the InternalNode tree of the previous layout by the global key of the head component of
+ * each node, so that a layout for a new root can reuse the subtrees of components whose props did
+ * not change instead of creating and measuring them again.
+ *
+ * <p>A subtree is reused only if its head component is equivalent to the new component, including
+ * its common props and the tree props it passes down, and no component in it has a pending state
+ * update. Reused subtrees are copied, with their YogaNodes, so Yoga can skip measuring them again.
+ * This class is not thread safe, it is only used by the thread which creates the layout.
+ */
+final class ReusableNodeIndex {
+
+  private final Map<String, DefaultInternalNode> mNodes = new HashMap<>();
+  private final Set<String> mPendingUpdateKeys;
+  private int mReusedCount;
+
+  private ReusableNodeIndex(Set<String> pendingUpdateKeys) {
+    mPendingUpdateKeys = pendingUpdateKeys;
+  }
+
+  static @Nullable ReusableNodeIndex create(
+      final ComponentContext c, final @Nullable InternalNode root) {
+    if (!(root instanceof DefaultInternalNode)) {
+      return null;
+    }
+
+    final StateHandler stateHandler = c.getStateHandler();
+    final Set<String> keys =
+        stateHandler != null
+            ? stateHandler.getKeysForPendingUpdates()
+            : Collections.<String>emptySet();
+
+    final ReusableNodeIndex index = new ReusableNodeIndex(keys);
+    index.add((DefaultInternalNode) root);
+
+    return index;
+  }
+
+  private void add(final DefaultInternalNode node) {
+    // Nested trees are resolved again during measure, so they are never reused.
+    if (node.isNestedTreeHolder()) {
+      return;
+    }
+
+    final Component head = node.getHeadComponent();
+    if (head != null && head.getGlobalKey() != null) {
+      mNodes.put(head.getGlobalKey(), node);
+    }
+
+    for (int i = 0, count = node.getChildCount(); i < count; i++) {
+      add((DefaultInternalNode) node.getChildAt(i));
+    }
+  }
+
+  /**
+   * Returns a copy of the previous InternalNode tree of the given component, which must already be
+   * updated with its global key and scoped context, or null if it has to be created again.
+   */
+  @Nullable
+  InternalNode reuse(final Component component) {
+    final String key = component.getGlobalKey();
+    final DefaultInternalNode previous = key != null ? mNodes.remove(key) : null;
+    if (previous == null || !canBeReused(component)) {
+      return null;
+    }
+
+    final Component head = previous.getHeadComponent();
+    final ComponentContext c = component.getScopedContext();
+
+    // Common props are not part of isEquivalentTo, so they are compared separately.
+    if (!isEquivalentTo(component.getCommonProps(), head.getCommonProps())
+        || !component.isEquivalentTo(head)
+        || !TreeProps.isEquivalent(c.getTreeProps(), head.getScopedContext().getTreeProps())
+        || DefaultInternalNode.getReconciliationMode(c, previous, mPendingUpdateKeys)
+            != DefaultInternalNode.ReconciliationMode.COPY) {
+      return null;
+    }
+
+    // The copied YogaNodes keep their measurements, so the outputs of measure are kept as well.
+    component.copyInterStageImpl(head);
+    mReusedCount++;
+
+    return previous.copyWithHeadComponent(component);
+  }
+
+  private static boolean isEquivalentTo(@Nullable CommonProps x, @Nullable CommonProps y) {
+    if (x == y) {
+      return true;
+    }
+    return x instanceof CommonPropsHolder && ((CommonPropsHolder) x).isEquivalentTo(y);
+  }
+
+  /**
+   * Layouts created with a size spec depend on more than props. Components holding other components
+   * can't be compared reliably, because the common props of those are not part of isEquivalentTo;
+   * containers like Row and Column are cheap to resolve and their children are reused individually.
+   */
+  private static boolean canBeReused(final Component component) {
+    return !isLayoutSpecWithSizeSpec(component)
+        && !component.canResolve()
+        && !ComponentUtils.hasComponentProps(component.getClass());
+  }
+
+  int getReusedCount() {
+    return mReusedCount;
+  }
+}
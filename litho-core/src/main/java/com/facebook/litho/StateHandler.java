@@ -21,10 +21,15 @@ import static com.facebook.litho.StateContainer.StateUpdate;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import com.facebook.infer.annotation.ThreadSafe;
+import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.stats.LithoStats;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -67,12 +72,28 @@ public class StateHandler {
   @GuardedBy("this")
   public HashSet<String> mNeededStateContainers;
 
-  /** Map of all cached values that are stored for the current ComponentTree. */
+  /** All cached values that are stored for the current ComponentTree. */
   @GuardedBy("this")
   @Nullable
-  private Map<Object, Object> mCachedValues;
+  private CachedValueStore mCachedValues;
 
   private Map<String, Object> mHookState;
+  private @Nullable Map<String, List<Object>> mHookSlots;
+  private @Nullable Map<String, List<Object>> mHookEventHandlers;
+
+  /** useCached values by component, from the least to the most recently rendered component. */
+  private @Nullable Map<String, List<Object>> mHookCachedValues;
+
+  /**
+   * The hook lists above which were created or copied by this StateHandler. The others are shared
+   * with the StateHandler this one was copied from or committed to, and are only copied when they
+   * are first handed out, since the caller may write to them.
+   */
+  private @Nullable Set<List<Object>> mOwnedHookLists;
+
+  /** Changes to objects shared with the committed layout, run when this layout is committed. */
+  private @Nullable List<Runnable> mHookCommitActions;
+
   private List<HookUpdater> mPendingHookUpdates;
   private List<HookUpdater> mAppliedHookUpdates;
 
@@ -110,7 +131,8 @@ public class StateHandler {
 
   public synchronized boolean isEmpty() {
     return (mStateContainers == null || mStateContainers.isEmpty())
-        && (mHookState == null || mHookState.isEmpty());
+        && (mHookState == null || mHookState.isEmpty())
+        && (mHookSlots == null || mHookSlots.isEmpty());
   }
 
   synchronized boolean hasPendingUpdates() {
@@ -373,21 +395,46 @@ public class StateHandler {
 
   @Nullable
   synchronized Object getCachedValue(Object cachedValueInputs) {
-    if (mCachedValues == null) {
-      mCachedValues = new HashMap<>();
-    }
+    maybeInitCachedValues();
 
     return mCachedValues.get(cachedValueInputs);
   }
 
   synchronized void putCachedValue(Object cachedValueInputs, Object cachedValue) {
-    if (mCachedValues == null) {
-      mCachedValues = new HashMap<>();
-    }
+    maybeInitCachedValues();
 
     mCachedValues.put(cachedValueInputs, cachedValue);
   }
 
+  synchronized void trimCachedValues(int level) {
+    if (mCachedValues != null) {
+      mCachedValues.onTrimMemory(level);
+    }
+
+    if (mHookCachedValues != null) {
+      final int size = getHookCachedValuesCount();
+      trimHookCachedValues(size, CachedValueStore.getSizeAfterTrimMemory(size, level));
+    }
+  }
+
+  @VisibleForTesting
+  @Nullable
+  synchronized CachedValueStore getCachedValueStore() {
+    return mCachedValues;
+  }
+
+  synchronized CachedValueStats getCachedValueStats() {
+    maybeInitCachedValues();
+
+    return mCachedValues.getStats();
+  }
+
+  private synchronized void maybeInitCachedValues() {
+    if (mCachedValues == null) {
+      mCachedValues = new CachedValueStore();
+    }
+  }
+
   /**
    * Copies the information from the given map of state updates into the map of pending state
    * updates.
@@ -528,6 +575,59 @@ public class StateHandler {
     return mHookState;
   }
 
+  /**
+   * Returns the hook state slots of the component with the given global key. Slots are assigned in
+   * the order in which the component declares its hooks, so that reading or writing a value is an
+   * index into this list rather than a lookup by a per-hook key.
+   */
+  List<Object> getHookSlots(String globalKey) {
+    if (mHookSlots == null) {
+      mHookSlots = new HashMap<>();
+    }
+    return getOrCreateSlots(mHookSlots, globalKey);
+  }
+
+  /**
+   * Returns the event handlers that the component with the given global key created from hooks, in
+   * the order in which they were created. They are kept apart from the state slots so that a
+   * handler that is only created conditionally can't shift the slots of the component's state.
+   */
+  List<Object> getHookEventHandlers(String globalKey) {
+    if (mHookEventHandlers == null) {
+      mHookEventHandlers = new HashMap<>();
+    }
+    return getOrCreateSlots(mHookEventHandlers, globalKey);
+  }
+
+  /**
+   * Returns the values that the component with the given global key cached with hooks, in the
+   * order in which it declared them. The component becomes the most recently used one, whose
+   * values are the last to be dropped when there are more than {@link
+   * ComponentsConfiguration#cachedValuesMaxSize} of them.
+   */
+  List<Object> getHookCachedValues(String globalKey) {
+    if (mHookCachedValues == null) {
+      mHookCachedValues = new LinkedHashMap<>();
+    }
+
+    final List<Object> values = getOwnedHookList(mHookCachedValues.remove(globalKey));
+    mHookCachedValues.put(globalKey, values);
+
+    return values;
+  }
+
+  /**
+   * Registers the given block to be run when the layout using this StateHandler is committed. Hooks
+   * use it to update objects they share with the committed layout, such as event handlers, so that
+   * layouts which are never committed don't change what is mounted.
+   */
+  void addHookCommitAction(Runnable action) {
+    if (mHookCommitActions == null) {
+      mHookCommitActions = new ArrayList<>();
+    }
+    mHookCommitActions.add(action);
+  }
+
   /**
    * Registers the given block to be run before the next layout calculation to update hook state.
    */
@@ -552,6 +652,21 @@ public class StateHandler {
       mHookState = new HashMap<>(other.mHookState);
     }
 
+    // The hook lists are now shared, neither StateHandler can write to them in place anymore.
+    other.mOwnedHookLists = null;
+
+    if (other.mHookSlots != null) {
+      mHookSlots = copyHookSlots(other.mHookSlots);
+    }
+
+    if (other.mHookEventHandlers != null) {
+      mHookEventHandlers = copyHookSlots(other.mHookEventHandlers);
+    }
+
+    if (other.mHookCachedValues != null) {
+      mHookCachedValues = copyHookSlots(other.mHookCachedValues);
+    }
+
     if (other.mPendingHookUpdates != null) {
       List<HookUpdater> updaters = new ArrayList<>(other.mPendingHookUpdates);
       for (HookUpdater updater : updaters) {
@@ -582,8 +697,91 @@ public class StateHandler {
       }
     }
 
+    mHookSlots =
+        stateHandler.mHookSlots != null && !stateHandler.mHookSlots.isEmpty()
+            ? copyHookSlots(stateHandler.mHookSlots)
+            : null;
+    mHookEventHandlers =
+        stateHandler.mHookEventHandlers != null && !stateHandler.mHookEventHandlers.isEmpty()
+            ? copyHookSlots(stateHandler.mHookEventHandlers)
+            : null;
+    mHookCachedValues =
+        stateHandler.mHookCachedValues != null && !stateHandler.mHookCachedValues.isEmpty()
+            ? copyHookSlots(stateHandler.mHookCachedValues)
+            : null;
+    mOwnedHookLists = null;
+    stateHandler.mOwnedHookLists = null;
+
+    final int maxSize = ComponentsConfiguration.cachedValuesMaxSize;
+    if (mHookCachedValues != null && maxSize > 0) {
+      trimHookCachedValues(getHookCachedValuesCount(), maxSize);
+    }
+
     if (mPendingHookUpdates != null && stateHandler.mAppliedHookUpdates != null) {
       mPendingHookUpdates.removeAll(stateHandler.mAppliedHookUpdates);
     }
+
+    if (stateHandler.mHookCommitActions != null) {
+      final List<Runnable> actions = stateHandler.mHookCommitActions;
+      stateHandler.mHookCommitActions = null;
+      for (Runnable action : actions) {
+        action.run();
+      }
+    }
+  }
+
+  private List<Object> getOrCreateSlots(Map<String, List<Object>> slotsMap, String key) {
+    final List<Object> slots = slotsMap.get(key);
+    final List<Object> ownedSlots = getOwnedHookList(slots);
+    if (ownedSlots != slots) {
+      slotsMap.put(key, ownedSlots);
+    }
+    return ownedSlots;
+  }
+
+  /**
+   * Returns the given hook list if this StateHandler can write to it, or a copy of it that it can
+   * write to otherwise. A new list is returned if the given one is null.
+   */
+  private List<Object> getOwnedHookList(@Nullable List<Object> list) {
+    if (list != null && mOwnedHookLists != null && mOwnedHookLists.contains(list)) {
+      return list;
+    }
+
+    if (mOwnedHookLists == null) {
+      mOwnedHookLists = Collections.newSetFromMap(new IdentityHashMap<List<Object>, Boolean>());
+    }
+    final List<Object> ownedList = list == null ? new ArrayList<>() : new ArrayList<>(list);
+    mOwnedHookLists.add(ownedList);
+    return ownedList;
+  }
+
+  private int getHookCachedValuesCount() {
+    int count = 0;
+    for (List<Object> values : mHookCachedValues.values()) {
+      count += values.size();
+    }
+    return count;
+  }
+
+  /**
+   * Drops the cached values of the least recently rendered components until at most maxSize of
+   * the given number of values are left. They are calculated again on the next render.
+   */
+  private void trimHookCachedValues(int size, int maxSize) {
+    final Iterator<List<Object>> iterator = mHookCachedValues.values().iterator();
+    while (size > maxSize && iterator.hasNext()) {
+      size -= iterator.next().size();
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Copies the mapping from components to slot lists, keeping the order of the components. The
+   * lists themselves are shared until either StateHandler hands them out, see {@link
+   * #getOwnedHookList}.
+   */
+  private static Map<String, List<Object>> copyHookSlots(Map<String, List<Object>> hookSlots) {
+    return new LinkedHashMap<>(hookSlots);
   }
 }
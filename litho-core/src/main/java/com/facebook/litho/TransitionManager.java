@@ -39,6 +39,7 @@ import com.facebook.litho.animation.Resolver;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -128,11 +129,11 @@ public class TransitionManager {
     /** The animation, if any, that is currently running on this property. */
     public AnimationBinding animation;
 
-    /** If there's an {@link #animation}, the target value it's animating to. */
-    public Float targetValue;
+    /** If there's an {@link #animation}, the target value it's animating to, NaN otherwise. */
+    public float targetValue = Float.NaN;
 
-    /** The last mounted value of this property. */
-    public Float lastMountedValue;
+    /** The last mounted value of this property, NaN if unknown. */
+    public float lastMountedValue = Float.NaN;
 
     /** How many animations are waiting to finish for this property. */
     public int numPendingAnimations;
@@ -186,7 +187,13 @@ public class TransitionManager {
       new HashMap<>();
   private final TransitionIdMap<AnimationState> mAnimationStates = new TransitionIdMap<>();
   private final SparseArrayCompat<String> mTraceNames = new SparseArrayCompat<>();
-  private final Map<PropertyHandle, Float> mInitialStatesToRestore = new HashMap<>();
+  /**
+   * The start values of the animations to run, restored before they start. Values are kept in a
+   * parallel primitive array to avoid boxing them.
+   */
+  private final ArrayList<PropertyHandle> mInitialStatesToRestore = new ArrayList<>();
+
+  private float[] mInitialValuesToRestore = new float[16];
   private final ArrayList<AnimationBinding> mRunningRootAnimations = new ArrayList<>();
   private final TransitionsAnimationBindingListener mAnimationBindingListener =
       new TransitionsAnimationBindingListener();
@@ -480,7 +487,7 @@ public class TransitionManager {
     for (AnimatedProperty property : animationState.propertyStates.keySet()) {
       final PropertyState propertyState = animationState.propertyStates.get(property);
       if (layoutOutput == null) {
-        propertyState.lastMountedValue = null;
+        propertyState.lastMountedValue = Float.NaN;
       } else {
         propertyState.lastMountedValue = property.get(layoutOutput);
       }
@@ -693,7 +700,7 @@ public class TransitionManager {
 
     // Don't replace new animations in two cases: 1) we're already animating that property to
     // the same end value or 2) the start and end values are already the same
-    if (existingState != null && existingState.targetValue != null) {
+    if (existingState != null && !Float.isNaN(existingState.targetValue)) {
       if (endValue == existingState.targetValue) {
         if (AnimationsDebug.ENABLED) {
           Log.d(
@@ -737,7 +744,7 @@ public class TransitionManager {
     animatedPropertyHandles.add(propertyHandle);
     mAnimationsToPropertyHandles.put(animation, animatedPropertyHandles);
 
-    mInitialStatesToRestore.put(propertyHandle, startValue);
+    addInitialStateToRestore(propertyHandle, startValue);
 
     if (!TextUtils.isEmpty(transition.getTraceName())) {
       mTraceNames.put(animation.hashCode(), transition.getTraceName());
@@ -746,9 +753,20 @@ public class TransitionManager {
     return animation;
   }
 
+  private void addInitialStateToRestore(PropertyHandle propertyHandle, float value) {
+    final int index = mInitialStatesToRestore.size();
+    if (index == mInitialValuesToRestore.length) {
+      mInitialValuesToRestore = Arrays.copyOf(mInitialValuesToRestore, index * 2);
+    }
+    mInitialStatesToRestore.add(propertyHandle);
+    mInitialValuesToRestore[index] = value;
+  }
+
   private void restoreInitialStates() {
-    for (PropertyHandle propertyHandle : mInitialStatesToRestore.keySet()) {
-      final float value = mInitialStatesToRestore.get(propertyHandle);
+    // Restoring in insertion order means the last value recorded for a property handle wins.
+    for (int i = 0, size = mInitialStatesToRestore.size(); i < size; i++) {
+      final PropertyHandle propertyHandle = mInitialStatesToRestore.get(i);
+      final float value = mInitialValuesToRestore[i];
       final TransitionId transitionId = propertyHandle.getTransitionId();
       final AnimationState animationState = mAnimationStates.get(transitionId);
       if (animationState.mountContentGroup != null) {
@@ -982,7 +1000,7 @@ public class TransitionManager {
         }
 
         if (shouldStart
-            && propertyState.lastMountedValue != null
+            && !Float.isNaN(propertyState.lastMountedValue)
             && propertyState.lastMountedValue != propertyAnimation.getTargetValue()) {
           if (AnimationsDebug.ENABLED) {
             Log.d(
@@ -20,27 +20,36 @@ import androidx.annotation.Nullable;
 import com.facebook.infer.annotation.ThreadConfined;
 import com.facebook.infer.annotation.ThreadSafe;
 import com.facebook.litho.annotations.TreeProp;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * A data structure to store tree props.
  *
+ * <p>Values are kept in an immutable list of entries linked to the entries of the parent, with the
+ * most recently put value first. Copying only shares the head of that list, so it doesn't depend on
+ * the number of tree props, and reads don't need a lock.
+ *
  * @see TreeProp
  */
 @ThreadConfined(ThreadConfined.ANY)
 public class TreeProps {
 
-  private final Map<Class, Object> mMap = Collections.synchronizedMap(new HashMap<Class, Object>());
+  private volatile @Nullable Entry mHead;
 
-  public void put(Class key, Object value) {
-    mMap.put(key, value);
+  public synchronized void put(Class key, Object value) {
+    mHead = new Entry(key, value, mHead);
   }
 
   @Nullable
   public <T> T get(Class<T> key) {
-    return (T) mMap.get(key);
+    for (Entry entry = mHead; entry != null; entry = entry.mParent) {
+      if (entry.mKey == key) {
+        return (T) entry.mValue;
+      }
+    }
+
+    return null;
   }
 
   /** @return a copy of the provided TreeProps instance; returns null if source is null */
@@ -54,24 +63,58 @@ public class TreeProps {
   }
 
   /**
-   * Whenever a Spec sets tree props, the TreeProps map from the parent is copied. If parent
-   * TreeProps are null, a new TreeProps instance is created to copy the current tree props.
-   *
-   * <p>Infer knows that newProps is owned but doesn't know that newProps.mMap is owned.
+   * Whenever a Spec sets tree props, the TreeProps from the parent are copied. If parent TreeProps
+   * are null, a new TreeProps instance is created to copy the current tree props.
    */
   @ThreadSafe(enableChecks = false)
   public static TreeProps acquire(TreeProps source) {
     final TreeProps newProps = new TreeProps();
     if (source != null) {
-      synchronized (source.mMap) {
-        newProps.mMap.putAll(source.mMap);
-      }
+      newProps.mHead = source.mHead;
     }
 
     return newProps;
   }
 
-  void reset() {
-    mMap.clear();
+  /** @return whether both TreeProps hold equal values; null and empty TreeProps are equivalent. */
+  static boolean isEquivalent(@Nullable TreeProps a, @Nullable TreeProps b) {
+    final Entry headA = a == null ? null : a.mHead;
+    final Entry headB = b == null ? null : b.mHead;
+    if (headA == headB) {
+      return true;
+    }
+
+    if (headA == null || headB == null) {
+      return false;
+    }
+
+    return toMap(headA).equals(toMap(headB));
+  }
+
+  private static Map<Class, Object> toMap(Entry head) {
+    final Map<Class, Object> map = new HashMap<>();
+    for (Entry entry = head; entry != null; entry = entry.mParent) {
+      if (!map.containsKey(entry.mKey)) {
+        map.put(entry.mKey, entry.mValue);
+      }
+    }
+
+    return map;
+  }
+
+  synchronized void reset() {
+    mHead = null;
+  }
+
+  private static final class Entry {
+    private final Class mKey;
+    private final @Nullable Object mValue;
+    private final @Nullable Entry mParent;
+
+    private Entry(Class key, @Nullable Object value, @Nullable Entry parent) {
+      mKey = key;
+      mValue = value;
+      mParent = parent;
+    }
   }
 }
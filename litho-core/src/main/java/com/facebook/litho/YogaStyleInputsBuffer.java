@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import androidx.annotation.VisibleForTesting;
+import com.facebook.yoga.YogaEdge;
+import com.facebook.yoga.YogaNode;
+import com.facebook.yoga.YogaStyleInputs;
+
+/**
+ * Collects Yoga style changes as {@link YogaStyleInputs} opcodes so that they can be applied to a
+ * {@link YogaNode} with a single JNI call instead of one call per property.
+ *
+ * <p>Buffers are thread confined and reused between nodes: {@link #acquire()} returns the buffer of
+ * the calling thread and {@link #release()} makes it available again.
+ */
+final class YogaStyleInputsBuffer {
+
+  private static final int INITIAL_CAPACITY = 32;
+
+  private static final ThreadLocal<YogaStyleInputsBuffer> sBuffers =
+      new ThreadLocal<YogaStyleInputsBuffer>() {
+        @Override
+        protected YogaStyleInputsBuffer initialValue() {
+          return new YogaStyleInputsBuffer();
+        }
+      };
+
+  private float[] mInputs = new float[INITIAL_CAPACITY];
+  private int mSize;
+  private boolean mInUse;
+
+  static YogaStyleInputsBuffer acquire() {
+    final YogaStyleInputsBuffer buffer = sBuffers.get();
+    if (buffer.mInUse) {
+      // Batches are not expected to nest, but don't share a buffer if they ever do.
+      final YogaStyleInputsBuffer nested = new YogaStyleInputsBuffer();
+      nested.mInUse = true;
+      return nested;
+    }
+
+    buffer.mInUse = true;
+    return buffer;
+  }
+
+  void release() {
+    mSize = 0;
+    mInUse = false;
+  }
+
+  void add(short input) {
+    ensureCapacity(1);
+    mInputs[mSize++] = input;
+  }
+
+  void add(short input, float value) {
+    ensureCapacity(2);
+    mInputs[mSize++] = input;
+    mInputs[mSize++] = value;
+  }
+
+  void add(short input, YogaEdge edge) {
+    ensureCapacity(2);
+    mInputs[mSize++] = input;
+    mInputs[mSize++] = edge.intValue();
+  }
+
+  void add(short input, YogaEdge edge, float value) {
+    ensureCapacity(3);
+    mInputs[mSize++] = input;
+    mInputs[mSize++] = edge.intValue();
+    mInputs[mSize++] = value;
+  }
+
+  /** Applies all the collected inputs to the given node in a single call. */
+  void applyTo(YogaNode node) {
+    if (mSize > 0) {
+      node.setStyleInputs(mInputs, mSize);
+    }
+  }
+
+  boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  @VisibleForTesting
+  int size() {
+    return mSize;
+  }
+
+  @VisibleForTesting
+  float[] getInputs() {
+    return mInputs;
+  }
+
+  private void ensureCapacity(int extra) {
+    if (mSize + extra > mInputs.length) {
+      final float[] inputs = new float[Math.max(mInputs.length * 2, mSize + extra)];
+      System.arraycopy(mInputs, 0, inputs, 0, mSize);
+      mInputs = inputs;
+    }
+  }
+}
@@ -119,6 +119,19 @@ public class ComponentsConfiguration {
    */
   public static boolean useNewGenerateMechanismForGlobalKeys = false;
 
+  /**
+   * If true, the global key of a child component is a fixed size hash of its parent global key and
+   * its own key instead of their concatenation, so keys don't get longer with the depth of the
+   * tree. The readable key is only rebuilt on demand for debugging.
+   */
+  public static boolean useHashedGlobalKeys = false;
+
+  /**
+   * Default number of layouts for other size specs a ComponentTree keeps to avoid re-layouts on
+   * size changes such as rotation, see ComponentTree.Builder#alternateLayoutCount. 0 disables it.
+   */
+  public static int defaultAlternateLayoutCount = 0;
+
   /** Whether to unmount all contents of LithoView when its ComponentTree is set to null. */
   public static boolean unmountAllWhenComponentTreeSetToNull = false;
 
@@ -220,6 +233,36 @@ public class ComponentsConfiguration {
    */
   public static boolean shouldUseDeepCloneDuringReconciliation = false;
 
+  /**
+   * When enabled a layout which reconciles against the previous InternalNode tree takes ownership
+   * of it and moves the YogaNodes of unchanged subtrees to the new tree instead of cloning them.
+   * Their InternalNodes and components are still copied. Not used in debug mode, which needs the
+   * previous tree.
+   */
+  public static boolean useStructuralSharingDuringReconciliation = false;
+
+  /**
+   * When enabled together with {@link #useStructuralSharingDuringReconciliation}, collecting the
+   * results of a layout doesn't call onBoundsDefined again for components of unchanged subtrees
+   * which were not measured again and whose layout is the same as in the previous layout. Their
+   * components are copied with the outputs of the previous call.
+   */
+  public static boolean skipBoundsDefinedForUnchangedNodes = false;
+
+  /**
+   * When enabled a layout for a new root reuses the InternalNode subtrees of the previous layout
+   * whose components have equivalent props and no pending state updates, instead of creating and
+   * measuring them again.
+   */
+  public static boolean usePropChangeReconciliation = false;
+
+  /**
+   * When enabled the MountState of a LithoView passes the visible rect of each nested LithoView
+   * down during incremental mount, instead of each nested LithoView walking up the view hierarchy
+   * to find it. Nested LithoViews whose visible rect didn't change are not mounted again.
+   */
+  public static boolean propagateVisibleRectToNestedLithoViews = false;
+
   /** When enabled it would use Internal Nodes for layout diffing instead Diff Nodes. */
   public static boolean useInternalNodesForLayoutDiffing = false;
 
@@ -253,4 +296,24 @@ public class ComponentsConfiguration {
   public static boolean disableHostSuppressInvalidations = false;
 
   public static boolean isGlobalComponentsPoolEnabled = false;
+
+  /**
+   * When enabled the Yoga style props copied into an InternalNode are collected into a primitive
+   * buffer and applied with a single JNI call per node.
+   */
+  public static boolean useBatchedYogaStyleInputs = false;
+
+  /**
+   * Maximum number of values computed by OnCalculateCachedValue kept per ComponentTree or
+   * SectionTree, and of Kotlin useCached values kept per ComponentTree. Least recently used values
+   * are evicted first. A non positive value means the cache is unbounded.
+   */
+  public static int cachedValuesMaxSize = 0;
+
+  /**
+   * Default number of rows a RecyclerBinder starts laying out in parallel when it fills its
+   * viewport during measure, see RecyclerBinder.Builder#parallelViewportFillCount. A non positive
+   * value lays out the rows one after another.
+   */
+  public static int parallelViewportFillCount = 0;
 }
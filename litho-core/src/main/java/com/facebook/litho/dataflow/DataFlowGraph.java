@@ -51,6 +51,31 @@ public class DataFlowGraph {
 
     private boolean isFinished = false;
     private int refCount = 0;
+    private Subgraph subgraph;
+  }
+
+  /**
+   * A set of {@link GraphBinding}s whose nodes are connected to each other, along with the
+   * topological order of those nodes. Since bindings in different subgraphs can't affect each
+   * other, adding or removing a binding only needs to re-sort the subgraph it belongs to.
+   */
+  private static class Subgraph {
+
+    private final ArrayList<GraphBinding> bindings = new ArrayList<>();
+    private final ArrayList<ValueNode> sortedNodes = new ArrayList<>();
+    private boolean isDirty = true;
+    private int index;
+
+    /**
+     * The states of {@link #sortedNodes} and of their inputs, cached when the nodes are sorted so
+     * that checking for finished nodes on every frame doesn't need map lookups or iterators. The
+     * input states of the node at index i are in {@code inputStates[inputsStart[i]]} to {@code
+     * inputStates[inputsStart[i + 1] - 1]}.
+     */
+    private NodeState[] nodeStates = new NodeState[0];
+
+    private NodeState[] inputStates = new NodeState[0];
+    private int[] inputsStart = new int[1];
   }
 
   /**
@@ -73,15 +98,22 @@ public class DataFlowGraph {
   private final TimingSource mTimingSource;
 
   @GuardedBy("this")
-  private final ArrayList<GraphBinding> mBindings = new ArrayList<>();
+  private final ArrayList<Subgraph> mSubgraphs = new ArrayList<>();
 
   @GuardedBy("this")
-  private final ArrayList<ValueNode> mSortedNodes = new ArrayList<>();
+  private final Map<GraphBinding, Subgraph> mBindingsToSubgraphs = new HashMap<>();
 
   @GuardedBy("this")
   private final Map<ValueNode, NodeState> mNodeStates = new HashMap<>();
 
-  private boolean mIsDirty = false;
+  @GuardedBy("this")
+  private final ArrayList<GraphBinding> mFinishedBindings = new ArrayList<>();
+
+  @GuardedBy("this")
+  private long mLastPropagateTimeNanos;
+
+  @GuardedBy("this")
+  private int mLastPropagatedNodesCount;
 
   private DataFlowGraph(TimingSource timingSource) {
     mTimingSource = timingSource;
@@ -95,12 +127,14 @@ public class DataFlowGraph {
     if (!binding.isActive()) {
       throw new RuntimeException("Expected added GraphBinding to be active: " + binding);
     }
-    mBindings.add(binding);
-    registerNodes(binding);
-    if (mBindings.size() == 1) {
+    final Subgraph subgraph = obtainSubgraphFor(binding);
+    subgraph.bindings.add(binding);
+    subgraph.isDirty = true;
+    mBindingsToSubgraphs.put(binding, subgraph);
+    registerNodes(binding, subgraph);
+    if (mBindingsToSubgraphs.size() == 1) {
       mTimingSource.start();
     }
-    mIsDirty = true;
   }
 
   /**
@@ -108,51 +142,135 @@ public class DataFlowGraph {
    * removed from the graph.
    */
   public synchronized void unregister(GraphBinding binding) {
-    if (!mBindings.remove(binding)) {
+    final Subgraph subgraph = mBindingsToSubgraphs.remove(binding);
+    if (subgraph == null || !subgraph.bindings.remove(binding)) {
       throw new RuntimeException("Tried to unregister non-existent binding");
     }
     unregisterNodes(binding);
-    if (mBindings.isEmpty()) {
+    if (subgraph.bindings.isEmpty()) {
+      removeSubgraph(subgraph);
+    } else {
+      subgraph.isDirty = true;
+    }
+    if (mBindingsToSubgraphs.isEmpty()) {
       mTimingSource.stop();
-      mSortedNodes.clear();
       if (!mNodeStates.isEmpty()) {
         throw new RuntimeException("Failed to clean up all nodes");
       }
     }
-    mIsDirty = true;
   }
 
   synchronized void doFrame(long frameTimeNanos) {
-    if (mIsDirty) {
-      regenerateSortedNodes();
+    final long startTimeNanos = System.nanoTime();
+    int propagatedNodesCount = 0;
+    for (int i = 0, size = mSubgraphs.size(); i < size; i++) {
+      final Subgraph subgraph = mSubgraphs.get(i);
+      if (subgraph.isDirty) {
+        regenerateSortedNodes(subgraph);
+        cacheNodeStates(subgraph);
+      }
+
+      propagate(subgraph, frameTimeNanos);
+      propagatedNodesCount += subgraph.sortedNodes.size();
     }
+    mLastPropagateTimeNanos = System.nanoTime() - startTimeNanos;
+    mLastPropagatedNodesCount = propagatedNodesCount;
 
-    propagate(frameTimeNanos);
     updateFinishedStates();
   }
 
+  /** @return the time spent sorting and propagating values through the graph in the last frame. */
+  public synchronized long getLastPropagateTimeNanos() {
+    return mLastPropagateTimeNanos;
+  }
+
+  /** @return the number of nodes whose value was calculated in the last frame. */
+  public synchronized int getLastPropagatedNodesCount() {
+    return mLastPropagatedNodesCount;
+  }
+
   @GuardedBy("this")
-  private void propagate(long frameTimeNanos) {
-    final int size = mSortedNodes.size();
-    for (int i = 0; i < size; i++) {
-      final ValueNode node = mSortedNodes.get(i);
+  private static void propagate(Subgraph subgraph, long frameTimeNanos) {
+    final ArrayList<ValueNode> sortedNodes = subgraph.sortedNodes;
+    for (int i = 0, size = sortedNodes.size(); i < size; i++) {
+      final ValueNode node = sortedNodes.get(i);
       node.doCalculateValue(frameTimeNanos);
     }
   }
 
+  /**
+   * Returns the subgraph the given binding should be added to. If the binding shares nodes with
+   * bindings from more than one subgraph, those subgraphs are merged.
+   */
   @GuardedBy("this")
-  private void regenerateSortedNodes() {
-    mSortedNodes.clear();
+  private Subgraph obtainSubgraphFor(GraphBinding binding) {
+    Subgraph subgraph = null;
+    final ArrayList<ValueNode> nodes = binding.getAllNodes();
+    for (int i = 0, size = nodes.size(); i < size; i++) {
+      final NodeState nodeState = mNodeStates.get(nodes.get(i));
+      if (nodeState == null || nodeState.subgraph == subgraph) {
+        continue;
+      }
+
+      subgraph = subgraph == null ? nodeState.subgraph : merge(subgraph, nodeState.subgraph);
+    }
+
+    if (subgraph == null) {
+      subgraph = new Subgraph();
+      subgraph.index = mSubgraphs.size();
+      mSubgraphs.add(subgraph);
+    }
 
-    if (mBindings.size() == 0) {
+    return subgraph;
+  }
+
+  @GuardedBy("this")
+  private Subgraph merge(Subgraph first, Subgraph second) {
+    final Subgraph into = first.bindings.size() >= second.bindings.size() ? first : second;
+    final Subgraph from = into == first ? second : first;
+
+    for (int i = 0, bindingsSize = from.bindings.size(); i < bindingsSize; i++) {
+      final GraphBinding binding = from.bindings.get(i);
+      into.bindings.add(binding);
+      mBindingsToSubgraphs.put(binding, into);
+      final ArrayList<ValueNode> nodes = binding.getAllNodes();
+      for (int j = 0, nodesSize = nodes.size(); j < nodesSize; j++) {
+        mNodeStates.get(nodes.get(j)).subgraph = into;
+      }
+    }
+
+    into.isDirty = true;
+    removeSubgraph(from);
+    return into;
+  }
+
+  @GuardedBy("this")
+  private void removeSubgraph(Subgraph subgraph) {
+    final int lastIndex = mSubgraphs.size() - 1;
+    final Subgraph last = mSubgraphs.remove(lastIndex);
+    if (last != subgraph) {
+      last.index = subgraph.index;
+      mSubgraphs.set(subgraph.index, last);
+    }
+    subgraph.bindings.clear();
+    subgraph.sortedNodes.clear();
+    cacheNodeStates(subgraph);
+  }
+
+  @GuardedBy("this")
+  private static void regenerateSortedNodes(Subgraph subgraph) {
+    final ArrayList<ValueNode> sortedNodes = subgraph.sortedNodes;
+    sortedNodes.clear();
+
+    if (subgraph.bindings.size() == 0) {
       return;
     }
 
     final ArraySet<ValueNode> leafNodes = new ArraySet<>();
     final SimpleArrayMap<ValueNode, Integer> nodesToOutputsLeft = new SimpleArrayMap<>();
 
-    for (int i = 0, bindingsSize = mBindings.size(); i < bindingsSize; i++) {
-      final ArrayList<ValueNode> nodes = mBindings.get(i).getAllNodes();
+    for (int i = 0, bindingsSize = subgraph.bindings.size(); i < bindingsSize; i++) {
+      final ArrayList<ValueNode> nodes = subgraph.bindings.get(i).getAllNodes();
       for (int j = 0, nodesSize = nodes.size(); j < nodesSize; j++) {
         final ValueNode node = nodes.get(j);
         final int outputCount = node.getOutputCount();
@@ -174,8 +292,9 @@ public class DataFlowGraph {
 
     while (!nodesToProcess.isEmpty()) {
       final ValueNode next = nodesToProcess.pollFirst();
-      mSortedNodes.add(next);
-      for (ValueNode input : next.getAllInputs()) {
+      sortedNodes.add(next);
+      for (int i = 0, inputCount = next.getInputCount(); i < inputCount; i++) {
+        final ValueNode input = next.getInputAt(i);
         final int outputsLeft = nodesToOutputsLeft.get(input) - 1;
         nodesToOutputsLeft.put(input, outputsLeft);
         if (outputsLeft == 0) {
@@ -187,13 +306,42 @@ public class DataFlowGraph {
     }
 
     int expectedTotalNodes = nodesToOutputsLeft.size() + leafNodes.size();
-    if (mSortedNodes.size() != expectedTotalNodes) {
+    if (sortedNodes.size() != expectedTotalNodes) {
       throw new DetectedCycleException(
           "Had unreachable nodes in graph -- this likely means there was a cycle");
     }
 
-    Collections.reverse(mSortedNodes);
-    mIsDirty = false;
+    Collections.reverse(sortedNodes);
+    subgraph.isDirty = false;
+  }
+
+  @GuardedBy("this")
+  private void cacheNodeStates(Subgraph subgraph) {
+    final ArrayList<ValueNode> sortedNodes = subgraph.sortedNodes;
+    final int size = sortedNodes.size();
+
+    int totalInputCount = 0;
+    for (int i = 0; i < size; i++) {
+      totalInputCount += sortedNodes.get(i).getInputCount();
+    }
+
+    final NodeState[] nodeStates = new NodeState[size];
+    final NodeState[] inputStates = new NodeState[totalInputCount];
+    final int[] inputsStart = new int[size + 1];
+    int inputIndex = 0;
+    for (int i = 0; i < size; i++) {
+      final ValueNode node = sortedNodes.get(i);
+      nodeStates[i] = mNodeStates.get(node);
+      inputsStart[i] = inputIndex;
+      for (int j = 0, inputCount = node.getInputCount(); j < inputCount; j++) {
+        inputStates[inputIndex++] = mNodeStates.get(node.getInputAt(j));
+      }
+    }
+    inputsStart[size] = inputIndex;
+
+    subgraph.nodeStates = nodeStates;
+    subgraph.inputStates = inputStates;
+    subgraph.inputsStart = inputsStart;
   }
 
   @GuardedBy("this")
@@ -204,26 +352,31 @@ public class DataFlowGraph {
 
   @GuardedBy("this")
   private void updateFinishedNodes() {
-    for (int i = 0, size = mSortedNodes.size(); i < size; i++) {
-      final ValueNode node = mSortedNodes.get(i);
-      final NodeState nodeState = mNodeStates.get(node);
-      if (nodeState.isFinished || !areInputsFinished(node)) {
-        continue;
-      }
+    for (int i = 0, subgraphsSize = mSubgraphs.size(); i < subgraphsSize; i++) {
+      final Subgraph subgraph = mSubgraphs.get(i);
+      final NodeState[] nodeStates = subgraph.nodeStates;
+      final int[] inputsStart = subgraph.inputsStart;
+      for (int j = 0, size = nodeStates.length; j < size; j++) {
+        final NodeState nodeState = nodeStates[j];
+        if (nodeState.isFinished
+            || !areInputsFinished(subgraph.inputStates, inputsStart[j], inputsStart[j + 1])) {
+          continue;
+        }
 
-      final boolean nodeIsNowFinished =
-          !(node instanceof NodeCanFinish) || ((NodeCanFinish) node).isFinished();
-      if (nodeIsNowFinished) {
-        nodeState.isFinished = true;
+        final ValueNode node = subgraph.sortedNodes.get(j);
+        final boolean nodeIsNowFinished =
+            !(node instanceof NodeCanFinish) || ((NodeCanFinish) node).isFinished();
+        if (nodeIsNowFinished) {
+          nodeState.isFinished = true;
+        }
       }
     }
   }
 
   @GuardedBy("this")
-  private boolean areInputsFinished(ValueNode node) {
-    for (ValueNode input : node.getAllInputs()) {
-      final NodeState nodeState = mNodeStates.get(input);
-      if (!nodeState.isFinished) {
+  private static boolean areInputsFinished(NodeState[] inputStates, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (!inputStates[i].isFinished) {
         return false;
       }
     }
@@ -232,27 +385,40 @@ public class DataFlowGraph {
 
   @GuardedBy("this")
   private void notifyFinishedBindings() {
-    // Iterate in reverse order since notifying that a binding is finished results in removing
-    // that binding.
-    for (int i = mBindings.size() - 1; i >= 0; i--) {
-      final GraphBinding binding = mBindings.get(i);
-      boolean allAreFinished = true;
-      final ArrayList<ValueNode> nodesToCheck = binding.getAllNodes();
-      for (int j = 0, nodesSize = nodesToCheck.size(); j < nodesSize; j++) {
-        final NodeState nodeState = mNodeStates.get(nodesToCheck.get(j));
-        if (!nodeState.isFinished) {
-          allAreFinished = false;
-          break;
+    for (int i = 0, subgraphsSize = mSubgraphs.size(); i < subgraphsSize; i++) {
+      final ArrayList<GraphBinding> bindings = mSubgraphs.get(i).bindings;
+      for (int j = 0, bindingsSize = bindings.size(); j < bindingsSize; j++) {
+        final GraphBinding binding = bindings.get(j);
+        if (areAllNodesFinished(binding)) {
+          mFinishedBindings.add(binding);
         }
       }
-      if (allAreFinished) {
+    }
+
+    // Notifying that a binding is finished results in removing that binding, so collect them first.
+    for (int i = 0, size = mFinishedBindings.size(); i < size; i++) {
+      final GraphBinding binding = mFinishedBindings.get(i);
+      if (mBindingsToSubgraphs.containsKey(binding)) {
         binding.notifyNodesHaveFinished();
       }
     }
+    mFinishedBindings.clear();
+  }
+
+  @GuardedBy("this")
+  private boolean areAllNodesFinished(GraphBinding binding) {
+    final ArrayList<ValueNode> nodesToCheck = binding.getAllNodes();
+    for (int i = 0, nodesSize = nodesToCheck.size(); i < nodesSize; i++) {
+      final NodeState nodeState = mNodeStates.get(nodesToCheck.get(i));
+      if (!nodeState.isFinished) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @GuardedBy("this")
-  private void registerNodes(GraphBinding binding) {
+  private void registerNodes(GraphBinding binding, Subgraph subgraph) {
     final ArrayList<ValueNode> nodes = binding.getAllNodes();
     for (int i = 0, size = nodes.size(); i < size; i++) {
       final ValueNode node = nodes.get(i);
@@ -262,6 +428,7 @@ public class DataFlowGraph {
       } else {
         final NodeState newState = new NodeState();
         newState.refCount = 1;
+        newState.subgraph = subgraph;
         mNodeStates.put(node, newState);
       }
     }
@@ -283,6 +450,6 @@ public class DataFlowGraph {
   @VisibleForTesting
   @GuardedBy("this")
   boolean hasReferencesToNodes() {
-    return !mBindings.isEmpty() || !mSortedNodes.isEmpty() || !mNodeStates.isEmpty();
+    return !mBindingsToSubgraphs.isEmpty() || !mSubgraphs.isEmpty() || !mNodeStates.isEmpty();
   }
 }
@@ -43,6 +43,8 @@ public abstract class ValueNode {
   public static final String DEFAULT_INPUT = "default_input";
 
   private Map<String, ValueNode> mInputs = null;
+  /** The values of {@link #mInputs}, so that they can be iterated without allocating. */
+  private ArrayList<ValueNode> mInputsList = null;
   private ArrayList<ValueNode> mOutputs = null;
   private float mValue;
   private long mTimeNs = 0;
@@ -180,16 +182,28 @@ public abstract class ValueNode {
     return mInputs.values();
   }
 
+  ValueNode getInputAt(int i) {
+    return mInputsList.get(i);
+  }
+
   void setInput(String name, ValueNode input) {
     if (mInputs == null) {
       mInputs = new LinkedHashMap<>();
+      mInputsList = new ArrayList<>();
+    }
+    final ValueNode previous = mInputs.put(name, input);
+    if (previous != null) {
+      mInputsList.set(mInputsList.indexOf(previous), input);
+    } else {
+      mInputsList.add(input);
     }
-    mInputs.put(name, input);
   }
 
   void removeInput(String name) {
-    if (mInputs == null || mInputs.remove(name) == null) {
+    final ValueNode removed = mInputs == null ? null : mInputs.remove(name);
+    if (removed == null) {
       throw new RuntimeException("Tried to remove non-existent input with name: " + name);
     }
+    mInputsList.remove(removed);
   }
 }
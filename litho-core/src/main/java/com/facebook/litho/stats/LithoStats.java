@@ -34,6 +34,17 @@ public final class LithoStats {
   private static final AtomicLong sSectionCalculateNewChangesetCount = new AtomicLong(0);
   private static final AtomicLong sSectionCalculateNewChangesetOnUICount = new AtomicLong(0);
 
+  private static final PhaseMetrics sGlobalPhaseMetrics =
+      new PhaseMetrics(Math.min(32, 2 * Runtime.getRuntime().availableProcessors()), null);
+
+  /**
+   * @return the time and allocations spent in each phase by all the component and section trees of
+   *     the process.
+   */
+  public static PhaseMetrics getGlobalPhaseMetrics() {
+    return sGlobalPhaseMetrics;
+  }
+
   /**
    * @return the global count of all applied state updates (async, lazy and sync) in Litho
    *     components that have happened in the process.
@@ -238,5 +249,6 @@ public final class LithoStats {
     sSectionTriggeredAsyncStateUpdateCount.set(0);
     sSectionCalculateNewChangesetCount.set(0);
     sSectionCalculateNewChangesetOnUICount.set(0);
+    sGlobalPhaseMetrics.reset();
   }
 }
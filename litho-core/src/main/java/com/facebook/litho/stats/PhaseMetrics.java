@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.stats;
+
+import android.os.Debug;
+import androidx.annotation.IntDef;
+import androidx.annotation.Nullable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Aggregates the number of runs, the time and the allocations spent in each phase of the Litho
+ * pipeline. Every {@link com.facebook.litho.ComponentTree} and {@code SectionTree} owns an
+ * instance, and everything recorded on it is also recorded on the process wide instance returned by
+ * {@link LithoStats#getGlobalPhaseMetrics()}.
+ *
+ * <p>Counters are striped by thread so that recording is cheap enough to stay enabled in production
+ * builds: a record only touches the stripe of the calling thread, and the stripes are summed when
+ * the metrics are read.
+ *
+ * <p>Phases may nest; for example the time of a mount includes the visibility processing it
+ * triggers.
+ */
+public final class PhaseMetrics {
+
+  @IntDef({
+    PHASE_RESOLVE,
+    PHASE_MEASURE,
+    PHASE_COLLECT_RESULTS,
+    PHASE_MOUNT,
+    PHASE_INCREMENTAL_MOUNT,
+    PHASE_VISIBILITY,
+    PHASE_CHANGE_SET
+  })
+  @Retention(RetentionPolicy.SOURCE)
+  public @interface Phase {}
+
+  /** Creating or reconciling the {@code InternalNode} tree of the root component. */
+  public static final int PHASE_RESOLVE = 0;
+
+  /** Calculating the Yoga layout of the resolved tree. */
+  public static final int PHASE_MEASURE = 1;
+
+  /** Collecting the mountable outputs of a measured tree. */
+  public static final int PHASE_COLLECT_RESULTS = 2;
+
+  /** Mounting a new layout. */
+  public static final int PHASE_MOUNT = 3;
+
+  /** Mounting the same layout again for a new visible rect. */
+  public static final int PHASE_INCREMENTAL_MOUNT = 4;
+
+  /** Dispatching visibility events. */
+  public static final int PHASE_VISIBILITY = 5;
+
+  /** Calculating the change set of a section tree. */
+  public static final int PHASE_CHANGE_SET = 6;
+
+  public static final int PHASE_COUNT = 7;
+
+  /** Returns a monotonic count of the objects allocated, or a negative value if unknown. */
+  public interface AllocationCounter {
+    long getAllocationCount();
+  }
+
+  /**
+   * Counts the allocations of the calling thread with {@link Debug#getThreadAllocCount()}. It only
+   * reports allocations while {@link Debug#startAllocCounting()} is active, so it is meant for
+   * debug builds and benchmarks. These APIs are deprecated without a per-thread replacement, which
+   * is why this counter is only used when explicitly installed.
+   */
+  public static final AllocationCounter THREAD_ALLOCATION_COUNTER =
+      new AllocationCounter() {
+        @SuppressWarnings("deprecation")
+        @Override
+        public long getAllocationCount() {
+          return Debug.getThreadAllocCount();
+        }
+      };
+
+  private static final int FIELD_COUNT = 0;
+  private static final int FIELD_TIME_NANOS = 1;
+  private static final int FIELD_ALLOCATIONS = 2;
+  private static final int FIELDS_PER_PHASE = 3;
+  private static final int FIELDS_PER_STRIPE = PHASE_COUNT * FIELDS_PER_PHASE;
+
+  /** Trees are mostly updated from the main thread and a layout thread. */
+  private static final int DEFAULT_STRIPE_COUNT = 4;
+
+  private static volatile @Nullable AllocationCounter sAllocationCounter;
+
+  private final AtomicLongArray mCounters;
+  private final int mStripeMask;
+  private final @Nullable PhaseMetrics mParent;
+
+  public PhaseMetrics() {
+    this(DEFAULT_STRIPE_COUNT, LithoStats.getGlobalPhaseMetrics());
+  }
+
+  /** @param stripeCount rounded up to a power of two. */
+  PhaseMetrics(int stripeCount, @Nullable PhaseMetrics parent) {
+    int stripes = 1;
+    while (stripes < stripeCount) {
+      stripes <<= 1;
+    }
+    mCounters = new AtomicLongArray(stripes * FIELDS_PER_STRIPE);
+    mStripeMask = stripes - 1;
+    mParent = parent;
+  }
+
+  /**
+   * Sets the counter used to attribute allocations to phases, or disables allocation counting if
+   * null. Disabled by default.
+   */
+  public static void setAllocationCounter(@Nullable AllocationCounter allocationCounter) {
+    sAllocationCounter = allocationCounter;
+  }
+
+  /** @return the start time of a phase, to pass to {@link #record(int, long, long)}. */
+  public static long currentTimeNanos() {
+    return System.nanoTime();
+  }
+
+  /**
+   * @return the allocation count at the start of a phase, to pass to {@link #record(int, long,
+   *     long)}, or a negative value if allocations are not counted.
+   */
+  public static long currentAllocationCount() {
+    final AllocationCounter allocationCounter = sAllocationCounter;
+    return allocationCounter != null ? allocationCounter.getAllocationCount() : -1;
+  }
+
+  /**
+   * Records a run of a phase which started at {@code startTimeNanos} and {@code
+   * startAllocationCount}, as returned by {@link #currentTimeNanos()} and {@link
+   * #currentAllocationCount()}.
+   */
+  public void record(@Phase int phase, long startTimeNanos, long startAllocationCount) {
+    final long timeNanos = currentTimeNanos() - startTimeNanos;
+    long allocations = 0;
+    if (startAllocationCount >= 0) {
+      allocations = Math.max(0, currentAllocationCount() - startAllocationCount);
+    }
+
+    final int stripe = (int) Thread.currentThread().getId();
+    for (PhaseMetrics metrics = this; metrics != null; metrics = metrics.mParent) {
+      metrics.add(stripe, phase, timeNanos, allocations);
+    }
+  }
+
+  private void add(int stripe, int phase, long timeNanos, long allocations) {
+    final int offset = (stripe & mStripeMask) * FIELDS_PER_STRIPE + phase * FIELDS_PER_PHASE;
+    mCounters.incrementAndGet(offset + FIELD_COUNT);
+    mCounters.addAndGet(offset + FIELD_TIME_NANOS, timeNanos);
+    if (allocations > 0) {
+      mCounters.addAndGet(offset + FIELD_ALLOCATIONS, allocations);
+    }
+  }
+
+  /** @return how many times the phase ran. */
+  public long getCount(@Phase int phase) {
+    return sum(phase, FIELD_COUNT);
+  }
+
+  /** @return the total time spent in the phase. */
+  public long getTotalTimeNanos(@Phase int phase) {
+    return sum(phase, FIELD_TIME_NANOS);
+  }
+
+  /**
+   * @return the total number of objects allocated in the phase, or 0 if no {@link
+   *     AllocationCounter} was set.
+   */
+  public long getAllocationCount(@Phase int phase) {
+    return sum(phase, FIELD_ALLOCATIONS);
+  }
+
+  /** Resets the counters of this instance; aggregated counters are not affected. */
+  public void reset() {
+    for (int i = 0, length = mCounters.length(); i < length; i++) {
+      mCounters.set(i, 0);
+    }
+  }
+
+  private long sum(int phase, int field) {
+    long sum = 0;
+    for (int offset = phase * FIELDS_PER_PHASE + field;
+        offset < mCounters.length();
+        offset += FIELDS_PER_STRIPE) {
+      sum += mCounters.get(offset);
+    }
+    return sum;
+  }
+}
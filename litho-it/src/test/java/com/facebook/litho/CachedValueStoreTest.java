@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import android.content.ComponentCallbacks2;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(LithoTestRunner.class)
+public class CachedValueStoreTest {
+
+  @Test
+  public void testNonPositiveMaxSizeIsUnbounded() {
+    final CachedValueStore store = new CachedValueStore(0);
+    for (int i = 0; i < 1000; i++) {
+      store.put(i, "value" + i);
+    }
+
+    assertThat(store.size()).isEqualTo(1000);
+    assertThat(store.get(0)).isEqualTo("value0");
+  }
+
+  @Test
+  public void testLeastRecentlyUsedValueIsEvicted() {
+    final CachedValueStore store = new CachedValueStore(2);
+    store.put("a", 1);
+    store.put("b", 2);
+    store.get("a");
+    store.put("c", 3);
+
+    assertThat(store.get("a")).isEqualTo(1);
+    assertThat(store.get("b")).isNull();
+    assertThat(store.get("c")).isEqualTo(3);
+    assertThat(store.evictionCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testHitAndMissCounts() {
+    final CachedValueStore store = new CachedValueStore(10);
+    store.get("a");
+    store.put("a", 1);
+    store.get("a");
+    store.get("a");
+
+    assertThat(store.missCount()).isEqualTo(1);
+    assertThat(store.hitCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testPutNullRemovesValue() {
+    final CachedValueStore store = new CachedValueStore(10);
+    store.put("a", 1);
+    store.put("a", null);
+
+    assertThat(store.get("a")).isNull();
+    assertThat(store.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void testTrimMemory() {
+    final CachedValueStore store = new CachedValueStore(10);
+    for (int i = 0; i < 8; i++) {
+      store.put(i, i);
+    }
+
+    store.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+    assertThat(store.size()).isEqualTo(4);
+    assertThat(store.get(7)).isEqualTo(7);
+
+    store.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    assertThat(store.size()).isEqualTo(0);
+  }
+}
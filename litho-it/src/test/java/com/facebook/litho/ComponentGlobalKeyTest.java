@@ -23,6 +23,7 @@ import static org.assertj.core.api.Java6Assertions.assertThat;
 import android.util.Pair;
 import android.view.View;
 import com.facebook.litho.annotations.OnCreateLayout;
+import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.testing.TestDrawableComponent;
 import com.facebook.litho.testing.TestViewComponent;
 import com.facebook.litho.testing.inlinelayoutspec.InlineLayoutSpec;
@@ -33,6 +34,8 @@ import com.facebook.litho.widget.EditText;
 import com.facebook.litho.widget.Text;
 import com.facebook.litho.widget.TextInput;
 import com.facebook.litho.widget.TreePropTestContainerComponentSpec;
+import java.util.Arrays;
+import java.util.HashSet;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -441,6 +444,82 @@ public class ComponentGlobalKeyTest {
     Assert.assertEquals(rootGlobalKey, getComponentAt(lithoView, 7).getOwnerGlobalKey());
   }
 
+  @Test
+  public void testHashedGlobalKeys() {
+    final boolean useHashedGlobalKeys = ComponentsConfiguration.useHashedGlobalKeys;
+    ComponentsConfiguration.useHashedGlobalKeys = true;
+    try {
+      final Component component = getMultipleChildrenComponent();
+      final int layoutSpecId = component.getTypeId();
+      final int nestedLayoutSpecId = layoutSpecId - 1;
+      final int columnSpecId = Column.create(mContext).build().getTypeId();
+
+      final LithoView lithoView = getLithoView(component);
+      final ComponentTree componentTree = lithoView.getComponentTree();
+
+      final String textKey = getComponentAt(lithoView, 0).getGlobalKey();
+      final String nestedTextKey = getComponentAt(lithoView, 4).getGlobalKey();
+
+      assertThat(ComponentKeyUtils.isHashedGlobalKey(textKey)).isTrue();
+      assertThat(ComponentKeyUtils.isHashedGlobalKey(nestedTextKey)).isTrue();
+      assertThat(nestedTextKey.length()).isLessThanOrEqualTo(17);
+      assertThat(textKey).isNotEqualTo(nestedTextKey);
+
+      assertThat(componentTree.getReadableGlobalKey(textKey))
+          .isEqualTo(ComponentKeyUtils.getKeyWithSeparator(layoutSpecId, columnSpecId, "[Text2]"));
+      assertThat(componentTree.getReadableGlobalKey(nestedTextKey))
+          .isEqualTo(
+              ComponentKeyUtils.getKeyWithSeparator(
+                  layoutSpecId, columnSpecId, nestedLayoutSpecId, columnSpecId, "[Text1]"));
+
+      final HashedGlobalKeyRegistry registry = componentTree.getHashedGlobalKeyRegistry();
+      assertThat(registry.isSameOrDescendant(nestedTextKey, component.getKey())).isTrue();
+      assertThat(registry.isSameOrDescendant(nestedTextKey, textKey)).isFalse();
+    } finally {
+      ComponentsConfiguration.useHashedGlobalKeys = useHashedGlobalKeys;
+    }
+  }
+
+  @Test
+  public void testHashedGlobalKeysOfPreviousLayoutsArePruned() {
+    final HashedGlobalKeyRegistry registry = new HashedGlobalKeyRegistry();
+    final String committedKey = registry.registerGlobalKeyForChild("#1", "#0", "a", 0, 1);
+    final String removedKey = registry.registerGlobalKeyForChild("#2", "#0", "b", 0, 1);
+    final String pendingKey = registry.registerGlobalKeyForChild("#3", "#0", "c", 0, 3);
+
+    registry.prune(2, new HashSet<>(Arrays.asList(committedKey)));
+
+    assertThat(registry.size()).isEqualTo(2);
+    assertThat(registry.toReadableKey(committedKey)).isEqualTo("#0,a");
+    assertThat(registry.toReadableKey(removedKey)).isEqualTo(removedKey);
+    assertThat(registry.toReadableKey(pendingKey)).isEqualTo("#0,c");
+
+    // Registering the same key again reuses its entry.
+    assertThat(registry.registerGlobalKeyForChild("#1", "#0", "a", 0, 2)).isEqualTo(committedKey);
+    assertThat(registry.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void testHashedGlobalKeyForChildFollowsRehashedKeys() {
+    final boolean useHashedGlobalKeys = ComponentsConfiguration.useHashedGlobalKeys;
+    ComponentsConfiguration.useHashedGlobalKeys = true;
+    try {
+      final HashedGlobalKeyRegistry registry = new HashedGlobalKeyRegistry();
+      final String anchorKey = ComponentKeyUtils.getGlobalKeyForChild("#0", "anchor");
+      assertThat(registry.getGlobalKeyForChild("#0", "anchor")).isEqualTo(anchorKey);
+
+      // Another component already uses the key the anchor hashes to.
+      registry.registerGlobalKeyForChild(anchorKey, "#1", "other", 0, 1);
+      final String rehashedKey =
+          registry.registerGlobalKeyForChild(anchorKey, "#0", "anchor", 0, 1);
+
+      assertThat(rehashedKey).isNotEqualTo(anchorKey);
+      assertThat(registry.getGlobalKeyForChild("#0", "anchor")).isEqualTo(rehashedKey);
+    } finally {
+      ComponentsConfiguration.useHashedGlobalKeys = useHashedGlobalKeys;
+    }
+  }
+
   @Test
   @Ignore("T65213042") // Investigate, fix or remove
   public void nestedTreeRemeasureKeyStabilityTest() {
@@ -220,6 +220,28 @@ public class ComponentHostTest {
     verify(touchableDrawableOnItem2, times(1)).onTouchEvent((MotionEvent) any(), (View) any());
   }
 
+  @Test
+  public void testMoveEventsSkipBoundedTouchablesOutsideOfGestureStart() {
+    final BoundedTouchableDrawable touched = spy(new BoundedTouchableDrawable());
+    touched.setBounds(0, 0, 10, 10);
+    final BoundedTouchableDrawable notTouched = spy(new BoundedTouchableDrawable());
+    notTouched.setBounds(20, 0, 30, 10);
+
+    mount(0, touched);
+    mount(1, notTouched);
+
+    mHost.onTouchEvent(obtain(0, 0, MotionEvent.ACTION_DOWN, 5, 5, 0));
+    mHost.onTouchEvent(obtain(0, 0, MotionEvent.ACTION_MOVE, 25, 5, 0));
+
+    verify(touched, times(2)).shouldHandleTouchEvent((MotionEvent) any());
+    verify(notTouched, times(1)).shouldHandleTouchEvent((MotionEvent) any());
+
+    mHost.onTouchEvent(obtain(0, 0, MotionEvent.ACTION_UP, 25, 5, 0));
+    mHost.onTouchEvent(obtain(0, 0, MotionEvent.ACTION_MOVE, 25, 5, 0));
+
+    verify(notTouched, times(3)).shouldHandleTouchEvent((MotionEvent) any());
+  }
+
   @Test
   public void testOnTouchWithDisableTouchables() {
     assertThat(mHost.getMountItemAt(0)).isNull();
@@ -632,6 +654,19 @@ public class ComponentHostTest {
     assertThat(mHost.getContentDescriptions()).doesNotContain(viewContentDescription);
   }
 
+  @Test
+  public void testGetChildDrawingOrderWithManyChildren() {
+    final int count = 20;
+    // Mount views in reverse order so that the drawing order is the reverse of the child order.
+    for (int i = count - 1; i >= 0; i--) {
+      mount(i, new View(mContext.getAndroidContext()));
+    }
+
+    for (int i = 0; i < count; i++) {
+      assertThat(mHost.getChildDrawingOrder(count, i)).isEqualTo(count - 1 - i);
+    }
+  }
+
   @Test
   public void testGetChildDrawingOrder() {
     View v1 = new View(mContext.getAndroidContext());
@@ -1080,4 +1115,18 @@ public class ComponentHostTest {
       return true;
     }
   }
+
+  private static class BoundedTouchableDrawable extends ColorDrawable
+      implements BoundedTouchable {
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event, View host) {
+      return false;
+    }
+
+    @Override
+    public boolean shouldHandleTouchEvent(MotionEvent event) {
+      return false;
+    }
+  }
 }
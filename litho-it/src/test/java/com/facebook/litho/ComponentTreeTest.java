@@ -29,8 +29,10 @@ import static junit.framework.Assert.fail;
 import static org.assertj.core.api.Java6Assertions.assertThat;
 import static org.junit.Assert.assertNotEquals;
 
+import android.content.ComponentCallbacks2;
 import android.graphics.drawable.ColorDrawable;
 import android.os.Looper;
+import com.facebook.litho.stats.LithoStats;
 import com.facebook.litho.testing.BackgroundLayoutLooperRule;
 import com.facebook.litho.testing.LithoStatsRule;
 import com.facebook.litho.testing.TestDrawableComponent;
@@ -1628,6 +1630,20 @@ public class ComponentTreeTest {
     assertThat(componentTree.getCachedValue("key2")).isNull();
   }
 
+  @Test
+  public void testCachedValueStats() {
+    ComponentTree componentTree = ComponentTree.create(mContext, mComponent).build();
+    componentTree.getCachedValue("key1");
+    componentTree.putCachedValue("key1", "value1");
+    componentTree.getCachedValue("key1");
+    componentTree.getCachedValue("key1");
+
+    final CachedValueStats stats = componentTree.getCachedValueStats();
+    assertThat(stats.getSize()).isEqualTo(1);
+    assertThat(stats.getHitCount()).isEqualTo(2);
+    assertThat(stats.getMissCount()).isEqualTo(1);
+  }
+
   private static boolean isAttached(ComponentTree componentTree) {
     return Whitebox.getInternalState(componentTree, "mIsAttached");
   }
@@ -1933,4 +1949,115 @@ public class ComponentTreeTest {
 
     return latch;
   }
+
+  @Test
+  public void testMeasureReusesAlternateLayoutWhenGoingBackToPreviousSize() {
+    final ComponentTree componentTree =
+        ComponentTree.create(mContext, mComponent).alternateLayoutCount(2).build();
+    componentTree.setLithoView(new LithoView(mContext));
+
+    componentTree.measure(mWidthSpec, mHeightSpec, new int[2], false);
+    final LayoutState firstLayout = componentTree.getMainThreadLayoutState();
+
+    componentTree.measure(mWidthSpec2, mHeightSpec2, new int[2], false);
+    assertThat(componentTree.getMainThreadLayoutState()).isNotSameAs(firstLayout);
+    assertThat(componentTree.getAlternateLayoutCount()).isEqualTo(1);
+
+    final int[] measureOutput = new int[2];
+    componentTree.measure(mWidthSpec, mHeightSpec, measureOutput, false);
+
+    assertThat(componentTree.getMainThreadLayoutState()).isSameAs(firstLayout);
+    assertThat(measureOutput[0]).isEqualTo(SizeSpec.getSize(mWidthSpec));
+    assertThat(measureOutput[1]).isEqualTo(SizeSpec.getSize(mHeightSpec));
+  }
+
+  @Test
+  public void testMeasureUsesPreparedAlternateLayout() {
+    final ComponentTree componentTree =
+        ComponentTree.create(mContext, mComponent).alternateLayoutCount(1).build();
+    componentTree.setLithoView(new LithoView(mContext));
+
+    componentTree.measure(mWidthSpec, mHeightSpec, new int[2], false);
+    componentTree.calculateAlternateLayout(mWidthSpec2, mHeightSpec2);
+    assertThat(componentTree.getAlternateLayoutCount()).isEqualTo(1);
+
+    final long layoutCount = LithoStats.getComponentCalculateLayoutCount();
+    componentTree.measure(mWidthSpec2, mHeightSpec2, new int[2], false);
+
+    assertThat(LithoStats.getComponentCalculateLayoutCount()).isEqualTo(layoutCount);
+    assertThat(componentTree.getMainThreadLayoutState().getWidth())
+        .isEqualTo(SizeSpec.getSize(mWidthSpec2));
+  }
+
+  @Test
+  public void testSetSizeSpecAsyncCommitsAlternateLayoutWhenGoingBackToPreviousSize() {
+    final ComponentTree componentTree =
+        ComponentTree.create(mContext, mComponent).alternateLayoutCount(1).build();
+    componentTree.setLithoView(new LithoView(mContext));
+    final MeasureListener measureListener = new MeasureListener();
+    componentTree.addMeasureListener(measureListener);
+
+    componentTree.measure(mWidthSpec, mHeightSpec, new int[2], false);
+    final LayoutState firstLayout = componentTree.getMainThreadLayoutState();
+    componentTree.measure(mWidthSpec2, mHeightSpec2, new int[2], false);
+    assertThat(componentTree.getAlternateLayoutCount()).isEqualTo(1);
+
+    final long layoutCount = LithoStats.getComponentCalculateLayoutCount();
+    componentTree.setSizeSpecAsync(mWidthSpec, mHeightSpec);
+    mLayoutThreadShadowLooper.runToEndOfTasks();
+
+    assertThat(LithoStats.getComponentCalculateLayoutCount()).isEqualTo(layoutCount);
+    assertThat(componentTree.getCommittedLayoutState()).isSameAs(firstLayout);
+    assertThat(measureListener.mWidth).isEqualTo(SizeSpec.getSize(mWidthSpec));
+    assertThat(measureListener.mHeight).isEqualTo(SizeSpec.getSize(mHeightSpec));
+  }
+
+  @Test
+  public void testAlternateLayoutsAreDroppedOnTrimMemory() {
+    final ComponentTree componentTree =
+        ComponentTree.create(mContext, mComponent).alternateLayoutCount(1).build();
+    componentTree.setLithoView(new LithoView(mContext));
+
+    componentTree.measure(mWidthSpec, mHeightSpec, new int[2], false);
+    componentTree.calculateAlternateLayout(mWidthSpec2, mHeightSpec2);
+    assertThat(componentTree.getAlternateLayoutCount()).isEqualTo(1);
+
+    componentTree.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+
+    assertThat(componentTree.getAlternateLayoutCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testAlternateLayoutsAreDroppedOnDetach() {
+    final ComponentTree componentTree =
+        ComponentTree.create(mContext, mComponent).alternateLayoutCount(1).build();
+    componentTree.setLithoView(new LithoView(mContext));
+    componentTree.attach();
+
+    componentTree.measure(mWidthSpec, mHeightSpec, new int[2], false);
+    componentTree.calculateAlternateLayout(mWidthSpec2, mHeightSpec2);
+    assertThat(componentTree.getAlternateLayoutCount()).isEqualTo(1);
+
+    componentTree.detach();
+
+    assertThat(componentTree.getAlternateLayoutCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testAlternateLayoutsAreDroppedWhenRootChanges() {
+    final ComponentTree componentTree =
+        ComponentTree.create(mContext, mComponent).alternateLayoutCount(1).build();
+    componentTree.setLithoView(new LithoView(mContext));
+
+    componentTree.measure(mWidthSpec, mHeightSpec, new int[2], false);
+    componentTree.calculateAlternateLayout(mWidthSpec2, mHeightSpec2);
+    componentTree.setRoot(TestDrawableComponent.create(mContext).build());
+
+    assertThat(componentTree.getAlternateLayoutCount()).isEqualTo(0);
+
+    final long layoutCount = LithoStats.getComponentCalculateLayoutCount();
+    componentTree.measure(mWidthSpec2, mHeightSpec2, new int[2], false);
+
+    assertThat(LithoStats.getComponentCalculateLayoutCount()).isGreaterThan(layoutCount);
+  }
 }
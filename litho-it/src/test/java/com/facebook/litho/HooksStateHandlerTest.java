@@ -18,13 +18,21 @@ package com.facebook.litho;
 
 import static org.assertj.core.api.Java6Assertions.assertThat;
 
+import android.content.ComponentCallbacks2;
+import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 @RunWith(LithoTestRunner.class)
 public class HooksStateHandlerTest {
 
+  @After
+  public void after() {
+    ComponentsConfiguration.cachedValuesMaxSize = 0;
+  }
+
   @Test
   public void testCopyStateHandlerWithoutHooks() {
     final StateHandler first = new StateHandler();
@@ -197,4 +205,90 @@ public class HooksStateHandlerTest {
         .extracting("foo", "bar", "baz", "newKey")
         .containsExactly("test", 7, bazState, "newValue");
   }
+
+  @Test
+  public void testHookSlotsAreCopiedAndCommitted() {
+    final StateHandler first = new StateHandler();
+    first.getHookSlots("key").add("test");
+    first.getHookSlots("key").add(4);
+    first.queueHookStateUpdate(
+        new HookUpdater() {
+          @Override
+          public void apply(StateHandler stateHandler) {
+            stateHandler.getHookSlots("key").set(1, 5);
+          }
+        });
+
+    final StateHandler second = new StateHandler(first);
+
+    assertThat(second.isEmpty()).isFalse();
+    assertThat(second.getHookSlots("key")).containsExactly("test", 5);
+    assertThat(first.getHookSlots("key")).containsExactly("test", 4);
+
+    first.commit(second);
+    second.getHookSlots("key").set(0, "changed");
+
+    assertThat(first.hasPendingUpdates()).isFalse();
+    assertThat(first.getHookSlots("key")).containsExactly("test", 5);
+  }
+
+  @Test
+  public void testHookSlotsWrittenAfterCopyAreNotShared() {
+    final StateHandler first = new StateHandler();
+    first.getHookSlots("key").add("test");
+    first.getHookEventHandlers("key").add("handler");
+    first.getHookCachedValues("key").add("value");
+
+    final StateHandler second = new StateHandler(first);
+    first.getHookSlots("key").add("first");
+    first.getHookEventHandlers("key").add("first");
+    first.getHookCachedValues("key").add("first");
+
+    assertThat(second.getHookSlots("key")).containsExactly("test");
+    assertThat(second.getHookEventHandlers("key")).containsExactly("handler");
+    assertThat(second.getHookCachedValues("key")).containsExactly("value");
+
+    second.getHookSlots("key").add("second");
+    final StateHandler third = new StateHandler(second);
+    second.getHookSlots("key").add("second2");
+
+    assertThat(first.getHookSlots("key")).containsExactly("test", "first");
+    assertThat(third.getHookSlots("key")).containsExactly("test", "second");
+  }
+
+  @Test
+  public void testHookCachedValuesOfLeastRecentlyRenderedComponentsAreDropped() {
+    ComponentsConfiguration.cachedValuesMaxSize = 3;
+    final StateHandler first = new StateHandler();
+    final StateHandler second = new StateHandler(first);
+    second.getHookCachedValues("a").add("a1");
+    second.getHookCachedValues("b").add("b1");
+    second.getHookCachedValues("b").add("b2");
+    second.getHookCachedValues("a");
+    second.getHookCachedValues("c").add("c1");
+
+    first.commit(second);
+    final StateHandler third = new StateHandler(first);
+
+    assertThat(third.getHookCachedValues("a")).containsExactly("a1");
+    assertThat(third.getHookCachedValues("b")).isEmpty();
+    assertThat(third.getHookCachedValues("c")).containsExactly("c1");
+  }
+
+  @Test
+  public void testHookCachedValuesAreTrimmedOnMemoryPressure() {
+    final StateHandler stateHandler = new StateHandler();
+    stateHandler.getHookCachedValues("a").add("a1");
+    stateHandler.getHookCachedValues("b").add("b1");
+
+    stateHandler.trimCachedValues(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+
+    assertThat(stateHandler.getHookCachedValues("a")).isEmpty();
+    assertThat(stateHandler.getHookCachedValues("b")).containsExactly("b1");
+
+    stateHandler.trimCachedValues(ComponentCallbacks2.TRIM_MEMORY_MODERATE);
+
+    assertThat(stateHandler.getHookCachedValues("a")).isEmpty();
+    assertThat(stateHandler.getHookCachedValues("b")).isEmpty();
+  }
 }
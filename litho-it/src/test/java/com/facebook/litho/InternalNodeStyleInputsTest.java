@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import androidx.annotation.Nullable;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import com.facebook.yoga.YogaAlign;
+import com.facebook.yoga.YogaEdge;
+import com.facebook.yoga.YogaNode;
+import com.facebook.yoga.YogaPositionType;
+import com.facebook.yoga.YogaStyleInputs;
+import com.facebook.yoga.YogaUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(LithoTestRunner.class)
+public class InternalNodeStyleInputsTest {
+
+  private boolean mDefaultUseBatchedYogaStyleInputs;
+  private ComponentContext mContext;
+
+  @Before
+  public void setup() {
+    mDefaultUseBatchedYogaStyleInputs = ComponentsConfiguration.useBatchedYogaStyleInputs;
+    ComponentsConfiguration.useBatchedYogaStyleInputs = true;
+    mContext = new ComponentContext(getApplicationContext());
+  }
+
+  @After
+  public void restore() {
+    ComponentsConfiguration.useBatchedYogaStyleInputs = mDefaultUseBatchedYogaStyleInputs;
+  }
+
+  @Test
+  public void testBufferEncodesOpcodesAndArguments() {
+    final YogaStyleInputsBuffer buffer = YogaStyleInputsBuffer.acquire();
+    buffer.add(YogaStyleInputs.WIDTH, 10);
+    buffer.add(YogaStyleInputs.MARGIN_AUTO, YogaEdge.LEFT);
+    buffer.add(YogaStyleInputs.PADDING, YogaEdge.TOP, 5);
+    buffer.add(YogaStyleInputs.HEIGHT_AUTO);
+
+    assertThat(buffer.size()).isEqualTo(8);
+    final float[] inputs = buffer.getInputs();
+    assertThat(inputs[0]).isEqualTo(YogaStyleInputs.WIDTH);
+    assertThat(inputs[1]).isEqualTo(10f);
+    assertThat(inputs[2]).isEqualTo(YogaStyleInputs.MARGIN_AUTO);
+    assertThat(inputs[3]).isEqualTo(YogaEdge.LEFT.intValue());
+    assertThat(inputs[4]).isEqualTo(YogaStyleInputs.PADDING);
+    assertThat(inputs[5]).isEqualTo(YogaEdge.TOP.intValue());
+    assertThat(inputs[6]).isEqualTo(5f);
+    assertThat(inputs[7]).isEqualTo(YogaStyleInputs.HEIGHT_AUTO);
+
+    buffer.release();
+    assertThat(buffer.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void testBufferGrowsPastInitialCapacity() {
+    final YogaStyleInputsBuffer buffer = YogaStyleInputsBuffer.acquire();
+    for (int i = 0; i < 100; i++) {
+      buffer.add(YogaStyleInputs.FLEX_GROW, i);
+    }
+
+    assertThat(buffer.size()).isEqualTo(200);
+    assertThat(buffer.getInputs()[199]).isEqualTo(99f);
+    buffer.release();
+  }
+
+  @Test
+  public void testNestedAcquireReturnsDifferentBuffer() {
+    final YogaStyleInputsBuffer outer = YogaStyleInputsBuffer.acquire();
+    final YogaStyleInputsBuffer inner = YogaStyleInputsBuffer.acquire();
+
+    assertThat(inner).isNotSameAs(outer);
+
+    inner.release();
+    outer.release();
+  }
+
+  @Test
+  public void testBatchedStyleIsAppliedToYogaNode() {
+    final InternalNode node = new DefaultInternalNode(mContext);
+
+    node.beginStyleInputsBatch();
+    node.widthPx(100);
+    node.heightPercent(50);
+    node.alignSelf(YogaAlign.CENTER);
+    node.positionType(YogaPositionType.ABSOLUTE);
+    node.marginPx(YogaEdge.LEFT, 8);
+    node.paddingPx(YogaEdge.TOP, 4);
+    node.setBorderWidth(YogaEdge.ALL, 2);
+    node.flexGrow(1);
+
+    final YogaNode yogaNode = node.getYogaNode();
+    assertThat(yogaNode.getWidth().unit).isEqualTo(YogaUnit.UNDEFINED);
+
+    node.applyStyleInputsBatch();
+
+    assertThat(yogaNode.getWidth().value).isEqualTo(100f);
+    assertThat(yogaNode.getHeight().unit).isEqualTo(YogaUnit.PERCENT);
+    assertThat(yogaNode.getHeight().value).isEqualTo(50f);
+    assertThat(yogaNode.getAlignSelf()).isEqualTo(YogaAlign.CENTER);
+    assertThat(yogaNode.getPositionType()).isEqualTo(YogaPositionType.ABSOLUTE);
+    assertThat(yogaNode.getMargin(YogaEdge.LEFT).value).isEqualTo(8f);
+    assertThat(yogaNode.getPadding(YogaEdge.TOP).value).isEqualTo(4f);
+    assertThat(yogaNode.getBorder(YogaEdge.ALL)).isEqualTo(2f);
+    assertThat(yogaNode.getFlexGrow()).isEqualTo(1f);
+  }
+
+  @Test
+  public void testCopyIntoEndsBatchWhenASetterThrows() {
+    final CommonPropsHolder commonProps = new CommonPropsHolder();
+    commonProps.widthPx(100);
+    commonProps.testKey("test");
+    final InternalNode node =
+        new DefaultInternalNode(mContext) {
+          @Override
+          public InternalNode testKey(@Nullable String testKey) {
+            throw new IllegalStateException("testKey");
+          }
+        };
+
+    try {
+      commonProps.copyInto(mContext, node);
+      fail("copyInto should have thrown");
+    } catch (IllegalStateException expected) {
+      // The setter of the test key throws.
+    }
+
+    final YogaStyleInputsBuffer first = YogaStyleInputsBuffer.acquire();
+    first.release();
+    final YogaStyleInputsBuffer second = YogaStyleInputsBuffer.acquire();
+    second.release();
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  public void testSettersApplyDirectlyOutsideOfBatch() {
+    final InternalNode node = new DefaultInternalNode(mContext);
+
+    node.widthPx(100);
+
+    assertThat(node.getYogaNode().getWidth().value).isEqualTo(100f);
+  }
+}
@@ -20,10 +20,12 @@ import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
 import static org.assertj.core.api.Java6Assertions.assertThat;
 
 import com.facebook.litho.stats.LithoStats;
+import com.facebook.litho.stats.PhaseMetrics;
 import com.facebook.litho.testing.helper.ComponentTestHelper;
 import com.facebook.litho.testing.logging.TestComponentsLogger;
 import com.facebook.litho.testing.testrunner.LithoTestRunner;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -153,4 +155,60 @@ public class LithoStatsTest {
     final long afterMountCount = LithoStats.getComponentMountCount();
     assertThat(afterMountCount - beforeMountCount).isEqualTo(1);
   }
+
+  @Test
+  public void setRoot_recordsLayoutPhasesOnTreeAndGlobalMetrics() {
+    final PhaseMetrics treeMetrics = mComponentTree.getPhaseMetrics();
+    final PhaseMetrics globalMetrics = LithoStats.getGlobalPhaseMetrics();
+    final long beforeTreeResolveCount = treeMetrics.getCount(PhaseMetrics.PHASE_RESOLVE);
+    final long beforeGlobalResolveCount = globalMetrics.getCount(PhaseMetrics.PHASE_RESOLVE);
+    final long beforeMeasureCount = treeMetrics.getCount(PhaseMetrics.PHASE_MEASURE);
+    final long beforeCollectResultsCount =
+        treeMetrics.getCount(PhaseMetrics.PHASE_COLLECT_RESULTS);
+
+    mComponentTree.setRoot(new StateUpdateTestComponent());
+
+    assertThat(treeMetrics.getCount(PhaseMetrics.PHASE_RESOLVE) - beforeTreeResolveCount)
+        .isEqualTo(1);
+    assertThat(globalMetrics.getCount(PhaseMetrics.PHASE_RESOLVE) - beforeGlobalResolveCount)
+        .isGreaterThanOrEqualTo(1);
+    assertThat(treeMetrics.getCount(PhaseMetrics.PHASE_MEASURE) - beforeMeasureCount)
+        .isEqualTo(1);
+    assertThat(
+            treeMetrics.getCount(PhaseMetrics.PHASE_COLLECT_RESULTS) - beforeCollectResultsCount)
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void phaseMetrics_recordsTimeAndAllocations() {
+    final PhaseMetrics metrics = new PhaseMetrics();
+    final AtomicLong allocations = new AtomicLong(100);
+    PhaseMetrics.setAllocationCounter(
+        new PhaseMetrics.AllocationCounter() {
+          @Override
+          public long getAllocationCount() {
+            return allocations.get();
+          }
+        });
+
+    try {
+      final long startTimeNanos = PhaseMetrics.currentTimeNanos();
+      final long startAllocationCount = PhaseMetrics.currentAllocationCount();
+      allocations.addAndGet(42);
+      metrics.record(PhaseMetrics.PHASE_MOUNT, startTimeNanos, startAllocationCount);
+    } finally {
+      PhaseMetrics.setAllocationCounter(null);
+    }
+
+    metrics.record(PhaseMetrics.PHASE_MOUNT, PhaseMetrics.currentTimeNanos(), -1);
+
+    assertThat(metrics.getCount(PhaseMetrics.PHASE_MOUNT)).isEqualTo(2);
+    assertThat(metrics.getAllocationCount(PhaseMetrics.PHASE_MOUNT)).isEqualTo(42);
+    assertThat(metrics.getTotalTimeNanos(PhaseMetrics.PHASE_MOUNT)).isGreaterThanOrEqualTo(0);
+    assertThat(metrics.getCount(PhaseMetrics.PHASE_INCREMENTAL_MOUNT)).isEqualTo(0);
+
+    metrics.reset();
+
+    assertThat(metrics.getCount(PhaseMetrics.PHASE_MOUNT)).isEqualTo(0);
+  }
 }
@@ -37,6 +37,7 @@ import static org.mockito.Mockito.when;
 import android.content.Context;
 import android.graphics.Rect;
 import android.view.ViewGroup;
+import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.testing.LithoViewRule;
 import com.facebook.litho.testing.TestComponent;
 import com.facebook.litho.testing.TestDrawableComponent;
@@ -475,6 +476,102 @@ public class MountStateIncrementalMountTest {
     verify(childView3).notifyVisibleBoundsChanged();
   }
 
+  @Test
+  public void testChildViewGroupVisibleRectsArePropagated() {
+    final ViewGroup mountedView = mock(ViewGroup.class);
+    when(mountedView.getWidth()).thenReturn(100);
+    when(mountedView.getHeight()).thenReturn(100);
+    when(mountedView.getScaleX()).thenReturn(1f);
+    when(mountedView.getScaleY()).thenReturn(1f);
+    when(mountedView.getChildCount()).thenReturn(3);
+
+    final LithoView childView1 = getMockLithoViewWithBounds(new Rect(5, 10, 20, 30));
+    final LithoView childView2 = getMockLithoViewWithBounds(new Rect(10, 10, 50, 60));
+    final LithoView childView3 = getMockLithoViewWithBounds(new Rect(30, 35, 50, 60));
+    final LithoView[] children = {childView1, childView2, childView3};
+    for (int i = 0; i < children.length; i++) {
+      when(children[i].getParent()).thenReturn(mountedView);
+      when(children[i].getScaleX()).thenReturn(1f);
+      when(children[i].getScaleY()).thenReturn(1f);
+      when(mountedView.getChildAt(i)).thenReturn(children[i]);
+    }
+
+    expectVisibleRectFromHost(childView1, new Rect(10, 5, 15, 20));
+    expectVisibleRectFromHost(childView2, new Rect(5, 5, 30, 30));
+    expectVisibleRectFromHost(childView3, new Rect(0, 0, 10, 5));
+
+    final Component root = TestViewComponent.create(mContext).testView(mountedView).build();
+    mLithoViewRule
+        .setRoot(root)
+        .attachToWindow()
+        .setSizeSpecs(makeSizeSpec(1000, EXACTLY), makeSizeSpec(1000, EXACTLY))
+        .measure()
+        .layout();
+
+    final LithoView lithoView = mLithoViewRule.getLithoView();
+    when(mountedView.getParent()).thenReturn(lithoView);
+
+    ComponentsConfiguration.propagateVisibleRectToNestedLithoViews = true;
+    try {
+      lithoView.getComponentTree().mountComponent(new Rect(15, 15, 40, 40), true);
+    } finally {
+      ComponentsConfiguration.propagateVisibleRectToNestedLithoViews = false;
+    }
+
+    for (LithoView child : children) {
+      verify(child).notifyVisibleBoundsChangedFromHost((Rect) any());
+      verify(child, never()).notifyVisibleBoundsChanged();
+    }
+  }
+
+  @Test
+  public void testPropagatedVisibleRectsAreClippedByIntermediateParents() {
+    // The view in between only shows the top left 20x20 pixels of its children.
+    final ViewGroup mountedView = mock(ViewGroup.class);
+    when(mountedView.getWidth()).thenReturn(20);
+    when(mountedView.getHeight()).thenReturn(20);
+    when(mountedView.getScaleX()).thenReturn(1f);
+    when(mountedView.getScaleY()).thenReturn(1f);
+    when(mountedView.getChildCount()).thenReturn(3);
+
+    final LithoView childView1 = getMockLithoViewWithBounds(new Rect(5, 10, 20, 30));
+    final LithoView childView2 = getMockLithoViewWithBounds(new Rect(10, 10, 50, 60));
+    final LithoView childView3 = getMockLithoViewWithBounds(new Rect(30, 35, 50, 60));
+    final LithoView[] children = {childView1, childView2, childView3};
+    for (int i = 0; i < children.length; i++) {
+      when(children[i].getParent()).thenReturn(mountedView);
+      when(children[i].getScaleX()).thenReturn(1f);
+      when(children[i].getScaleY()).thenReturn(1f);
+      when(mountedView.getChildAt(i)).thenReturn(children[i]);
+    }
+
+    expectVisibleRectFromHost(childView1, new Rect(10, 5, 15, 10));
+    expectVisibleRectFromHost(childView2, new Rect(5, 5, 10, 10));
+    expectVisibleRectFromHost(childView3, new Rect());
+
+    final Component root = TestViewComponent.create(mContext).testView(mountedView).build();
+    mLithoViewRule
+        .setRoot(root)
+        .attachToWindow()
+        .setSizeSpecs(makeSizeSpec(1000, EXACTLY), makeSizeSpec(1000, EXACTLY))
+        .measure()
+        .layout();
+
+    final LithoView lithoView = mLithoViewRule.getLithoView();
+    when(mountedView.getParent()).thenReturn(lithoView);
+
+    ComponentsConfiguration.propagateVisibleRectToNestedLithoViews = true;
+    try {
+      lithoView.getComponentTree().mountComponent(new Rect(15, 15, 40, 40), true);
+    } finally {
+      ComponentsConfiguration.propagateVisibleRectToNestedLithoViews = false;
+    }
+
+    for (LithoView child : children) {
+      verify(child).notifyVisibleBoundsChangedFromHost((Rect) any());
+    }
+  }
+
   /** Tests incremental mount behaviour of a vertical stack of components with a View mount type. */
   @Test
   public void testIncrementalMountDoesNotCauseMultipleUpdates() {
@@ -659,6 +756,22 @@ public class MountStateIncrementalMountTest {
     }
   }
 
+  private static void expectVisibleRectFromHost(LithoView lithoView, final Rect expected) {
+    // The rect is reused between children, so it's checked when the call is made.
+    doAnswer(
+            new Answer<Object>() {
+              @Override
+              public Object answer(InvocationOnMock invocation) throws Throwable {
+                if (!expected.equals(invocation.getArguments()[0])) {
+                  fail("Expected " + expected + " but was " + invocation.getArguments()[0]);
+                }
+                return null;
+              }
+            })
+        .when(lithoView)
+        .notifyVisibleBoundsChangedFromHost((Rect) any());
+  }
+
   private static LithoView getMockLithoViewWithBounds(Rect bounds) {
     final LithoView lithoView = mock(LithoView.class);
     when(lithoView.getLeft()).thenReturn(bounds.left);
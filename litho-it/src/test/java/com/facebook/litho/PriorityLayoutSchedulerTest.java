@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static com.facebook.litho.PriorityLayoutScheduler.PRIORITY_NEAR_RANGE;
+import static com.facebook.litho.PriorityLayoutScheduler.PRIORITY_PREFETCH;
+import static com.facebook.litho.PriorityLayoutScheduler.PRIORITY_VISIBLE;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(LithoTestRunner.class)
+public class PriorityLayoutSchedulerTest {
+
+  private PriorityLayoutScheduler mScheduler;
+  private List<String> mExecuted;
+
+  @Before
+  public void setup() {
+    // No worker threads, tasks are run on the test thread with runNextTask().
+    mScheduler =
+        new PriorityLayoutScheduler(
+            0, new LayoutThreadFactory(ComponentsConfiguration.DEFAULT_BACKGROUND_THREAD_PRIORITY));
+    mExecuted = new ArrayList<>();
+  }
+
+  @Test
+  public void testHigherPriorityLanesRunFirst() {
+    final PriorityLayoutScheduler.TreeHandler prefetch =
+        mScheduler.createHandler(PRIORITY_PREFETCH);
+    final PriorityLayoutScheduler.TreeHandler nearRange =
+        mScheduler.createHandler(PRIORITY_NEAR_RANGE);
+    final PriorityLayoutScheduler.TreeHandler visible = mScheduler.createHandler(PRIORITY_VISIBLE);
+
+    prefetch.post(record("prefetch"), "");
+    nearRange.post(record("nearRange"), "");
+    visible.post(record("visible"), "");
+
+    runAll();
+
+    assertThat(mExecuted).containsExactly("visible", "nearRange", "prefetch");
+  }
+
+  @Test
+  public void testTreesOfTheSameLaneRunInRoundRobin() {
+    final PriorityLayoutScheduler.TreeHandler first = mScheduler.createHandler(PRIORITY_VISIBLE);
+    final PriorityLayoutScheduler.TreeHandler second = mScheduler.createHandler(PRIORITY_VISIBLE);
+
+    first.post(record("first1"), "");
+    first.post(record("first2"), "");
+    first.post(record("first3"), "");
+    second.post(record("second1"), "");
+
+    runAll();
+
+    assertThat(mExecuted).containsExactly("first1", "second1", "first2", "first3");
+  }
+
+  @Test
+  public void testRemoveCancelsAllPostsOfRunnable() {
+    final PriorityLayoutScheduler.TreeHandler handler = mScheduler.createHandler(PRIORITY_VISIBLE);
+    final Runnable removed = record("removed");
+
+    handler.post(removed, "");
+    handler.post(record("kept"), "");
+    handler.post(removed, "");
+
+    assertThat(mScheduler.getPendingTaskCount()).isEqualTo(3);
+
+    handler.remove(removed);
+
+    assertThat(mScheduler.getPendingTaskCount()).isEqualTo(1);
+    assertThat(handler.getPendingTaskCount()).isEqualTo(1);
+
+    runAll();
+
+    assertThat(mExecuted).containsExactly("kept");
+  }
+
+  @Test
+  public void testRemoveAfterRunOfDuplicate() {
+    final PriorityLayoutScheduler.TreeHandler handler = mScheduler.createHandler(PRIORITY_VISIBLE);
+    final Runnable runnable = record("runnable");
+
+    handler.post(runnable, "");
+    handler.post(runnable, "");
+    mScheduler.runNextTask();
+    handler.remove(runnable);
+
+    assertThat(mScheduler.runNextTask()).isFalse();
+    assertThat(mExecuted).containsExactly("runnable");
+  }
+
+  @Test
+  public void testPostAtFront() {
+    final PriorityLayoutScheduler.TreeHandler first = mScheduler.createHandler(PRIORITY_VISIBLE);
+    final PriorityLayoutScheduler.TreeHandler second = mScheduler.createHandler(PRIORITY_VISIBLE);
+
+    first.post(record("first"), "");
+    second.post(record("second"), "");
+    second.postAtFront(record("secondFront"), "");
+
+    runAll();
+
+    assertThat(mExecuted).containsExactly("secondFront", "first", "second");
+  }
+
+  @Test
+  public void testSetPriorityMovesPendingTasks() {
+    final PriorityLayoutScheduler.TreeHandler visible = mScheduler.createHandler(PRIORITY_VISIBLE);
+    final PriorityLayoutScheduler.TreeHandler prefetch =
+        mScheduler.createHandler(PRIORITY_PREFETCH);
+
+    visible.post(record("visible"), "");
+    prefetch.post(record("prefetch"), "");
+
+    prefetch.setPriority(PRIORITY_VISIBLE);
+    visible.setPriority(PRIORITY_PREFETCH);
+
+    runAll();
+
+    assertThat(mExecuted).containsExactly("prefetch", "visible");
+  }
+
+  @Test
+  public void testMetricsAreRecordedPerLane() {
+    final PriorityLayoutScheduler.TreeHandler visible = mScheduler.createHandler(PRIORITY_VISIBLE);
+    final PriorityLayoutScheduler.TreeHandler prefetch =
+        mScheduler.createHandler(PRIORITY_PREFETCH);
+
+    visible.post(record("visible1"), "");
+    visible.post(record("visible2"), "");
+    prefetch.post(record("prefetch"), "");
+
+    runAll();
+
+    assertThat(mScheduler.getCompletedTaskCount(PRIORITY_VISIBLE)).isEqualTo(2);
+    assertThat(mScheduler.getCompletedTaskCount(PRIORITY_NEAR_RANGE)).isEqualTo(0);
+    assertThat(mScheduler.getCompletedTaskCount(PRIORITY_PREFETCH)).isEqualTo(1);
+    assertThat(mScheduler.getMaxQueueWaitTimeNanos(PRIORITY_PREFETCH))
+        .isGreaterThanOrEqualTo(mScheduler.getMaxQueueWaitTimeNanos(PRIORITY_NEAR_RANGE));
+    assertThat(mScheduler.getPendingTaskCount()).isEqualTo(0);
+
+    mScheduler.resetMetrics();
+
+    assertThat(mScheduler.getCompletedTaskCount(PRIORITY_VISIBLE)).isEqualTo(0);
+    assertThat(mScheduler.getTotalRunTimeNanos(PRIORITY_VISIBLE)).isEqualTo(0);
+  }
+
+  @Test
+  public void testPendingTasksRunAfterARunnableThrows() throws InterruptedException {
+    final PriorityLayoutScheduler scheduler =
+        new PriorityLayoutScheduler(
+            1,
+            new LayoutThreadFactory(ComponentsConfiguration.DEFAULT_BACKGROUND_THREAD_PRIORITY) {
+              @Override
+              public Thread newThread(Runnable r) {
+                final Thread thread = super.newThread(r);
+                thread.setUncaughtExceptionHandler(
+                    new Thread.UncaughtExceptionHandler() {
+                      @Override
+                      public void uncaughtException(Thread t, Throwable e) {}
+                    });
+                return thread;
+              }
+            });
+    final PriorityLayoutScheduler.TreeHandler handler = scheduler.createHandler(PRIORITY_VISIBLE);
+    final CountDownLatch posted = new CountDownLatch(1);
+    final CountDownLatch ran = new CountDownLatch(1);
+
+    handler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            try {
+              posted.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            throw new RuntimeException("Expected");
+          }
+        },
+        "");
+    // Posted while the only worker is busy, so no new worker is started for it.
+    handler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            ran.countDown();
+          }
+        },
+        "");
+    posted.countDown();
+
+    assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  private Runnable record(final String name) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        mExecuted.add(name);
+      }
+    };
+  }
+
+  private void runAll() {
+    while (mScheduler.runNextTask()) {}
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import android.graphics.Color;
+import android.view.View;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.testing.BackgroundLayoutLooperRule;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import com.facebook.litho.widget.Text;
+import com.facebook.litho.widget.TextDrawable;
+import com.facebook.rendercore.testing.ViewAssertions;
+import com.facebook.rendercore.testing.match.MatchNode;
+import com.facebook.rendercore.testing.match.ViewMatchNode;
+import com.facebook.yoga.YogaEdge;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.shadows.ShadowLooper;
+
+@RunWith(LithoTestRunner.class)
+public class PropChangeReconciliationTest {
+
+  public @Rule BackgroundLayoutLooperRule mBackgroundLayoutLooperRule =
+      new BackgroundLayoutLooperRule();
+
+  private ComponentContext mContext;
+  private ComponentTree mComponentTree;
+  private LithoView mLithoView;
+
+  @Before
+  public void setup() {
+    ComponentsConfiguration.usePropChangeReconciliation = true;
+
+    mContext = new ComponentContext(getApplicationContext());
+    mLithoView = new LithoView(mContext);
+    mComponentTree = ComponentTree.create(mContext).isReconciliationEnabled(true).build();
+    mLithoView.setComponentTree(mComponentTree);
+    mLithoView.measure(
+        View.MeasureSpec.makeMeasureSpec(100, View.MeasureSpec.EXACTLY),
+        View.MeasureSpec.makeMeasureSpec(100, View.MeasureSpec.EXACTLY));
+    mLithoView.layout(0, 0, 100, 100);
+    mLithoView.onAttachedToWindow();
+  }
+
+  @After
+  public void restore() {
+    ComponentsConfiguration.usePropChangeReconciliation = false;
+  }
+
+  @Test
+  public void testUnchangedSubtreesAreReusedForNewRoot() {
+    setRoot(createRoot("third"));
+    assertThat(mComponentTree.getCommittedLayoutState().getReusedNodeCount()).isEqualTo(0);
+
+    setRoot(createRoot("updated"));
+
+    assertThat(mComponentTree.getCommittedLayoutState().getReusedNodeCount()).isEqualTo(2);
+    ViewAssertions.assertThat(mLithoView)
+        .matches(
+            ViewMatchNode.forType(LithoView.class)
+                .prop(
+                    "drawables",
+                    MatchNode.list(
+                        MatchNode.forType(TextDrawable.class).prop("text", "first"),
+                        MatchNode.forType(TextDrawable.class).prop("text", "second"),
+                        MatchNode.forType(TextDrawable.class).prop("text", "updated"))));
+  }
+
+  @Test
+  public void testSubtreesWithEquivalentCommonPropsAreReused() {
+    setRoot(
+        Row.create(mContext)
+            .child(Text.create(mContext).text("first").widthPx(50).paddingPx(YogaEdge.ALL, 4))
+            .child(Text.create(mContext).text("second").backgroundColor(Color.RED))
+            .build());
+
+    setRoot(
+        Row.create(mContext)
+            .child(Text.create(mContext).text("first").widthPx(50).paddingPx(YogaEdge.ALL, 4))
+            .child(Text.create(mContext).text("second").backgroundColor(Color.RED))
+            .build());
+
+    assertThat(mComponentTree.getCommittedLayoutState().getReusedNodeCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testSubtreesWithChangedCommonPropsAreNotReused() {
+    setRoot(
+        Row.create(mContext)
+            .child(Text.create(mContext).text("first").widthPx(50))
+            .child(Text.create(mContext).text("second"))
+            .build());
+
+    setRoot(
+        Row.create(mContext)
+            .child(Text.create(mContext).text("first").widthPx(60))
+            .child(Text.create(mContext).text("second"))
+            .build());
+
+    assertThat(mComponentTree.getCommittedLayoutState().getReusedNodeCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testNothingIsReusedWhenDisabled() {
+    ComponentsConfiguration.usePropChangeReconciliation = false;
+
+    setRoot(createRoot("third"));
+    setRoot(createRoot("updated"));
+
+    assertThat(mComponentTree.getCommittedLayoutState().getReusedNodeCount()).isEqualTo(0);
+  }
+
+  private Component createRoot(String thirdText) {
+    return Row.create(mContext)
+        .child(Text.create(mContext).text("first"))
+        .child(Text.create(mContext).text("second"))
+        .child(Text.create(mContext).text(thirdText))
+        .build();
+  }
+
+  private void setRoot(Component root) {
+    mComponentTree.setRootAsync(root);
+    mBackgroundLayoutLooperRule.runToEndOfTasksSync();
+    ShadowLooper.idleMainLooper();
+    mLithoView.layout(0, 0, 100, 100);
+  }
+}
@@ -22,6 +22,7 @@ import static org.assertj.core.api.Java6Assertions.assertThat;
 import android.content.res.Configuration;
 import android.os.Build;
 import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import java.util.Arrays;
 import java.util.Locale;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -55,6 +56,88 @@ public class ResourceCacheTest {
     assertThat(cache).isNotEqualTo(ResourceCache.getLatest(configuration));
   }
 
+  @Test
+  public void testLruResourceCacheCountsHitsAndMisses() {
+    final LruResourceCache cache =
+        new LruResourceCache(getApplicationContext().getResources().getConfiguration());
+
+    assertThat((Object) cache.get(1)).isNull();
+    cache.put(1, "one");
+    cache.put(2, 2);
+
+    assertThat((String) cache.get(1)).isEqualTo("one");
+    assertThat((Integer) cache.get(2)).isEqualTo(2);
+    assertThat(cache.hitCount()).isEqualTo(2);
+    assertThat(cache.missCount()).isEqualTo(1);
+    assertThat(cache.weight()).isEqualTo(4);
+  }
+
+  @Test
+  public void testLruResourceCacheEvictsLeastRecentlyUsedByWeight() {
+    // Each of the 8 stripes can hold a weight of 4.
+    final LruResourceCache cache =
+        new LruResourceCache(getApplicationContext().getResources().getConfiguration(), 8 * 4);
+
+    // Small keys which only differ in bits above the third one share a stripe.
+    cache.put(1, "aa");
+    cache.put(9, "bb");
+    cache.get(1);
+    cache.put(17, "cc");
+
+    assertThat((String) cache.get(1)).isEqualTo("aa");
+    assertThat((Object) cache.get(9)).isNull();
+    assertThat((String) cache.get(17)).isEqualTo("cc");
+    assertThat(cache.evictionCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testLruResourceCacheDoesNotKeepValuesHeavierThanAStripe() {
+    final LruResourceCache cache =
+        new LruResourceCache(getApplicationContext().getResources().getConfiguration(), 8 * 4);
+
+    cache.put(1, "short");
+    cache.put(1, "longer than a stripe");
+
+    assertThat((Object) cache.get(1)).isNull();
+    assertThat(cache.weight()).isEqualTo(0);
+  }
+
+  @Test
+  public void testLruResourceCacheKeepsStringsUpToAStripeByDefault() {
+    final LruResourceCache cache =
+        new LruResourceCache(getApplicationContext().getResources().getConfiguration());
+    final String longest = repeat('a', LruResourceCache.DEFAULT_STRIPE_MAX_WEIGHT);
+    final String tooLong = repeat('b', LruResourceCache.DEFAULT_STRIPE_MAX_WEIGHT + 1);
+
+    cache.put(1, "short");
+    cache.put(2, longest);
+    cache.put(3, tooLong);
+
+    assertThat((String) cache.get(2)).isEqualTo(longest);
+    assertThat((Object) cache.get(3)).isNull();
+    assertThat(cache.weight()).isEqualTo(5 + LruResourceCache.DEFAULT_STRIPE_MAX_WEIGHT);
+  }
+
+  @Test
+  public void testLruResourceCacheGrowsPastInitialCapacity() {
+    final LruResourceCache cache =
+        new LruResourceCache(getApplicationContext().getResources().getConfiguration(), 8 * 100);
+
+    for (int i = 0; i < 400; i++) {
+      cache.put(0x7f010000 + i, i);
+    }
+
+    for (int i = 0; i < 400; i++) {
+      assertThat((Integer) cache.get(0x7f010000 + i)).isEqualTo(i);
+    }
+  }
+
+  private static String repeat(char c, int count) {
+    final char[] chars = new char[count];
+    Arrays.fill(chars, c);
+    return new String(chars);
+  }
+
   private static void setLocale(Configuration configuration, Locale locale) {
     if (Build.VERSION.SDK_INT >= 17) {
       configuration.setLocale(locale);
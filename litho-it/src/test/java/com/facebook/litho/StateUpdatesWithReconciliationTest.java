@@ -17,6 +17,7 @@
 package com.facebook.litho;
 
 import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+import static com.facebook.litho.LayoutOutput.getLayoutOutput;
 import static org.assertj.core.api.Java6Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.spy;
@@ -38,6 +39,7 @@ import com.facebook.litho.widget.TextDrawable;
 import com.facebook.rendercore.testing.ViewAssertions;
 import com.facebook.rendercore.testing.match.MatchNode;
 import com.facebook.rendercore.testing.match.ViewMatchNode;
+import com.facebook.yoga.YogaNode;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -97,6 +99,9 @@ public class StateUpdatesWithReconciliationTest {
   @After
   public void after() {
     ComponentsConfiguration.isEndToEndTestRun = false;
+    ComponentsConfiguration.isDebugModeEnabled = ComponentsConfiguration.IS_INTERNAL_BUILD;
+    ComponentsConfiguration.useStructuralSharingDuringReconciliation = false;
+    ComponentsConfiguration.skipBoundsDefinedForUnchangedNodes = false;
     NodeConfig.sInternalNodeFactory = null;
   }
 
@@ -323,6 +328,160 @@ public class StateUpdatesWithReconciliationTest {
                         MatchNode.forType(TextDrawable.class).prop("text", "Second: 2"))));
   }
 
+  @Test
+  public void testStructuralSharingMovesUnchangedSubtreesToNewLayout() {
+    after();
+    ComponentsConfiguration.isDebugModeEnabled = false;
+    ComponentsConfiguration.useStructuralSharingDuringReconciliation = true;
+
+    ComponentContext c = new ComponentContext(getApplicationContext());
+    LithoView lithoView = new LithoView(c);
+    ComponentTree componentTree = ComponentTree.create(c).isReconciliationEnabled(true).build();
+    lithoView.setComponentTree(componentTree);
+    lithoView.measure(
+        View.MeasureSpec.makeMeasureSpec(100, View.MeasureSpec.EXACTLY),
+        View.MeasureSpec.makeMeasureSpec(100, View.MeasureSpec.EXACTLY));
+    lithoView.layout(0, 0, 100, 100);
+    lithoView.onAttachedToWindow();
+
+    final SimpleStateUpdateEmulatorSpec.Caller stateUpdater1 =
+        new SimpleStateUpdateEmulatorSpec.Caller();
+    final SimpleStateUpdateEmulatorSpec.Caller stateUpdater2 =
+        new SimpleStateUpdateEmulatorSpec.Caller();
+
+    componentTree.setRootAsync(
+        Row.create(c)
+            .child(
+                SimpleStateUpdateEmulator.create(c)
+                    .caller(stateUpdater1)
+                    .widthPx(50)
+                    .heightPx(100)
+                    .prefix("First: "))
+            .child(
+                SimpleStateUpdateEmulator.create(c)
+                    .caller(stateUpdater2)
+                    .widthPx(50)
+                    .heightPx(100)
+                    .prefix("Second: "))
+            .build());
+    mBackgroundLayoutLooperRule.runToEndOfTasksSync();
+    ShadowLooper.idleMainLooper();
+    lithoView.layout(0, 0, 100, 100);
+
+    final LayoutState previousLayoutState = componentTree.getCommittedLayoutState();
+    final InternalNode previousRoot = previousLayoutState.getLayoutRoot();
+    final InternalNode previousFirst = previousRoot.getChildAt(0);
+    final InternalNode previousSecond = previousRoot.getChildAt(1);
+    final Component previousSecondText = previousSecond.getTailComponent();
+    final YogaNode previousSecondYogaNode = previousSecond.getYogaNode();
+
+    stateUpdater1.incrementAsync();
+    mBackgroundLayoutLooperRule.runToEndOfTasksSync();
+    ShadowLooper.idleMainLooper();
+    lithoView.layout(0, 0, 100, 100);
+
+    final LayoutState layoutState = componentTree.getCommittedLayoutState();
+    final InternalNode root = layoutState.getLayoutRoot();
+    assertThat(root).isNotSameAs(previousRoot);
+    assertThat(root.getChildAt(0)).isNotSameAs(previousFirst);
+    assertThat(root.getChildAt(1)).isNotSameAs(previousSecond);
+    assertThat(root.getChildAt(1).getYogaNode()).isSameAs(previousSecondYogaNode);
+    assertThat(previousSecondYogaNode.getOwner()).isSameAs(root.getYogaNode());
+    assertThat(previousLayoutState.getLayoutRoot()).isNull();
+
+    // The components of the mounted layout are left as they are, the new layout uses copies.
+    assertThat(previousSecond.getTailComponent()).isSameAs(previousSecondText);
+    assertThat(root.getChildAt(1).getTailComponent()).isNotSameAs(previousSecondText);
+    for (int i = 0; i < previousLayoutState.getMountableOutputCount(); i++) {
+      final Component previousComponent =
+          getLayoutOutput(previousLayoutState.getMountableOutputAt(i)).getComponent();
+      for (int j = 0; j < layoutState.getMountableOutputCount(); j++) {
+        assertThat(getLayoutOutput(layoutState.getMountableOutputAt(j)).getComponent())
+            .isNotSameAs(previousComponent);
+      }
+    }
+
+    ViewAssertions.assertThat(lithoView)
+        .matches(
+            ViewMatchNode.forType(LithoView.class)
+                .prop(
+                    "drawables",
+                    MatchNode.list(
+                        MatchNode.forType(TextDrawable.class).prop("text", "First: 2"),
+                        MatchNode.forType(TextDrawable.class).prop("text", "Second: 1"))));
+  }
+
+  @Test
+  public void testBoundsDefinedIsSkippedForUnchangedNodes() {
+    after();
+    ComponentsConfiguration.isDebugModeEnabled = false;
+    ComponentsConfiguration.useStructuralSharingDuringReconciliation = true;
+    ComponentsConfiguration.skipBoundsDefinedForUnchangedNodes = true;
+
+    ComponentContext c = new ComponentContext(getApplicationContext());
+    LithoView lithoView = new LithoView(c);
+    ComponentTree componentTree = ComponentTree.create(c).isReconciliationEnabled(true).build();
+    lithoView.setComponentTree(componentTree);
+    lithoView.measure(
+        View.MeasureSpec.makeMeasureSpec(100, View.MeasureSpec.EXACTLY),
+        View.MeasureSpec.makeMeasureSpec(100, View.MeasureSpec.EXACTLY));
+    lithoView.layout(0, 0, 100, 100);
+    lithoView.onAttachedToWindow();
+
+    final SimpleStateUpdateEmulatorSpec.Caller stateUpdater1 =
+        new SimpleStateUpdateEmulatorSpec.Caller();
+    final SimpleStateUpdateEmulatorSpec.Caller stateUpdater2 =
+        new SimpleStateUpdateEmulatorSpec.Caller();
+
+    componentTree.setRootAsync(
+        Row.create(c)
+            .child(
+                SimpleStateUpdateEmulator.create(c)
+                    .caller(stateUpdater1)
+                    .widthPx(50)
+                    .heightPx(100)
+                    .prefix("First: "))
+            .child(
+                SimpleStateUpdateEmulator.create(c)
+                    .caller(stateUpdater2)
+                    .widthPx(50)
+                    .heightPx(100)
+                    .prefix("Second: "))
+            .build());
+    mBackgroundLayoutLooperRule.runToEndOfTasksSync();
+    ShadowLooper.idleMainLooper();
+    lithoView.layout(0, 0, 100, 100);
+
+    final LayoutState previousLayoutState = componentTree.getCommittedLayoutState();
+    final InternalNode previousRoot = previousLayoutState.getLayoutRoot();
+    final InternalNode previousSecond = previousRoot.getChildAt(1);
+
+    assertThat(previousSecond.isBoundsDefinedUpToDate()).isTrue();
+
+    stateUpdater1.incrementAsync();
+    mBackgroundLayoutLooperRule.runToEndOfTasksSync();
+    ShadowLooper.idleMainLooper();
+    lithoView.layout(0, 0, 100, 100);
+
+    final InternalNode root = componentTree.getCommittedLayoutState().getLayoutRoot();
+    assertThat(root.getChildAt(0).isBoundsDefinedUpToDate()).isTrue();
+    assertThat(root.getChildAt(1)).isNotSameAs(previousSecond);
+    assertThat(root.getChildAt(1).isBoundsDefinedUpToDate()).isTrue();
+
+    // Mount the new layout from scratch, the copied outputs have to be set on the new components.
+    lithoView.unmountAllItems();
+    lithoView.performLayout(false, 0, 0, 100, 100);
+
+    ViewAssertions.assertThat(lithoView)
+        .matches(
+            ViewMatchNode.forType(LithoView.class)
+                .prop(
+                    "drawables",
+                    MatchNode.list(
+                        MatchNode.forType(TextDrawable.class).prop("text", "First: 2"),
+                        MatchNode.forType(TextDrawable.class).prop("text", "Second: 1"))));
+  }
+
   static class DummyComponent extends Component {
 
     private final DummyStateContainer mStateContainer;
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(LithoTestRunner.class)
+public class TreePropsTest {
+
+  @Test
+  public void testCopyKeepsValuesAndIsIsolatedFromSource() {
+    final TreeProps parent = new TreeProps();
+    parent.put(String.class, "parent");
+    parent.put(Integer.class, 1);
+
+    final TreeProps child = TreeProps.copy(parent);
+    child.put(String.class, "child");
+    parent.put(Long.class, 2L);
+
+    assertThat(child.get(String.class)).isEqualTo("child");
+    assertThat(child.get(Integer.class)).isEqualTo(1);
+    assertThat(child.get(Long.class)).isNull();
+    assertThat(parent.get(String.class)).isEqualTo("parent");
+    assertThat(parent.get(Long.class)).isEqualTo(2L);
+  }
+
+  @Test
+  public void testCopyOfNullIsNull() {
+    assertThat(TreeProps.copy(null)).isNull();
+    assertThat(TreeProps.acquire(null).get(String.class)).isNull();
+  }
+
+  @Test
+  public void testResetOnlyClearsItsOwnValues() {
+    final TreeProps parent = new TreeProps();
+    parent.put(String.class, "parent");
+    final TreeProps child = TreeProps.acquire(parent);
+
+    child.reset();
+
+    assertThat(child.get(String.class)).isNull();
+    assertThat(parent.get(String.class)).isEqualTo("parent");
+  }
+
+  @Test
+  public void testIsEquivalentComparesVisibleValues() {
+    final TreeProps first = new TreeProps();
+    first.put(String.class, "old");
+    first.put(String.class, "value");
+    first.put(Integer.class, 1);
+
+    final TreeProps second = new TreeProps();
+    second.put(Integer.class, 1);
+    second.put(String.class, "value");
+
+    assertThat(TreeProps.isEquivalent(first, second)).isTrue();
+    assertThat(TreeProps.isEquivalent(first, TreeProps.copy(first))).isTrue();
+    assertThat(TreeProps.isEquivalent(null, new TreeProps())).isTrue();
+
+    second.put(Integer.class, 2);
+    assertThat(TreeProps.isEquivalent(first, second)).isFalse();
+    assertThat(TreeProps.isEquivalent(first, null)).isFalse();
+  }
+}
@@ -162,6 +162,79 @@ public class DataFlowGraphTest {
     assertThat(dest.getValue()).isEqualTo(3588f);
   }
 
+  @Test
+  public void testIndependentBindingsAreAddedAndRemovedIncrementally() {
+    SettableNode source1 = new SettableNode();
+    OutputOnlyNode dest1 = new OutputOnlyNode();
+    SettableNode source2 = new SettableNode();
+    OutputOnlyNode dest2 = new OutputOnlyNode();
+
+    GraphBinding binding1 = create(mDataFlowGraph);
+    binding1.addBinding(source1, dest1);
+    binding1.activate();
+
+    GraphBinding binding2 = create(mDataFlowGraph);
+    binding2.addBinding(source2, dest2);
+    binding2.activate();
+
+    source1.setValue(1);
+    source2.setValue(2);
+    mTestTimingSource.step(1);
+
+    assertThat(dest1.getValue()).isEqualTo(1f);
+    assertThat(dest2.getValue()).isEqualTo(2f);
+    assertThat(mDataFlowGraph.getLastPropagatedNodesCount()).isEqualTo(4);
+
+    binding1.deactivate();
+    source2.setValue(3);
+    mTestTimingSource.step(1);
+
+    assertThat(dest2.getValue()).isEqualTo(3f);
+    assertThat(mDataFlowGraph.getLastPropagatedNodesCount()).isEqualTo(2);
+
+    binding2.deactivate();
+
+    assertThat(mDataFlowGraph.hasReferencesToNodes()).isFalse();
+  }
+
+  @Test
+  public void testBindingsSharingNodesAreMerged() {
+    SettableNode source1 = new SettableNode();
+    OutputOnlyNode dest1 = new OutputOnlyNode();
+    SettableNode source2 = new SettableNode();
+    OutputOnlyNode dest2 = new OutputOnlyNode();
+    AdditionNode sum = new AdditionNode();
+
+    GraphBinding binding1 = create(mDataFlowGraph);
+    binding1.addBinding(source1, dest1);
+    binding1.activate();
+
+    GraphBinding binding2 = create(mDataFlowGraph);
+    binding2.addBinding(source2, dest2);
+    binding2.activate();
+
+    mTestTimingSource.step(1);
+
+    GraphBinding joiningBinding = create(mDataFlowGraph);
+    joiningBinding.addBinding(source1, sum, "a");
+    joiningBinding.addBinding(source2, sum, "b");
+    joiningBinding.activate();
+
+    source1.setValue(5);
+    source2.setValue(6);
+    mTestTimingSource.step(1);
+
+    assertThat(sum.getValue()).isEqualTo(11f);
+    assertThat(dest1.getValue()).isEqualTo(5f);
+    assertThat(dest2.getValue()).isEqualTo(6f);
+
+    joiningBinding.deactivate();
+    binding1.deactivate();
+    binding2.deactivate();
+
+    assertThat(mDataFlowGraph.hasReferencesToNodes()).isFalse();
+  }
+
   @Test(expected = DetectedCycleException.class)
   public void testSimpleCycle() {
     SimpleNode node1 = new SimpleNode();
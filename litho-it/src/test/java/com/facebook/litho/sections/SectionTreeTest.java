@@ -27,6 +27,7 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
 import android.os.Looper;
+import com.facebook.litho.CachedValueStats;
 import com.facebook.litho.Component;
 import com.facebook.litho.StateContainer;
 import com.facebook.litho.specmodels.internal.ImmutableList;
@@ -970,6 +971,21 @@ public class SectionTreeTest {
     assertThat(sectionTree.getCachedValue("key2")).isNull();
   }
 
+  @Test
+  public void testCachedValueStats() {
+    final ThreadCheckingTarget target = new ThreadCheckingTarget(true);
+
+    SectionTree sectionTree = SectionTree.create(mSectionContext, target).build();
+    sectionTree.getCachedValue("key1");
+    sectionTree.putCachedValue("key1", "value1");
+    sectionTree.getCachedValue("key1");
+
+    final CachedValueStats stats = sectionTree.getCachedValueStats();
+    assertThat(stats.getSize()).isEqualTo(1);
+    assertThat(stats.getHitCount()).isEqualTo(1);
+    assertThat(stats.getMissCount()).isEqualTo(1);
+  }
+
   private static void assertAppliedStateUpdates(
       Section section, Iterable<StateContainer.StateUpdate> expected) {
     if (!(section instanceof TestSection)) {
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget;
+
+import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.facebook.litho.ComponentContext;
+import com.facebook.litho.LithoHandler;
+import com.facebook.litho.SizeSpec;
+import com.facebook.litho.testing.TestDrawableComponent;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(LithoTestRunner.class)
+public class ComponentWarmingServiceTest {
+
+  private ComponentContext mContext;
+  private ComponentWarmer mWarmer;
+  private QueueHandler mHandler;
+
+  @Before
+  public void setup() {
+    mContext = new ComponentContext(getApplicationContext());
+    mWarmer =
+        new ComponentWarmer(
+            mContext,
+            SizeSpec.makeSizeSpec(100, SizeSpec.EXACTLY),
+            SizeSpec.makeSizeSpec(100, SizeSpec.EXACTLY));
+    mHandler = new QueueHandler();
+  }
+
+  @Test
+  public void testSubmittedItemsArePreparedInOrderWithinWarmEntryLimit() {
+    final ComponentWarmingService service =
+        ComponentWarmingService.create(mWarmer, mHandler).maxWarmEntries(2).build();
+
+    service.submit("tag1", createRenderInfo());
+    service.submit("tag2", createRenderInfo());
+    service.submit("tag3", createRenderInfo());
+
+    mHandler.runAll();
+
+    assertThat(service.getWarmCount()).isEqualTo(2);
+    assertThat(service.getPendingCount()).isEqualTo(1);
+    assertThat(mWarmer.getCache().get("tag1")).isNotNull();
+    assertThat(mWarmer.getCache().get("tag2")).isNotNull();
+    assertThat(mWarmer.getCache().get("tag3")).isNull();
+
+    // Consuming an entry makes room for the next item.
+    assertThat(mWarmer.consume("tag1")).isNotNull();
+    mHandler.runAll();
+
+    assertThat(service.getPendingCount()).isEqualTo(0);
+    assertThat(mWarmer.getCache().get("tag3")).isNotNull();
+    assertThat(service.getPreparedCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void testSliceYieldsAfterSliceLength() {
+    final ComponentWarmingService service =
+        ComponentWarmingService.create(mWarmer, mHandler).sliceLengthMs(0).build();
+
+    service.submit("tag1", createRenderInfo());
+    service.submit("tag2", createRenderInfo());
+
+    assertThat(mHandler.runNext()).isTrue();
+    assertThat(service.getPreparedCount()).isEqualTo(1);
+    assertThat(mHandler.runNext()).isTrue();
+    assertThat(service.getPreparedCount()).isEqualTo(2);
+    assertThat(mHandler.runNext()).isFalse();
+  }
+
+  @Test
+  public void testInvalidateCancelsPendingAndWarmEntries() {
+    final ComponentWarmingService service =
+        ComponentWarmingService.create(mWarmer, mHandler).sliceLengthMs(0).build();
+
+    service.submit("tag1", createRenderInfo());
+    service.submit("tag2", createRenderInfo());
+    mHandler.runNext();
+
+    service.invalidate();
+    mHandler.runAll();
+
+    assertThat(service.getPendingCount()).isEqualTo(0);
+    assertThat(service.getWarmCount()).isEqualTo(0);
+    assertThat(service.getCancelledCount()).isEqualTo(1);
+    assertThat(mWarmer.consume("tag1")).isNull();
+    assertThat(mWarmer.consume("tag2")).isNull();
+  }
+
+  @Test
+  public void testMissDropsPendingItemAndIsReportedInHitRate() {
+    final ComponentWarmingService service =
+        ComponentWarmingService.create(mWarmer, mHandler).sliceLengthMs(0).build();
+
+    service.submit("tag1", createRenderInfo());
+    service.submit("tag2", createRenderInfo());
+    mHandler.runNext();
+
+    assertThat(mWarmer.consume("tag1")).isNotNull();
+    assertThat(mWarmer.consume("tag2")).isNull();
+    mHandler.runAll();
+
+    assertThat(service.getPendingCount()).isEqualTo(0);
+    assertThat(service.getPreparedCount()).isEqualTo(1);
+    assertThat(mWarmer.getWarmHitCount()).isEqualTo(1);
+    assertThat(mWarmer.getMissCount()).isEqualTo(1);
+    assertThat(mWarmer.getWarmHitRate()).isEqualTo(0.5f);
+  }
+
+  private ComponentRenderInfo createRenderInfo() {
+    return ComponentRenderInfo.create()
+        .component(TestDrawableComponent.create(mContext).build())
+        .build();
+  }
+
+  private static class QueueHandler implements LithoHandler {
+
+    private final List<Runnable> mQueue = new ArrayList<>();
+
+    @Override
+    public boolean isTracing() {
+      return false;
+    }
+
+    @Override
+    public void post(Runnable runnable, String tag) {
+      mQueue.add(runnable);
+    }
+
+    @Override
+    public void postAtFront(Runnable runnable, String tag) {
+      mQueue.add(0, runnable);
+    }
+
+    @Override
+    public void remove(Runnable runnable) {
+      while (mQueue.remove(runnable)) {}
+    }
+
+    boolean runNext() {
+      if (mQueue.isEmpty()) {
+        return false;
+      }
+      mQueue.remove(0).run();
+      return true;
+    }
+
+    void runAll() {
+      while (runNext()) {}
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget;
+
+import static com.facebook.litho.SizeSpec.AT_MOST;
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import android.text.Layout;
+import com.facebook.litho.SizeSpec;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(LithoTestRunner.class)
+public class MeasuredTextLayoutsTest {
+
+  @Test
+  public void testLayoutsAreFoundByWidthSpecAndSize() {
+    final MeasuredTextLayouts layouts = new MeasuredTextLayouts();
+    final Layout atMost = mock(Layout.class);
+    final Layout exactly = mock(Layout.class);
+
+    layouts.put(SizeSpec.makeSizeSpec(200, AT_MOST), atMost, 150, 40);
+    layouts.put(SizeSpec.makeSizeSpec(120, EXACTLY), exactly, 120, 60);
+
+    assertThat(layouts.getForWidthSpec(SizeSpec.makeSizeSpec(200, AT_MOST))).isSameAs(atMost);
+    assertThat(layouts.getForWidthSpec(SizeSpec.makeSizeSpec(120, EXACTLY))).isSameAs(exactly);
+    assertThat(layouts.getForWidthSpec(SizeSpec.makeSizeSpec(150, EXACTLY))).isNull();
+    assertThat(layouts.getForSize(150, 40)).isSameAs(atMost);
+    assertThat(layouts.getForSize(150, 60)).isNull();
+  }
+
+  @Test
+  public void testPutForSameWidthSpecReplacesLayout() {
+    final MeasuredTextLayouts layouts = new MeasuredTextLayouts();
+    final Layout first = mock(Layout.class);
+    final Layout second = mock(Layout.class);
+    final int widthSpec = SizeSpec.makeSizeSpec(100, EXACTLY);
+
+    layouts.put(widthSpec, first, 100, 20);
+    layouts.put(widthSpec, second, 100, 30);
+
+    assertThat(layouts.size()).isEqualTo(1);
+    assertThat(layouts.getForWidthSpec(widthSpec)).isSameAs(second);
+    assertThat(layouts.getForSize(100, 20)).isNull();
+  }
+
+  @Test
+  public void testOldestLayoutIsReplacedWhenFull() {
+    final MeasuredTextLayouts layouts = new MeasuredTextLayouts();
+    for (int i = 0; i <= MeasuredTextLayouts.MAX_SIZE; i++) {
+      layouts.put(SizeSpec.makeSizeSpec(i, EXACTLY), mock(Layout.class), i, 10);
+    }
+
+    assertThat(layouts.size()).isEqualTo(MeasuredTextLayouts.MAX_SIZE);
+    assertThat(layouts.getForWidthSpec(SizeSpec.makeSizeSpec(0, EXACTLY))).isNull();
+    assertThat(layouts.getForWidthSpec(SizeSpec.makeSizeSpec(1, EXACTLY))).isNotNull();
+    final int lastWidthSpec = SizeSpec.makeSizeSpec(MeasuredTextLayouts.MAX_SIZE, EXACTLY);
+    assertThat(layouts.getForWidthSpec(lastWidthSpec)).isNotNull();
+  }
+
+  @Test
+  public void testClearDropsAllLayouts() {
+    final MeasuredTextLayouts layouts = new MeasuredTextLayouts();
+    final int widthSpec = SizeSpec.makeSizeSpec(100, EXACTLY);
+    layouts.put(widthSpec, mock(Layout.class), 100, 20);
+
+    layouts.clear();
+
+    assertThat(layouts.size()).isEqualTo(0);
+    assertThat(layouts.getForWidthSpec(widthSpec)).isNull();
+    assertThat(layouts.getForSize(100, 20)).isNull();
+  }
+}
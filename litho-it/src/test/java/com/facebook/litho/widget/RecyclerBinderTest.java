@@ -342,6 +342,61 @@ public class RecyclerBinderTest {
     assertThat(100).isEqualTo(size.width);
   }
 
+  @Test
+  public void testParallelViewportFillStartsAsyncLayoutsForCandidateRows() {
+    final RecyclerBinder recyclerBinder =
+        mRecyclerBinderBuilder.parallelViewportFillCount(4).build(mComponentContext);
+
+    final List<ComponentTreeHolder> holders = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      holders.add(
+          new TestComponentTreeHolder(create().component(mock(Component.class)).build()));
+    }
+
+    // Wants two rows, so the rows started in parallel beyond those stay as prefetched layouts.
+    when(mLayoutInfo.createViewportFiller(anyInt(), anyInt()))
+        .thenReturn(
+            new LayoutInfo.ViewportFiller() {
+              private int mFill;
+
+              @Override
+              public boolean wantsMore() {
+                return mFill < 200;
+              }
+
+              @Override
+              public void add(RenderInfo renderInfo, int width, int height) {
+                mFill += height;
+              }
+
+              @Override
+              public int getFill() {
+                return mFill;
+              }
+            });
+
+    final int numInserted =
+        recyclerBinder.computeLayoutsToFillListViewport(holders, 0, 100, 1000, null);
+
+    assertThat(numInserted).isEqualTo(2);
+
+    final TestComponentTreeHolder first = (TestComponentTreeHolder) holders.get(0);
+    assertThat(first.mLayoutAsyncCalled).isFalse();
+    assertThat(first.mLayoutSyncCalled).isTrue();
+
+    for (int i = 1; i < 4; i++) {
+      final TestComponentTreeHolder holder = (TestComponentTreeHolder) holders.get(i);
+      assertThat(holder.mLayoutAsyncCalled).isTrue();
+      assertThat(holder.isTreeValid()).isTrue();
+    }
+
+    for (int i = 4; i < holders.size(); i++) {
+      final TestComponentTreeHolder holder = (TestComponentTreeHolder) holders.get(i);
+      assertThat(holder.mLayoutAsyncCalled).isFalse();
+      assertThat(holder.mLayoutSyncCalled).isFalse();
+    }
+  }
+
   @Test
   public void onBoundsDefined() {
     final List<ComponentRenderInfo> components = prepareLoadedBinder();
@@ -35,6 +35,8 @@ import androidx.annotation.UiThread;
 import androidx.annotation.VisibleForTesting;
 import androidx.core.util.Pair;
 import com.facebook.infer.annotation.ThreadConfined;
+import com.facebook.litho.CachedValueStats;
+import com.facebook.litho.CachedValueStore;
 import com.facebook.litho.Component;
 import com.facebook.litho.ComponentsLogger;
 import com.facebook.litho.ComponentsReporter;
@@ -59,6 +61,7 @@ import com.facebook.litho.sections.SectionsLogEventUtils.ApplyNewChangeSet;
 import com.facebook.litho.sections.config.SectionsConfiguration;
 import com.facebook.litho.sections.logger.SectionsDebugLogger;
 import com.facebook.litho.stats.LithoStats;
+import com.facebook.litho.stats.PhaseMetrics;
 import com.facebook.litho.widget.ChangeSetCompleteCallback;
 import com.facebook.litho.widget.RecyclerBinder.CommitPolicy;
 import com.facebook.litho.widget.RenderInfo;
@@ -283,10 +286,10 @@ public class SectionTree {
   @GuardedBy("this")
   private List<ChangeSet> mPendingChangeSets;
 
-  /** Map of all cached values that are stored for the current ComponentTree. */
+  /** All cached values that are stored for the current SectionTree. */
   @GuardedBy("this")
   @Nullable
-  private Map<Object, Object> mCachedValues;
+  private CachedValueStore mCachedValues;
 
   private final AtomicBoolean mPostToFrontOfQueueForFirstChangeset;
 
@@ -294,6 +297,8 @@ public class SectionTree {
 
   private final EventTriggersContainer mEventTriggersContainer = new EventTriggersContainer();
 
+  private final PhaseMetrics mPhaseMetrics = new PhaseMetrics();
+
   void recordEventHandler(Section section, EventHandler eventHandler) {
     mEventHandlersController.recordEventHandler(section.getGlobalKey(), eventHandler);
   }
@@ -487,6 +492,11 @@ public class SectionTree {
     mLoadEventsHandler = loadEventsHandler;
   }
 
+  /** @return the time and allocations spent calculating the change sets of this tree. */
+  public PhaseMetrics getPhaseMetrics() {
+    return mPhaseMetrics;
+  }
+
   /**
    * Set a new set of configurations to the {@link Target}. Only those allowed to be modified will
    * be included in {@link Target.DynamicConfig}.
@@ -985,7 +995,7 @@ public class SectionTree {
   @Nullable
   synchronized Object getCachedValue(Object cachedValueInputs) {
     if (mCachedValues == null) {
-      mCachedValues = new HashMap<>();
+      mCachedValues = new CachedValueStore();
     }
 
     return mCachedValues.get(cachedValueInputs);
@@ -993,12 +1003,35 @@ public class SectionTree {
 
   synchronized void putCachedValue(Object cachedValueInputs, Object cachedValue) {
     if (mCachedValues == null) {
-      mCachedValues = new HashMap<>();
+      mCachedValues = new CachedValueStore();
     }
 
     mCachedValues.put(cachedValueInputs, cachedValue);
   }
 
+  /**
+   * Returns how the values computed by {@link
+   * com.facebook.litho.annotations.OnCalculateCachedValue} methods in this tree have been used.
+   */
+  public synchronized CachedValueStats getCachedValueStats() {
+    if (mCachedValues == null) {
+      mCachedValues = new CachedValueStore();
+    }
+
+    return mCachedValues.getStats();
+  }
+
+  /**
+   * Releases values computed by {@link com.facebook.litho.annotations.OnCalculateCachedValue}
+   * methods in this tree according to the given memory pressure level. Should be called from {@link
+   * android.content.ComponentCallbacks2#onTrimMemory(int)}.
+   */
+  public synchronized void onTrimMemory(int level) {
+    if (mCachedValues != null) {
+      mCachedValues.onTrimMemory(level);
+    }
+  }
+
   private static @Nullable Section copy(Section section, boolean deep) {
     return section != null ? section.makeShallowCopy(deep) : null;
   }
@@ -1128,6 +1161,8 @@ public class SectionTree {
         if (isTracing) {
           ComponentsSystrace.beginSection("calculateNewChangeSet");
         }
+        final long changeSetStartTimeNanos = PhaseMetrics.currentTimeNanos();
+        final long changeSetStartAllocationCount = PhaseMetrics.currentAllocationCount();
         final ChangeSetState changeSetState =
             calculateNewChangeSet(
                 mContext,
@@ -1137,6 +1172,8 @@ public class SectionTree {
                 mSectionsDebugLogger,
                 mTag,
                 enableStats);
+        mPhaseMetrics.record(
+            PhaseMetrics.PHASE_CHANGE_SET, changeSetStartTimeNanos, changeSetStartAllocationCount);
         if (isTracing) {
           ComponentsSystrace.endSection();
         }
@@ -23,6 +23,7 @@ import com.facebook.litho.ComponentContext;
 import com.facebook.litho.ComponentTree;
 import com.facebook.litho.ComponentTree.MeasureListener;
 import com.facebook.litho.LithoHandler;
+import com.facebook.litho.PriorityLayoutScheduler;
 import com.facebook.litho.Size;
 import com.facebook.litho.StateHandler;
 import com.facebook.litho.TreeProps;
@@ -392,6 +393,16 @@ public class ComponentTreeHolder {
     }
   }
 
+  /**
+   * Moves the layout calculations of this tree to the given lane if it uses a {@link
+   * PriorityLayoutScheduler.TreeHandler}, does nothing for any other kind of handler.
+   */
+  synchronized void updateLayoutPriority(@PriorityLayoutScheduler.Priority int priority) {
+    if (mLayoutHandler instanceof PriorityLayoutScheduler.TreeHandler) {
+      ((PriorityLayoutScheduler.TreeHandler) mLayoutHandler).setPriority(priority);
+    }
+  }
+
   synchronized int getMeasuredHeight() {
     return mLastMeasuredHeight;
   }
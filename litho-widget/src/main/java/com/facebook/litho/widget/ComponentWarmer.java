@@ -25,6 +25,7 @@ import com.facebook.litho.LithoHandler;
 import com.facebook.litho.Size;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nullable;
 
 /**
@@ -103,6 +104,21 @@ public class ComponentWarmer {
     void onEntryEvicted(String tag, ComponentTreeHolder holder);
   }
 
+  /** Notified when an entry is consumed, missed or evicted from the cache. */
+  public interface EntryListener {
+
+    /**
+     * Called when {@link #consume(String)} returns a cached entry. {@code isWarm} is true if the
+     * layout of the entry had completed by the time it was consumed.
+     */
+    void onEntryConsumed(String tag, boolean isWarm);
+
+    /** Called when {@link #consume(String)} is called for a tag which is not in the cache. */
+    void onEntryMissed(String tag);
+
+    void onEntryEvicted(String tag);
+  }
+
   public interface Cache {
     @Nullable
     ComponentTreeHolder remove(String tag);
@@ -117,12 +133,19 @@ public class ComponentWarmer {
     void setCacheListener(CacheListener cacheListener);
   }
 
+  /**
+   * Creates a {@link Cache} backed by a {@link LruCache} of the given size, for instances which
+   * need to keep more than {@link #DEFAULT_MAX_SIZE} prepared entries.
+   */
+  public static Cache newLruCache(int maxSize) {
+    return new DefaultCache(maxSize);
+  }
+
   private static class DefaultCache implements Cache {
     private final LruCache<String, ComponentTreeHolder> mCache;
-    private final CacheListener mCacheListener;
+    private volatile @Nullable CacheListener mCacheListener;
 
-    DefaultCache(int maxSize, CacheListener cacheListener) {
-      mCacheListener = cacheListener;
+    DefaultCache(int maxSize) {
       mCache =
           new LruCache<String, ComponentTreeHolder>(maxSize) {
 
@@ -132,8 +155,9 @@ public class ComponentWarmer {
                 @NonNull String key,
                 @NonNull ComponentTreeHolder oldValue,
                 @Nullable ComponentTreeHolder newValue) {
-              if (evicted && mCacheListener != null) {
-                mCacheListener.onEntryEvicted(key, oldValue);
+              final CacheListener cacheListener = mCacheListener;
+              if (evicted && cacheListener != null) {
+                cacheListener.onEntryEvicted(key, oldValue);
               }
             }
           };
@@ -162,7 +186,7 @@ public class ComponentWarmer {
 
     @Override
     public void setCacheListener(CacheListener cacheListener) {
-      // Already set from the constructor, so there is nothing to do here
+      mCacheListener = cacheListener;
     }
   }
 
@@ -173,6 +197,10 @@ public class ComponentWarmer {
   private BlockingQueue<ComponentRenderInfo> mPendingRenderInfos;
   private boolean mSkipAlreadyPreparedKeys;
   private volatile boolean mReleaseEvictedEntries;
+  private volatile @Nullable EntryListener mEntryListener;
+  private final AtomicInteger mWarmHitCount = new AtomicInteger();
+  private final AtomicInteger mColdHitCount = new AtomicInteger();
+  private final AtomicInteger mMissCount = new AtomicInteger();
 
   /**
    * Sets up a {@link ComponentTreeHolderPreparerWithSizeImpl} as the {@link
@@ -253,6 +281,10 @@ public class ComponentWarmer {
     mReleaseEvictedEntries = releaseEvictedEntries;
   }
 
+  public void setEntryListener(@Nullable EntryListener entryListener) {
+    mEntryListener = entryListener;
+  }
+
   public synchronized boolean isReady() {
     return mIsReady;
   }
@@ -265,15 +297,16 @@ public class ComponentWarmer {
             if (mReleaseEvictedEntries) {
               holder.releaseTree();
             }
+
+            final EntryListener entryListener = mEntryListener;
+            if (entryListener != null) {
+              entryListener.onEntryEvicted(tag);
+            }
           }
         };
 
-    if (cache != null) {
-      mCache = cache;
-      mCache.setCacheListener(cacheListener);
-    } else {
-      mCache = new DefaultCache(DEFAULT_MAX_SIZE, cacheListener);
-    }
+    mCache = cache != null ? cache : new DefaultCache(DEFAULT_MAX_SIZE);
+    mCache.setCacheListener(cacheListener);
 
     if (factory != null) {
       mIsReady = true;
@@ -460,7 +493,59 @@ public class ComponentWarmer {
    */
   @Nullable
   public ComponentTreeHolder consume(String tag) {
-    return mCache.remove(tag);
+    final ComponentTreeHolder holder = mCache.remove(tag);
+    final EntryListener entryListener = mEntryListener;
+    if (holder == null) {
+      mMissCount.incrementAndGet();
+      if (entryListener != null) {
+        entryListener.onEntryMissed(tag);
+      }
+      return null;
+    }
+
+    final boolean isWarm = holder.hasCompletedLatestLayout();
+    if (isWarm) {
+      mWarmHitCount.incrementAndGet();
+    } else {
+      mColdHitCount.incrementAndGet();
+    }
+
+    if (entryListener != null) {
+      entryListener.onEntryConsumed(tag, isWarm);
+    }
+
+    return holder;
+  }
+
+  /** Number of consumed entries whose layout had completed when they were consumed. */
+  public int getWarmHitCount() {
+    return mWarmHitCount.get();
+  }
+
+  /** Number of consumed entries which were cached but still had a layout pending or running. */
+  public int getColdHitCount() {
+    return mColdHitCount.get();
+  }
+
+  /** Number of {@link #consume(String)} calls for a tag which was not in the cache. */
+  public int getMissCount() {
+    return mMissCount.get();
+  }
+
+  /**
+   * Fraction of {@link #consume(String)} calls which returned an entry with a completed layout, or
+   * 0 if nothing was consumed yet.
+   */
+  public float getWarmHitRate() {
+    final int warm = mWarmHitCount.get();
+    final int total = warm + mColdHitCount.get() + mMissCount.get();
+    return total == 0 ? 0 : (float) warm / total;
+  }
+
+  public void resetHitCounts() {
+    mWarmHitCount.set(0);
+    mColdHitCount.set(0);
+    mMissCount.set(0);
   }
 
   /**
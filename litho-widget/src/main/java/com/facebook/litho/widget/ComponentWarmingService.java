@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget;
+
+import androidx.annotation.GuardedBy;
+import androidx.annotation.VisibleForTesting;
+import com.facebook.litho.LithoHandler;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lays out upcoming items through a {@link ComponentWarmer} in the background, ahead of their
+ * insertion in a {@link RecyclerBinder}. Items are submitted in the order they are expected to be
+ * inserted, for example the next page of a paginated data source, and are prepared one at a time
+ * on the given {@link LithoHandler}.
+ *
+ * <p>Work is bounded by two limits:
+ *
+ * <ul>
+ *   <li>A slice length: once a slice has run for this long the remaining items are re-posted to
+ *       the handler, so that other work posted to it can run in between. This is not a CPU budget,
+ *       the service doesn't rest between slices and keeps an otherwise idle handler busy until
+ *       there is nothing left to warm.
+ *   <li>A maximum number of warm entries: prepared entries that have not been consumed yet. When
+ *       the limit is reached warming pauses until the {@link RecyclerBinder} consumes an entry or
+ *       an entry is evicted. The {@link ComponentWarmer} cache should be able to hold at least as
+ *       many entries, see {@link ComponentWarmer#newLruCache(int)}.
+ * </ul>
+ *
+ * <p>Call {@link #invalidate()} when the submitted data is no longer valid: pending items are
+ * dropped and layouts of entries that were not consumed yet are cancelled. Hit rates of the
+ * consumed entries are reported by {@link ComponentWarmer#getWarmHitRate()}.
+ */
+public class ComponentWarmingService implements ComponentWarmer.EntryListener {
+
+  public static final long DEFAULT_SLICE_LENGTH_MS = 8;
+
+  public interface TagProvider {
+
+    /** Returns the tag used to cache the prepared item and to consume it from the warmer. */
+    String getTag(ComponentRenderInfo renderInfo);
+  }
+
+  private final ComponentWarmer mComponentWarmer;
+  private final LithoHandler mHandler;
+  private final int mMaxWarmEntries;
+  private final long mSliceLengthNanos;
+
+  private final Runnable mWarmRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          warmSlice();
+        }
+      };
+
+  @GuardedBy("this")
+  private final LinkedHashMap<String, ComponentRenderInfo> mPending = new LinkedHashMap<>();
+
+  @GuardedBy("this")
+  private final Set<String> mWarmTags = new HashSet<>();
+
+  @GuardedBy("this")
+  private int mGeneration;
+
+  @GuardedBy("this")
+  private boolean mIsScheduled;
+
+  @GuardedBy("this")
+  private int mPreparedCount;
+
+  @GuardedBy("this")
+  private int mCancelledCount;
+
+  public static Builder create(ComponentWarmer componentWarmer, LithoHandler handler) {
+    return new Builder(componentWarmer, handler);
+  }
+
+  private ComponentWarmingService(Builder builder) {
+    mComponentWarmer = builder.mComponentWarmer;
+    mHandler = builder.mHandler;
+    mMaxWarmEntries = builder.mMaxWarmEntries;
+    mSliceLengthNanos = builder.mSliceLengthMs * 1000000L;
+
+    mComponentWarmer.setEntryListener(this);
+  }
+
+  /**
+   * Submits an item to be prepared after all previously submitted items. Items whose tag is
+   * already pending or warm are ignored.
+   */
+  public void submit(String tag, ComponentRenderInfo renderInfo) {
+    synchronized (this) {
+      if (mWarmTags.contains(tag) || mPending.containsKey(tag)) {
+        return;
+      }
+      mPending.put(tag, renderInfo);
+    }
+
+    maybeSchedule();
+  }
+
+  /** Same as {@link #submit(String, ComponentRenderInfo)} for a list of items. */
+  public void submitAll(List<ComponentRenderInfo> renderInfos, TagProvider tagProvider) {
+    synchronized (this) {
+      for (int i = 0, size = renderInfos.size(); i < size; i++) {
+        final ComponentRenderInfo renderInfo = renderInfos.get(i);
+        final String tag = tagProvider.getTag(renderInfo);
+        if (!mWarmTags.contains(tag) && !mPending.containsKey(tag)) {
+          mPending.put(tag, renderInfo);
+        }
+      }
+    }
+
+    maybeSchedule();
+  }
+
+  /**
+   * Drops all pending items and cancels the layouts of warm entries that were not consumed yet.
+   * An item that is being prepared when this is called is cancelled once its layout returns.
+   */
+  public void invalidate() {
+    final List<String> warmTags;
+    synchronized (this) {
+      mGeneration++;
+      mPending.clear();
+      warmTags = new ArrayList<>(mWarmTags);
+      mWarmTags.clear();
+      mCancelledCount += warmTags.size();
+    }
+
+    for (int i = 0, size = warmTags.size(); i < size; i++) {
+      mComponentWarmer.cancelPrepare(warmTags.get(i));
+    }
+  }
+
+  public ComponentWarmer getComponentWarmer() {
+    return mComponentWarmer;
+  }
+
+  public synchronized int getPendingCount() {
+    return mPending.size();
+  }
+
+  public synchronized int getWarmCount() {
+    return mWarmTags.size();
+  }
+
+  /** Number of items this service has prepared. */
+  public synchronized int getPreparedCount() {
+    return mPreparedCount;
+  }
+
+  /** Number of warm entries whose layout was cancelled by {@link #invalidate()}. */
+  public synchronized int getCancelledCount() {
+    return mCancelledCount;
+  }
+
+  @Override
+  public void onEntryConsumed(String tag, boolean isWarm) {
+    onEntryReleased(tag);
+  }
+
+  @Override
+  public void onEntryMissed(String tag) {
+    // The RecyclerBinder already created its own tree for this item, preparing it would be wasted.
+    synchronized (this) {
+      mPending.remove(tag);
+    }
+    onEntryReleased(tag);
+  }
+
+  @Override
+  public void onEntryEvicted(String tag) {
+    onEntryReleased(tag);
+  }
+
+  private void onEntryReleased(String tag) {
+    synchronized (this) {
+      if (!mWarmTags.remove(tag)) {
+        return;
+      }
+    }
+
+    maybeSchedule();
+  }
+
+  private void maybeSchedule() {
+    synchronized (this) {
+      if (mIsScheduled || !canWarmNext()) {
+        return;
+      }
+      mIsScheduled = true;
+    }
+
+    mHandler.post(mWarmRunnable, "ComponentWarmingService");
+  }
+
+  @GuardedBy("this")
+  private boolean canWarmNext() {
+    return !mPending.isEmpty() && mWarmTags.size() < mMaxWarmEntries;
+  }
+
+  @VisibleForTesting
+  void warmSlice() {
+    final long deadline = System.nanoTime() + mSliceLengthNanos;
+
+    while (true) {
+      final String tag;
+      final ComponentRenderInfo renderInfo;
+      final int generation;
+      synchronized (this) {
+        if (!canWarmNext()) {
+          mIsScheduled = false;
+          return;
+        }
+
+        final Iterator<Map.Entry<String, ComponentRenderInfo>> iterator =
+            mPending.entrySet().iterator();
+        final Map.Entry<String, ComponentRenderInfo> next = iterator.next();
+        iterator.remove();
+        tag = next.getKey();
+        renderInfo = next.getValue();
+        generation = mGeneration;
+        mWarmTags.add(tag);
+      }
+
+      mComponentWarmer.prepare(tag, renderInfo, null);
+
+      final boolean isStale;
+      synchronized (this) {
+        mPreparedCount++;
+        // If invalidate() ran during the layout the entry was cached too late to be cancelled
+        // there, unless the same tag was submitted again since.
+        isStale = generation != mGeneration && !mWarmTags.contains(tag);
+      }
+      if (isStale) {
+        mComponentWarmer.cancelPrepare(tag);
+      }
+
+      if (System.nanoTime() >= deadline) {
+        synchronized (this) {
+          if (!canWarmNext()) {
+            mIsScheduled = false;
+            return;
+          }
+        }
+
+        // Yield to other work posted to the handler before continuing.
+        mHandler.post(mWarmRunnable, "ComponentWarmingService");
+        return;
+      }
+    }
+  }
+
+  public static class Builder {
+
+    private final ComponentWarmer mComponentWarmer;
+    private final LithoHandler mHandler;
+    private int mMaxWarmEntries = ComponentWarmer.DEFAULT_MAX_SIZE;
+    private long mSliceLengthMs = DEFAULT_SLICE_LENGTH_MS;
+
+    private Builder(ComponentWarmer componentWarmer, LithoHandler handler) {
+      if (componentWarmer == null || handler == null) {
+        throw new NullPointerException("ComponentWarmer and LithoHandler must be non null");
+      }
+      mComponentWarmer = componentWarmer;
+      mHandler = handler;
+    }
+
+    /** Maximum number of prepared entries which can be waiting to be consumed at any time. */
+    public Builder maxWarmEntries(int maxWarmEntries) {
+      if (maxWarmEntries < 1) {
+        throw new IllegalArgumentException("maxWarmEntries must be positive: " + maxWarmEntries);
+      }
+      mMaxWarmEntries = maxWarmEntries;
+      return this;
+    }
+
+    /**
+     * Time after which a slice of warming work yields the handler. An item is never interrupted,
+     * so a slice can exceed this length by the duration of one layout.
+     */
+    public Builder sliceLengthMs(long sliceLengthMs) {
+      mSliceLengthMs = sliceLengthMs;
+      return this;
+    }
+
+    public ComponentWarmingService build() {
+      return new ComponentWarmingService(this);
+    }
+  }
+}
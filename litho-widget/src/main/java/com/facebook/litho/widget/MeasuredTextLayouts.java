@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) Facebook, Inc. and its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget;
+
+import android.text.Layout;
+import androidx.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * The text layouts a {@link TextSpec} created while it was measured during one layout pass, with
+ * the width spec each layout was created for and the size it measured to. Yoga may measure a Text
+ * with several width specs before assigning its bounds, so keeping a few of them lets {@link
+ * TextSpec#onBoundsDefined} pick one instead of creating the layout again.
+ *
+ * <p>An instance is created in {@link TextSpec#onPrepare} for every layout pass, and is only used
+ * from the thread calculating that layout.
+ */
+final class MeasuredTextLayouts {
+
+  static final int MAX_SIZE = 4;
+
+  private final int[] mWidthSpecs = new int[MAX_SIZE];
+  private final int[] mWidths = new int[MAX_SIZE];
+  private final int[] mHeights = new int[MAX_SIZE];
+  private final Layout[] mLayouts = new Layout[MAX_SIZE];
+  private int mSize;
+  private int mNextIndex;
+
+  /** Returns the layout created for the given width spec, or null if there is none. */
+  @Nullable
+  Layout getForWidthSpec(int widthSpec) {
+    final int index = indexOfWidthSpec(widthSpec);
+    return index >= 0 ? mLayouts[index] : null;
+  }
+
+  /** Returns a layout that measured to the given size, or null if there is none. */
+  @Nullable
+  Layout getForSize(float width, float height) {
+    for (int i = 0; i < mSize; i++) {
+      if (mWidths[i] == width && mHeights[i] == height) {
+        return mLayouts[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Keeps the layout created for the given width spec. Once {@link #MAX_SIZE} layouts are kept,
+   * the oldest one is replaced.
+   */
+  void put(int widthSpec, Layout layout, int width, int height) {
+    int index = indexOfWidthSpec(widthSpec);
+    if (index < 0) {
+      index = mNextIndex;
+      mNextIndex = (mNextIndex + 1) % MAX_SIZE;
+      mSize = Math.min(mSize + 1, MAX_SIZE);
+    }
+
+    mWidthSpecs[index] = widthSpec;
+    mLayouts[index] = layout;
+    mWidths[index] = width;
+    mHeights[index] = height;
+  }
+
+  /** Drops all layouts, so that they are not retained once one of them has been picked. */
+  void clear() {
+    Arrays.fill(mLayouts, null);
+    mSize = 0;
+    mNextIndex = 0;
+  }
+
+  int size() {
+    return mSize;
+  }
+
+  private int indexOfWidthSpec(int widthSpec) {
+    for (int i = 0; i < mSize; i++) {
+      if (mWidthSpecs[i] == widthSpec) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
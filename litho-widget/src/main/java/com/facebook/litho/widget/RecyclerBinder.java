@@ -63,6 +63,7 @@ import com.facebook.litho.LithoView.LayoutManagerOverrideParams;
 import com.facebook.litho.LogTreePopulator;
 import com.facebook.litho.MeasureComparisonUtils;
 import com.facebook.litho.PerfEvent;
+import com.facebook.litho.PriorityLayoutScheduler;
 import com.facebook.litho.RenderCompleteEvent;
 import com.facebook.litho.Size;
 import com.facebook.litho.SizeSpec;
@@ -141,6 +142,7 @@ public class RecyclerBinder
   private final boolean mEnableDetach;
   private final boolean mUseCancelableLayoutFutures;
   private final boolean mMoveLayoutsBetweenThreads;
+  private final int mParallelViewportFillCount;
   private final boolean mIsSubAdapter;
   private final boolean mHasManualEstimatedViewportCount;
   private final boolean mIsReconciliationEnabled;
@@ -446,6 +448,7 @@ public class RecyclerBinder
         ComponentsConfiguration.canInterruptAndMoveLayoutsBetweenThreads;
     private boolean isSubAdapter;
     private int estimatedViewportCount = UNSET;
+    private int parallelViewportFillCount = ComponentsConfiguration.parallelViewportFillCount;
     private boolean isReconciliationEnabled = ComponentsConfiguration.isReconciliationEnabled;
     private boolean isLayoutDiffingEnabled = ComponentsConfiguration.isLayoutDiffingEnabled;
     private LithoHandler preallocateMountContentHandler;
@@ -647,6 +650,17 @@ public class RecyclerBinder
       return this;
     }
 
+    /**
+     * Experimental. When the binder fills its viewport during measure, start laying out up to this
+     * many rows at once on their layout handlers instead of one after another. The estimated
+     * viewport count is used instead when it is known. Rows the viewport doesn't need keep their
+     * layouts, as if they had been prefetched. A non positive count disables this.
+     */
+    public Builder parallelViewportFillCount(int parallelViewportFillCount) {
+      this.parallelViewportFillCount = parallelViewportFillCount;
+      return this;
+    }
+
     public Builder incrementalVisibilityHandling(boolean isEnabled) {
       mIncrementalVisibility = isEnabled;
       return this;
@@ -977,6 +991,7 @@ public class RecyclerBinder
     mEnableDetach = builder.enableDetach;
     mUseCancelableLayoutFutures = builder.useCancelableLayoutFutures;
     mMoveLayoutsBetweenThreads = builder.canInterruptAndMoveLayoutsBetweenThreads;
+    mParallelViewportFillCount = builder.parallelViewportFillCount;
     mIsSubAdapter = builder.isSubAdapter;
     mIsReconciliationEnabled = builder.isReconciliationEnabled;
     mIsLayoutDiffingEnabled = builder.isLayoutDiffingEnabled;
@@ -2374,6 +2389,10 @@ public class RecyclerBinder
     final int heightSpec = SizeSpec.makeSizeSpec(maxHeight, SizeSpec.EXACTLY);
     final Size outSize = new Size();
 
+    if (mParallelViewportFillCount > 0) {
+      computeLayoutsAsyncToFillListViewport(holders, offset, widthSpec, heightSpec);
+    }
+
     int numInserted = 0;
     int index = offset;
     while (filler.wantsMore() && index < holders.size()) {
@@ -2418,6 +2437,32 @@ public class RecyclerBinder
     return numInserted;
   }
 
+  /**
+   * Starts the layouts of the rows after the first one that are expected to fill the viewport on
+   * their layout handlers. The viewport filler still gets the rows in order: a sync layout returns
+   * the result of an async one that already completed, or waits for it if it is running.
+   */
+  @GuardedBy("this")
+  private void computeLayoutsAsyncToFillListViewport(
+      List<ComponentTreeHolder> holders, int offset, int widthSpec, int heightSpec) {
+    final int count =
+        mEstimatedViewportCount != UNSET ? mEstimatedViewportCount : mParallelViewportFillCount;
+
+    // The first row is laid out on this thread right away, so it isn't posted.
+    for (int i = offset + 1, end = Math.min(offset + count, holders.size()); i < end; i++) {
+      final ComponentTreeHolder holder = holders.get(i);
+      final RenderInfo renderInfo = holder.getRenderInfo();
+      if (renderInfo.rendersView()) {
+        break;
+      }
+
+      holder.computeLayoutAsync(
+          mComponentContext,
+          mLayoutInfo.getChildWidthSpec(widthSpec, renderInfo),
+          mLayoutInfo.getChildHeightSpec(heightSpec, renderInfo));
+    }
+  }
+
   private void logFillViewportInserted(int numInserted, int totalSize) {
     if (SectionsDebug.ENABLED) {
       Log.d(
@@ -3199,6 +3244,8 @@ public class RecyclerBinder
       }
     }
 
+    final int firstVisibleIndex = firstVisible;
+    final int lastVisibleIndex = lastVisible;
     mRangeTraverser.traverse(
         0,
         treeHoldersSize,
@@ -3207,14 +3254,20 @@ public class RecyclerBinder
         new RecyclerRangeTraverser.Processor() {
           @Override
           public boolean process(int index) {
-            return computeRangeLayoutAt(index, rangeStart, rangeEnd, treeHoldersSize);
+            return computeRangeLayoutAt(
+                index, rangeStart, rangeEnd, treeHoldersSize, firstVisibleIndex, lastVisibleIndex);
           }
         });
   }
 
   /** @return Whether or not to continue layout computation for current range */
   private boolean computeRangeLayoutAt(
-      int index, int rangeStart, int rangeEnd, int treeHoldersSize) {
+      int index,
+      int rangeStart,
+      int rangeEnd,
+      int treeHoldersSize,
+      int firstVisible,
+      int lastVisible) {
 
     final ComponentTreeHolder holder;
     final int childrenWidthSpec, childrenHeightSpec;
@@ -3237,6 +3290,7 @@ public class RecyclerBinder
     }
 
     if ((index >= rangeStart || holder.getRenderInfo().isSticky()) && index <= rangeEnd) {
+      holder.updateLayoutPriority(getLayoutPriority(index, firstVisible, lastVisible));
       if (!holder.isTreeValidForSizeSpecs(childrenWidthSpec, childrenHeightSpec)) {
         holder.computeLayoutAsync(mComponentContext, childrenWidthSpec, childrenHeightSpec);
       }
@@ -3251,6 +3305,24 @@ public class RecyclerBinder
     return true;
   }
 
+  /**
+   * Items on screen are laid out first, then the ones within a viewport of the visible range, and
+   * only then the rest of the range.
+   */
+  private static @PriorityLayoutScheduler.Priority int getLayoutPriority(
+      int index, int firstVisible, int lastVisible) {
+    if (index >= firstVisible && index <= lastVisible) {
+      return PriorityLayoutScheduler.PRIORITY_VISIBLE;
+    }
+
+    final int viewportSize = lastVisible - firstVisible + 1;
+    if (index >= firstVisible - viewportSize && index <= lastVisible + viewportSize) {
+      return PriorityLayoutScheduler.PRIORITY_NEAR_RANGE;
+    }
+
+    return PriorityLayoutScheduler.PRIORITY_PREFETCH;
+  }
+
   private Runnable getMaybeAcquireStateAndReleaseTreeRunnable(final ComponentTreeHolder holder) {
     return new Runnable() {
       @Override
@@ -41,8 +41,8 @@ import android.view.View;
 import android.view.ViewConfiguration;
 import androidx.annotation.VisibleForTesting;
 import com.facebook.fbui.textlayoutbuilder.util.LayoutMeasureUtil;
+import com.facebook.litho.BoundedTouchable;
 import com.facebook.litho.TextContent;
-import com.facebook.litho.Touchable;
 import java.util.Collections;
 import java.util.List;
 import javax.annotation.Nullable;
@@ -53,7 +53,8 @@ import javax.annotation.Nullable;
  * @see Component
  * @see TextSpec
  */
-public class TextDrawable extends Drawable implements Touchable, TextContent, Drawable.Callback {
+public class TextDrawable extends Drawable
+    implements BoundedTouchable, TextContent, Drawable.Callback {
 
   private Layout mLayout;
   private float mLayoutTranslationY;
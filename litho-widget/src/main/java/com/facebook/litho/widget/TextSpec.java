@@ -66,6 +66,7 @@ import com.facebook.litho.Size;
 import com.facebook.litho.SizeSpec;
 import com.facebook.litho.annotations.FromBoundsDefined;
 import com.facebook.litho.annotations.FromMeasure;
+import com.facebook.litho.annotations.FromPrepare;
 import com.facebook.litho.annotations.GetExtraAccessibilityNodeAt;
 import com.facebook.litho.annotations.GetExtraAccessibilityNodesCount;
 import com.facebook.litho.annotations.MountSpec;
@@ -76,6 +77,7 @@ import com.facebook.litho.annotations.OnMeasure;
 import com.facebook.litho.annotations.OnMount;
 import com.facebook.litho.annotations.OnPopulateAccessibilityNode;
 import com.facebook.litho.annotations.OnPopulateExtraAccessibilityNode;
+import com.facebook.litho.annotations.OnPrepare;
 import com.facebook.litho.annotations.OnUnmount;
 import com.facebook.litho.annotations.Prop;
 import com.facebook.litho.annotations.PropDefault;
@@ -274,6 +276,11 @@ class TextSpec {
         typeface);
   }
 
+  @OnPrepare
+  static void onPrepare(ComponentContext c, Output<MeasuredTextLayouts> measuredLayouts) {
+    measuredLayouts.set(new MeasuredTextLayouts());
+  }
+
   @OnMeasure
   static void onMeasure(
       ComponentContext context,
@@ -314,6 +321,7 @@ class TextSpec {
       @Prop(optional = true) boolean minimallyWide,
       @Prop(optional = true, resType = ResType.DIMEN_SIZE) int minimallyWideThreshold,
       @Prop(optional = true, resType = ResType.DIMEN_TEXT) float lineHeight,
+      @FromPrepare MeasuredTextLayouts measuredLayouts,
       Output<Layout> measureLayout,
       Output<Integer> measuredWidth,
       Output<Integer> measuredHeight) {
@@ -325,41 +333,46 @@ class TextSpec {
       return;
     }
 
+    // Yoga may measure the same Text more than once with the same width spec.
     Layout newLayout =
-        createTextLayout(
-            context,
-            widthSpec,
-            ellipsize,
-            shouldIncludeFontPadding,
-            maxLines,
-            shadowRadius,
-            shadowDx,
-            shadowDy,
-            shadowColor,
-            isSingleLine,
-            text,
-            textColor,
-            textColorStateList,
-            linkColor,
-            textSize,
-            extraSpacing,
-            spacingMultiplier,
-            letterSpacing,
-            textStyle,
-            typeface,
-            getTextAlignment(textAlignment, alignment),
-            glyphWarming,
-            layout.getResolvedLayoutDirection(),
-            minEms,
-            maxEms,
-            minTextWidth,
-            maxTextWidth,
-            context.getAndroidContext().getResources().getDisplayMetrics().density,
-            breakStrategy,
-            hyphenationFrequency,
-            justificationMode,
-            textDirection,
-            lineHeight);
+        measuredLayouts != null ? measuredLayouts.getForWidthSpec(widthSpec) : null;
+    if (newLayout == null) {
+      newLayout =
+          createTextLayout(
+              context,
+              widthSpec,
+              ellipsize,
+              shouldIncludeFontPadding,
+              maxLines,
+              shadowRadius,
+              shadowDx,
+              shadowDy,
+              shadowColor,
+              isSingleLine,
+              text,
+              textColor,
+              textColorStateList,
+              linkColor,
+              textSize,
+              extraSpacing,
+              spacingMultiplier,
+              letterSpacing,
+              textStyle,
+              typeface,
+              getTextAlignment(textAlignment, alignment),
+              glyphWarming,
+              layout.getResolvedLayoutDirection(),
+              minEms,
+              maxEms,
+              minTextWidth,
+              maxTextWidth,
+              context.getAndroidContext().getResources().getDisplayMetrics().density,
+              breakStrategy,
+              hyphenationFrequency,
+              justificationMode,
+              textDirection,
+              lineHeight);
+    }
 
     measureLayout.set(newLayout);
 
@@ -389,6 +402,9 @@ class TextSpec {
           "Text layout measured to less than 0 pixels");
     }
 
+    if (measuredLayouts != null) {
+      measuredLayouts.put(widthSpec, newLayout, size.width, size.height);
+    }
     measuredWidth.set(size.width);
     measuredHeight.set(size.height);
   }
@@ -620,6 +636,7 @@ class TextSpec {
       @Prop(optional = true) TextDirectionHeuristicCompat textDirection,
       @Prop(optional = true, resType = ResType.STRING) CharSequence customEllipsisText,
       @Prop(optional = true, resType = ResType.DIMEN_TEXT) float lineHeight,
+      @FromPrepare MeasuredTextLayouts measuredLayouts,
       @FromMeasure Layout measureLayout,
       @FromMeasure Integer measuredWidth,
       @FromMeasure Integer measuredHeight,
@@ -639,13 +656,31 @@ class TextSpec {
     final float layoutHeight =
         layout.getHeight() - layout.getPaddingTop() - layout.getPaddingBottom();
 
-    if (measureLayout != null && measuredWidth == layoutWidth && measuredHeight == layoutHeight) {
-      textLayout.set(measureLayout);
+    final int exactWidthSpec = SizeSpec.makeSizeSpec((int) layoutWidth, EXACTLY);
+    Layout measuredLayout = null;
+    if (measuredLayouts != null) {
+      measuredLayout = measuredLayouts.getForWidthSpec(exactWidthSpec);
+      if (measuredLayout == null) {
+        measuredLayout = measuredLayouts.getForSize(layoutWidth, layoutHeight);
+      }
+      // The holder lives as long as the mounted Text, don't keep the layouts it won't use.
+      measuredLayouts.clear();
+    }
+    if (measuredLayout == null
+        && measureLayout != null
+        && measuredWidth == layoutWidth
+        && measuredHeight == layoutHeight) {
+      // The measure outputs can come from a previous layout pass if this one reused its measure.
+      measuredLayout = measureLayout;
+    }
+
+    if (measuredLayout != null) {
+      textLayout.set(measuredLayout);
     } else {
       textLayout.set(
           createTextLayout(
               c,
-              SizeSpec.makeSizeSpec((int) layoutWidth, EXACTLY),
+              exactWidthSpec,
               ellipsize,
               shouldIncludeFontPadding,
               maxLines,